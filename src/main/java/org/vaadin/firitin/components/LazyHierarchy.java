@@ -0,0 +1,303 @@
+package org.vaadin.firitin.components;
+
+import com.vaadin.flow.function.SerializablePredicate;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The flattened view of a lazy loaded hierarchy, used by
+ * {@link TreeTable#setLazyChildren(TreeTable.ChildrenFetcher, TreeTable.ChildrenCounter)}.
+ * <p>
+ * Only the expanded nodes are tracked, with the number of their children
+ * and their expanded children by sibling index. A range of the flattened
+ * rows is resolved to ranges of siblings, fetched from the backend with
+ * one query each, so only the rows in the viewport are loaded.
+ * </p>
+ * <p>
+ * The positions and the children counts of the fetched items are kept
+ * only while they are part of the tracked hierarchy, so they are pruned
+ * when a node is collapsed or its children are re-counted. They are also
+ * kept only for the recently fetched items, so scrolling through a node
+ * with millions of children doesn't grow them without limit.
+ * </p>
+ *
+ * @param <T> the item type
+ */
+final class LazyHierarchy<T> implements Serializable {
+
+    private final TreeTable.ChildrenFetcher<T> fetcher;
+    private final TreeTable.ChildrenCounter<T> counter;
+    private final SerializablePredicate<T> open;
+    private final Node<T> root;
+    // fetched items -> their position in the hierarchy, the most recently fetched last
+    private final Map<T, Position<T>> positions = new LinkedHashMap<>();
+    // the number of recently fetched items to keep track of
+    private int maxPositions = MIN_TRACKED_ITEMS;
+    // fetched, not expanded items -> their number of children
+    private final Map<T, Integer> childCounts = new HashMap<>();
+
+    private static final class Node<T> implements Serializable {
+        private final T item;
+        private final int childLevel;
+        private int childCount;
+        // sibling index -> expanded child
+        private final TreeMap<Integer, Node<T>> expanded = new TreeMap<>();
+
+        Node(T item, int childLevel, int childCount) {
+            this.item = item;
+            this.childLevel = childLevel;
+            this.childCount = childCount;
+        }
+
+        int size() {
+            int size = childCount;
+            for (Node<T> child : expanded.values()) {
+                size += child.size();
+            }
+            return size;
+        }
+    }
+
+    private record Position<T>(Node<T> parent, int index) implements Serializable {
+    }
+
+    private static final int MIN_TRACKED_ITEMS = 1000;
+    // how many fetch windows of items are kept track of
+    private static final int TRACKED_WINDOWS = 10;
+
+    /**
+     * @param fetcher fetches a range of children of a parent
+     * @param counter counts the children of a parent
+     * @param open    tells whether a fetched item should be expanded
+     */
+    LazyHierarchy(TreeTable.ChildrenFetcher<T> fetcher, TreeTable.ChildrenCounter<T> counter,
+                  SerializablePredicate<T> open) {
+        this.fetcher = fetcher;
+        this.counter = counter;
+        this.open = open;
+        this.root = new Node<>(null, 0, counter.count(null));
+    }
+
+    int size() {
+        return root.size();
+    }
+
+    int getLevel(T item) {
+        Position<T> position = positions.get(item);
+        return position == null ? 0 : position.parent().childLevel;
+    }
+
+    /**
+     * Counts the children of the given item, the count of a fetched item is
+     * remembered until its children are re-counted.
+     */
+    int countChildren(T item) {
+        Position<T> position = positions.get(item);
+        if (position == null) {
+            return counter.count(item);
+        }
+        Node<T> node = position.parent().expanded.get(position.index());
+        if (node != null) {
+            return node.childCount;
+        }
+        return childCounts.computeIfAbsent(item, counter::count);
+    }
+
+    /**
+     * Re-counts the children of the root and the expanded nodes.
+     */
+    void refreshCounts() {
+        childCounts.clear();
+        refreshCounts(root);
+        prune();
+    }
+
+    /**
+     * Re-counts the children of the given item and, if it is expanded, of
+     * its expanded descendants, keeping them expanded.
+     */
+    void refreshCounts(T item) {
+        childCounts.remove(item);
+        Position<T> position = expandedPosition(item);
+        Node<T> node = position == null ? null : position.parent().expanded.get(position.index());
+        if (node != null) {
+            refreshCounts(node);
+            prune();
+        }
+    }
+
+    private void refreshCounts(Node<T> node) {
+        node.childCount = counter.count(node.item);
+        // drop expanded children that no longer exist
+        node.expanded.tailMap(node.childCount).clear();
+        node.expanded.values().forEach(this::refreshCounts);
+    }
+
+    void setExpanded(T item, boolean expanded) {
+        Position<T> position = expanded ? positions.get(item) : expandedPosition(item);
+        if (position == null) {
+            // not fetched, can't be toggled
+            return;
+        }
+        Node<T> parent = position.parent();
+        if (expanded) {
+            expand(parent, position.index(), item);
+        } else if (parent.expanded.remove(position.index()) != null) {
+            prune();
+        }
+    }
+
+    /**
+     * The position of the item, also if it is expanded, but not fetched
+     * recently.
+     */
+    private Position<T> expandedPosition(T item) {
+        Position<T> position = positions.get(item);
+        return position == null ? findExpanded(root, item) : position;
+    }
+
+    private Position<T> findExpanded(Node<T> node, T item) {
+        for (Map.Entry<Integer, Node<T>> entry : node.expanded.entrySet()) {
+            if (Objects.equals(entry.getValue().item, item)) {
+                return new Position<>(node, entry.getKey());
+            }
+            Position<T> position = findExpanded(entry.getValue(), item);
+            if (position != null) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    private boolean expand(Node<T> parent, int index, T item) {
+        if (parent.expanded.containsKey(index)) {
+            return false;
+        }
+        Integer count = childCounts.remove(item);
+        parent.expanded.put(index, new Node<>(item, parent.childLevel + 1,
+                count == null ? counter.count(item) : count));
+        return true;
+    }
+
+    /**
+     * Drops the positions and counts of items that are no longer part of
+     * the tracked hierarchy.
+     */
+    private void prune() {
+        Set<Node<T>> nodes = new HashSet<>();
+        addNodes(root, nodes);
+        positions.values().removeIf(position -> !nodes.contains(position.parent())
+                || position.index() >= position.parent().childCount);
+        childCounts.keySet().retainAll(positions.keySet());
+    }
+
+    private void addNodes(Node<T> node, Set<Node<T>> nodes) {
+        nodes.add(node);
+        node.expanded.values().forEach(child -> addNodes(child, nodes));
+    }
+
+    /**
+     * Fetches the rows in [offset, offset + limit) of the flattened
+     * hierarchy. Fetched items that are open, but not yet expanded (e.g.
+     * with a custom open model), are expanded and the rows are collected
+     * again, so the size of the hierarchy may change.
+     */
+    Stream<T> fetch(int offset, int limit) {
+        List<T> rows = new ArrayList<>();
+        while (collect(root, offset, offset + limit, rows)) {
+            rows.clear();
+        }
+        maxPositions = (int) Math.max(maxPositions, Math.min(Integer.MAX_VALUE, (long) TRACKED_WINDOWS * rows.size()));
+        evictPositions();
+        return rows.stream();
+    }
+
+    /**
+     * Forgets the least recently fetched items.
+     */
+    private void evictPositions() {
+        Iterator<T> eldest = positions.keySet().iterator();
+        while (positions.size() > maxPositions) {
+            childCounts.remove(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Collects the rows in [from, to) of the flattened subtree of the given
+     * node, positions relative to the first child of the node.
+     *
+     * @return true if a fetched item was expanded, so the collected rows
+     * are no longer valid
+     */
+    private boolean collect(Node<T> node, int from, int to, List<T> rows) {
+        int flat = 0;
+        int childIndex = 0;
+        for (Map.Entry<Integer, Node<T>> entry : node.expanded.entrySet()) {
+            int index = entry.getKey();
+            // plain siblings up to and including the expanded child
+            int end = fetchSiblings(node, childIndex, index + 1, flat, from, to, rows);
+            if (end < 0) {
+                return true;
+            }
+            flat = end;
+            childIndex = index + 1;
+            if (flat >= to) {
+                return false;
+            }
+            Node<T> child = entry.getValue();
+            int childSize = child.size();
+            if (flat + childSize > from && collect(child, Math.max(0, from - flat), to - flat, rows)) {
+                return true;
+            }
+            flat += childSize;
+            if (flat >= to) {
+                return false;
+            }
+        }
+        return fetchSiblings(node, childIndex, node.childCount, flat, from, to, rows) < 0;
+    }
+
+    /**
+     * Fetches the requested part of the children [fromIndex, toIndex) of the
+     * given node, located at the flattened position flat.
+     *
+     * @return the flattened position after the children, -1 if a fetched
+     * item was expanded
+     */
+    private int fetchSiblings(Node<T> node, int fromIndex, int toIndex, int flat, int from, int to, List<T> rows) {
+        int count = toIndex - fromIndex;
+        int start = Math.max(from, flat);
+        int end = Math.min(to, flat + count);
+        if (start < end) {
+            int siblingOffset = fromIndex + start - flat;
+            List<T> fetched = fetcher.fetch(node.item, siblingOffset, end - start).toList();
+            boolean expanded = false;
+            for (int i = 0; i < fetched.size(); i++) {
+                T item = fetched.get(i);
+                // re-inserted as the most recently fetched
+                positions.remove(item);
+                positions.put(item, new Position<>(node, siblingOffset + i));
+                rows.add(item);
+                if (open.test(item) && expand(node, siblingOffset + i, item)) {
+                    expanded = true;
+                }
+            }
+            if (expanded) {
+                return -1;
+            }
+        }
+        return flat + count;
+    }
+}
@@ -19,12 +19,14 @@ import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Composite;
 import com.vaadin.flow.component.ItemLabelGenerator;
 import com.vaadin.flow.component.Text;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.dependency.StyleSheet;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.data.provider.hierarchy.TreeData;
 import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializablePredicate;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -35,7 +37,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
@@ -123,6 +129,67 @@ public class Tree<T> extends Composite<VerticalLayout> {
         Tree.this.setItems(Arrays.asList(rootNode), childrenProvider);
     }
 
+    /**
+     * Sets the root nodes for the tree with a strategy to fetch children for
+     * items and a predicate telling whether an item has children. Unlike with
+     * {@link #setItems(List, ChildrenProvider)}, the children of a node are
+     * fetched only when the node is opened, the predicate is used to decide
+     * whether a node can be opened. Use this if fetching children is
+     * expensive, e.g. a database query or file system access.
+     * <p>
+     * Code example:
+     * </p>
+     *
+     * <pre>
+     *   dudeTree.setItems(rootNodes, Dude::getSubordinates, Dude::hasSubordinates);
+     * </pre>
+     *
+     * @param rootNodes the items to be shown in the Tree at the root level
+     * @param childrenProvider the strategy to fetch children from the nodes
+     * @param hasChildren the predicate telling if an item has children, if it
+     * gives false positives, the nodes become leaves when opened
+     */
+    public void setItems(List<? extends T> rootNodes, ChildrenProvider<T> childrenProvider, SerializablePredicate<T> hasChildren) {
+        for (T item : rootNodes) {
+            final TreeItem treeItem = createTreeItem(item);
+            getContent().add(treeItem);
+            fillTree(childrenProvider, hasChildren, item, treeItem);
+        }
+    }
+
+    /**
+     * Sets the root nodes for the tree with an asynchronous strategy to fetch
+     * children for items. The children of a node are requested only when the
+     * node is opened, meanwhile a loading indicator is shown in the
+     * {@link TreeItem}. The results are applied with
+     * {@link UI#access(com.vaadin.flow.server.Command)}, so server push or
+     * polling is needed for them to show up without further user
+     * interaction. If fetching fails, the node is closed and
+     * {@link #handleAsyncChildrenError(Object, TreeItem, Throwable)} is called.
+     * <p>
+     * Code example:
+     * </p>
+     *
+     * <pre>
+     *   dudeTree.setAsyncItems(rootNodes,
+     *          dude -&gt; CompletableFuture.supplyAsync(() -&gt; service.findSubordinates(dude)),
+     *          Dude::hasSubordinates);
+     * </pre>
+     *
+     * @param rootNodes the items to be shown in the Tree at the root level
+     * @param childrenProvider the asynchronous strategy to fetch children from
+     * the nodes
+     * @param hasChildren the predicate telling if an item has children, if it
+     * gives false positives, the nodes become leaves when opened
+     */
+    public void setAsyncItems(List<? extends T> rootNodes, AsyncChildrenProvider<T> childrenProvider, SerializablePredicate<T> hasChildren) {
+        for (T item : rootNodes) {
+            final TreeItem treeItem = createTreeItem(item);
+            getContent().add(treeItem);
+            fillTreeAsync(childrenProvider, hasChildren, item, treeItem);
+        }
+    }
+
     /**
      * Sets root items with multiple children providers used to fetch
      * sub-sequent levels. This approach is handy if the hierarchy in the Tree
@@ -241,6 +308,75 @@ public class Tree<T> extends Composite<VerticalLayout> {
         }
     }
 
+    protected void fillTree(ChildrenProvider<T> childrenProvider, SerializablePredicate<T> hasChildren, T item, final TreeItem treeItem) {
+        if (hasChildren.test(item)) {
+            treeItem.setPopulateSubreeHandler(() -> {
+                List<T> children = childrenProvider.getChildren(item);
+                if (children != null) {
+                    for (T t : children) {
+                        final TreeItem child = createTreeItem(t);
+                        treeItem.addChild(child);
+                        fillTree(childrenProvider, hasChildren, t, child);
+                    }
+                }
+            });
+        }
+    }
+
+    protected void fillTreeAsync(AsyncChildrenProvider<T> childrenProvider, SerializablePredicate<T> hasChildren, T item, final TreeItem treeItem) {
+        if (hasChildren.test(item)) {
+            treeItem.setPopulateSubreeHandler(new TreeItem.PopulateSubtreeHandler() {
+                @Override
+                public void onExpand() {
+                    TreeItem.PopulateSubtreeHandler handler = this;
+                    UI ui = UI.getCurrent();
+                    treeItem.setLoading(true);
+                    childrenProvider.getChildren(item).whenComplete((children, error) -> {
+                        if (ui == null) {
+                            childrenResponse(childrenProvider, hasChildren, item, treeItem, handler, children, error);
+                        } else {
+                            ui.access(() -> childrenResponse(childrenProvider, hasChildren, item, treeItem, handler, children, error));
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private void childrenResponse(AsyncChildrenProvider<T> childrenProvider, SerializablePredicate<T> hasChildren,
+            T item, TreeItem treeItem, TreeItem.PopulateSubtreeHandler handler, List<T> children, Throwable error) {
+        if (error != null) {
+            // close and allow retrying by opening again
+            treeItem.setPopulateSubreeHandler(handler);
+            treeItem.closeChildren();
+            treeItem.setLoading(false);
+            handleAsyncChildrenError(item, treeItem, error instanceof CompletionException ? error.getCause() : error);
+            return;
+        }
+        if (children != null) {
+            for (T t : children) {
+                final TreeItem child = createTreeItem(t);
+                treeItem.addChild(child);
+                fillTreeAsync(childrenProvider, hasChildren, t, child);
+            }
+        }
+        treeItem.setLoading(false);
+    }
+
+    /**
+     * Called in the UI thread when fetching the children of a node with the
+     * {@link AsyncChildrenProvider} fails. The node has been closed, so
+     * opening it again retries. By default, the error is logged, override to
+     * e.g. notify the user.
+     *
+     * @param item the item whose children were requested
+     * @param treeItem the tree item of the item
+     * @param error the failure
+     */
+    protected void handleAsyncChildrenError(T item, TreeItem treeItem, Throwable error) {
+        Logger.getLogger(Tree.class.getName()).log(Level.WARNING, "Fetching children failed for " + item, error);
+    }
+
     /**
      * Adds an {@link ItemDecorator} to further configure {@link TreeItem}s
      * generated automatically when {@link #setItems(List, ChildrenProvider)}
@@ -560,4 +696,21 @@ public class Tree<T> extends Composite<VerticalLayout> {
         List getChildren(T parent);
     }
 
+    /**
+     * An asynchronous strategy to fetch children of a node, see
+     * {@link #setAsyncItems(List, AsyncChildrenProvider, SerializablePredicate)}.
+     *
+     * @param <T> the item type
+     */
+    @FunctionalInterface
+    public interface AsyncChildrenProvider<T> {
+
+        /**
+         * @param parent the item whose children are to be provided
+         * @return the future list of children, completed with an empty list
+         * or null if the parent is a leaf node
+         */
+        CompletableFuture<List<T>> getChildren(T parent);
+    }
+
 }
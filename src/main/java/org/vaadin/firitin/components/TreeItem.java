@@ -40,6 +40,7 @@ public class TreeItem extends Component implements ClickNotifier<TreeItem> {
 
     private Element expander;
     private boolean open = false;
+    private boolean loading = false;
     private Div children;
     private Component nodeContent;
     private Element contentTD;
@@ -99,7 +100,13 @@ public class TreeItem extends Component implements ClickNotifier<TreeItem> {
 
     private void updateExpanderToggle() {
         expander.removeAllChildren();
-        expander.appendChild(open ? VaadinIcon.CARET_DOWN.create().getElement() : VaadinIcon.CARET_RIGHT.create().getElement());
+        if (loading) {
+            Element indicator = new Element("span");
+            indicator.getClassList().add("loading-indicator");
+            expander.appendChild(indicator);
+        } else if (hasChildren()) {
+            expander.appendChild(open ? VaadinIcon.CARET_DOWN.create().getElement() : VaadinIcon.CARET_RIGHT.create().getElement());
+        }
     }
 
     public TreeItem addChild(String stringContent) {
@@ -119,8 +126,13 @@ public class TreeItem extends Component implements ClickNotifier<TreeItem> {
             updateExpanderToggle();
             children.setVisible(open);
             if (open && populateSubtreeHandler != null) {
-                populateSubtreeHandler.onExpand();
+                PopulateSubtreeHandler handler = populateSubtreeHandler;
                 populateSubtreeHandler = null;
+                handler.onExpand();
+                if (!hasChildren()) {
+                    // turned out to be a leaf
+                    updateExpanderToggle();
+                }
             }
         }
     }
@@ -154,6 +166,22 @@ public class TreeItem extends Component implements ClickNotifier<TreeItem> {
         return open;
     }
 
+    /**
+     * Shows a loading indicator instead of the expander caret, e.g. while
+     * children are fetched asynchronously.
+     *
+     * @param loading true to show the loading indicator
+     */
+    public void setLoading(boolean loading) {
+        this.loading = loading;
+        getElement().getClassList().set("loading", loading);
+        updateExpanderToggle();
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
     private boolean hasChildren() {
         if (populateSubtreeHandler != null) {
             return true;
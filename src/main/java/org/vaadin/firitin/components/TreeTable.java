@@ -13,17 +13,22 @@ import com.vaadin.flow.data.provider.CallbackDataProvider;
 import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.data.provider.InMemoryDataProvider;
 import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializablePredicate;
 import org.vaadin.firitin.components.grid.VGrid;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Design goals for this component:
@@ -51,6 +56,12 @@ import java.util.function.Function;
  * instance specific! The fetch callbacks need to take the current expanded state
  * into account and return visible subtrees as defined by the {@link OpenModel}.
  * </p>
+ * <p>
+ * For huge hierarchies, {@link #setLazyChildren(ChildrenFetcher, ChildrenCounter)}
+ * is the simplest option: just provide fetch and count callbacks for the
+ * children of a parent and TreeTable fetches only the rows in the visible
+ * window.
+ * </p>
  *
  * <p>Whether you were using lazy loading or in-memory data set,
  * you can override the {@link OpenModel} that controls whether
@@ -69,15 +80,54 @@ public class TreeTable<T> extends VGrid<T> {
     private List<T> rootItems;
     private SerializableFunction<T, List<T>> childrenProvider;
     private boolean allowUserToToggleOpenState = true;
+    // in-memory mode: the flattened rows (backing list of the data provider) and their levels
+    private List<T> visibleRows;
+    private Map<T, Integer> levelMap;
+    private Map<T, Boolean> leafMap;
+    private SerializablePredicate<T> hasChildren;
+    private int childrenCacheSize;
+    // LRU caches, null if caching is disabled
+    private Map<T, List<T>> childrenCache;
+    private Map<T, Boolean> hasChildrenCache;
+    // lazy hierarchical mode, see setLazyChildren
+    private LazyHierarchy<T> lazyHierarchy;
 
+    /**
+     * Adds a hierarchy column with a text value. The column is rendered on
+     * the client side: the level, leaf and open state are sent as row data
+     * and the toggle clicks are handled by a single grid level listener, so
+     * no component or state node is created per row.
+     *
+     * @param valueProvider the text shown next to the toggle
+     * @return the column
+     */
     public Column<T> addHierarchyColumn(SerializableFunction<T, String> valueProvider) {
-        return addComponentColumn(item -> {
-            HierarchyColumnWrapper hcw = new HierarchyColumnWrapper(item);
-            hcw.setText(valueProvider.apply(item));
-            return hcw;
-        });
+        return addColumn(LitRenderer.<T>of("""
+                        <vaadin-grid-tree-toggle .leaf=${item.leaf} .expanded=${item.expanded} .level=${item.level}
+                            style=${item.toggleable ? '' : 'cursor: default'}
+                            @click=${e => { if (item.toggleable) { toggle(); } else { e.currentTarget.expanded = item.expanded; } }}
+                        >${item.text}</vaadin-grid-tree-toggle>
+                        """)
+                .withProperty("text", valueProvider::apply)
+                .withProperty("leaf", item -> getLeafModel().isLeaf(item))
+                .withProperty("expanded", item -> getOpenModel().isOpen(item))
+                .withProperty("level", item -> getLevelModel().getLevel(item))
+                .withProperty("toggleable", item -> allowUserToToggleOpenState)
+                .withFunction("toggle", item -> {
+                    if (allowUserToToggleOpenState && !getLeafModel().isLeaf(item)) {
+                        setOpen(item, !getOpenModel().isOpen(item));
+                    }
+                }));
     }
 
+    /**
+     * Adds a hierarchy column with a component, rendered next to the toggle.
+     * Note, that creates a component per row, prefer
+     * {@link #addHierarchyColumn(SerializableFunction)} for large tree tables.
+     *
+     * @param valueProvider the component shown next to the toggle
+     * @return the column
+     */
     public Column<T> addHierarchyComponentColumn(SerializableFunction<T, Component> valueProvider) {
         return addComponentColumn(item -> {
             HierarchyColumnWrapper hcw = new HierarchyColumnWrapper(item);
@@ -116,14 +166,183 @@ public class TreeTable<T> extends VGrid<T> {
      * @param childrenProvider a function to retrieve children for each item
      */
     public void setRootItems(List<T> rootItems, SerializableFunction<T, List<T>> childrenProvider) {
+        this.lazyHierarchy = null;
         this.rootItems = rootItems;
         this.childrenProvider = childrenProvider;
         reloadData();
     }
 
+    /**
+     * Sets the data in lazy hierarchical mode, for huge hierarchies. Instead
+     * of whole levels, only the children of the expanded nodes that are in
+     * the visible window are fetched, with the given callbacks, using
+     * offset and limit like in a normal lazy loaded Grid.
+     * <p>
+     * In this mode, the {@link LevelModel} and {@link LeafModel} are handled
+     * by TreeTable, and all nodes are closed by default (unless a custom
+     * {@link OpenModel} is set, its open nodes are expanded when fetched).
+     * Leaf detection uses the children count, counted once per fetched item,
+     * unless a cheaper check is given with {@link #setHasChildren(SerializablePredicate)}.
+     * </p>
+     *
+     * @param fetcher fetches a range of children of a parent (null for the root items)
+     * @param counter counts the children of a parent (null for the root items)
+     */
+    public void setLazyChildren(ChildrenFetcher<T> fetcher, ChildrenCounter<T> counter) {
+        this.rootItems = null;
+        this.childrenProvider = null;
+        this.visibleRows = null;
+        if (openModel == null) {
+            openModel = new ClosedByDefault<>();
+        }
+        lazyHierarchy = new LazyHierarchy<>(fetcher, counter, item -> getOpenModel().isOpen(item));
+        setLevelModel(lazyHierarchy::getLevel);
+        setLeafModel(this::isLeaf);
+        super.setItems(DataProvider.fromCallbacks(
+                query -> {
+                    int size = lazyHierarchy.size();
+                    Stream<T> rows = lazyHierarchy.fetch(query.getOffset(), query.getLimit());
+                    if (lazyHierarchy.size() != size) {
+                        // open items were expanded, the grid has the old size
+                        getElement().getNode().runWhenAttached(ui -> ui
+                                .beforeClientResponse(this, context -> getDataProvider().refreshAll()));
+                    }
+                    return rows;
+                },
+                query -> lazyHierarchy.size()));
+    }
+
+    /**
+     * Sets a cheap way to check if an item has children, so that leaf
+     * detection for the rendered rows doesn't need to load the children.
+     *
+     * @param hasChildren a predicate telling whether the item has children
+     */
+    public void setHasChildren(SerializablePredicate<T> hasChildren) {
+        this.hasChildren = hasChildren;
+    }
+
+    /**
+     * Enables caching of the children lists and "has children" flags
+     * fetched with the children provider given in
+     * {@link #setRootItems(List, SerializableFunction)}, so that e.g.
+     * re-opening a node or rendering the same rows again doesn't re-query
+     * a backend. The least recently used entries are evicted when the cache
+     * is full. Use {@link #invalidate(Object)} or {@link #invalidateAll()} when
+     * the hierarchy changes. Disabled by default.
+     *
+     * @param childrenCacheSize the maximum number of cached items, 0 to disable
+     */
+    public void setChildrenCacheSize(int childrenCacheSize) {
+        this.childrenCacheSize = childrenCacheSize;
+        if (childrenCacheSize <= 0) {
+            childrenCache = null;
+            hasChildrenCache = null;
+        } else {
+            childrenCache = lruMap(childrenCacheSize);
+            hasChildrenCache = lruMap(childrenCacheSize);
+        }
+    }
+
+    public int getChildrenCacheSize() {
+        return childrenCacheSize;
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Drops the cached children of the given item and, if it is open, reloads
+     * its visible subtree.
+     *
+     * @param item the item whose children have changed
+     */
+    public void invalidate(T item) {
+        if (childrenCache != null) {
+            childrenCache.remove(item);
+            hasChildrenCache.remove(item);
+        }
+        if (leafMap != null) {
+            leafMap.remove(item);
+        }
+        if (lazyHierarchy != null) {
+            lazyHierarchy.refreshCounts(item);
+            getDataProvider().refreshAll();
+            return;
+        }
+        int index = visibleRows == null ? -1 : visibleRows.indexOf(item);
+        if (index >= 0) {
+            if (getOpenModel().isOpen(item)) {
+                // closing and re-opening updates the visible subtree
+                collapse(item, index);
+                expand(item, index);
+                getDataProvider().refreshAll();
+            } else {
+                getDataProvider().refreshItem(item);
+            }
+        }
+    }
+
+    /**
+     * Drops all cached children and reloads the data.
+     */
+    public void invalidateAll() {
+        if (childrenCache != null) {
+            childrenCache.clear();
+            hasChildrenCache.clear();
+        }
+        if (lazyHierarchy != null) {
+            lazyHierarchy.refreshCounts();
+        }
+        reloadData();
+    }
+
+    private List<T> children(T item) {
+        if (childrenCache == null) {
+            return childrenProvider.apply(item);
+        }
+        List<T> children = childrenCache.get(item);
+        if (children == null) {
+            children = childrenProvider.apply(item);
+            if (children != null) {
+                childrenCache.put(item, children);
+            }
+        }
+        return children;
+    }
+
+    private boolean isLeaf(T item) {
+        if (hasChildrenCache != null) {
+            Boolean cached = hasChildrenCache.get(item);
+            if (cached != null) {
+                return !cached;
+            }
+        }
+        boolean has;
+        if (hasChildren != null) {
+            has = hasChildren.test(item);
+        } else if (lazyHierarchy != null) {
+            has = lazyHierarchy.countChildren(item) > 0;
+        } else {
+            List<T> children = children(item);
+            has = children != null && !children.isEmpty();
+        }
+        if (hasChildrenCache != null) {
+            hasChildrenCache.put(item, has);
+        }
+        return !has;
+    }
+
     private void addChildrenRecursively(T rootItem, Map<T, Integer> levelMap, MutableInt level, Function<T, List<T>> childrenProvider, List<T> visibleRows) {
         if (getOpenModel().isOpen(rootItem)) {
             List<T> children = childrenProvider.apply(rootItem);
+            leafMap.put(rootItem, children == null || children.isEmpty());
             if (children != null) {
                 level.inc();
                 for (T child : children) {
@@ -171,21 +390,72 @@ public class TreeTable<T> extends VGrid<T> {
             getGenericDataView().refreshAll();
         } else {
             // in-memory mode, rebuild visible rows from root items
-            List<T> visibleRows = new ArrayList<>();
-            Map<T, Integer> levelMap = new HashMap<>();
+            visibleRows = new ArrayList<>();
+            levelMap = new HashMap<>();
+            leafMap = new HashMap<>();
             MutableInt level = new MutableInt(0);
             // add all root items and their children recursively
             for (T rootItem : rootItems) {
                 visibleRows.add(rootItem);
                 levelMap.put(rootItem, level.intValue());
-                addChildrenRecursively(rootItem, levelMap, level, childrenProvider, visibleRows);
+                addChildrenRecursively(rootItem, levelMap, level, this::children, visibleRows);
             }
             setLevelModel(item -> levelMap.get(item));
-            setLeafModel(item -> childrenProvider.apply(item).isEmpty());
+            setLeafModel(item -> leafMap.computeIfAbsent(item, this::isLeaf));
             super.setItems(visibleRows);
         }
     }
 
+    private void expand(T item, int index) {
+        List<T> subtree = new ArrayList<>();
+        addChildrenRecursively(item, levelMap, new MutableInt(levelMap.get(item)), this::children, subtree);
+        visibleRows.addAll(index + 1, subtree);
+    }
+
+    private void collapse(T item, int index) {
+        int level = levelMap.get(item);
+        // the subtree is the following rows with deeper level
+        int end = index + 1;
+        while (end < visibleRows.size() && levelMap.get(visibleRows.get(end)) > level) {
+            T removed = visibleRows.get(end);
+            levelMap.remove(removed);
+            leafMap.remove(removed);
+            end++;
+        }
+        visibleRows.subList(index + 1, end).clear();
+    }
+
+    /**
+     * Opens or closes the given item. In the in-memory mode, only the
+     * subtree of the item is added to or removed from the visible rows, and
+     * the grid is refreshed without resetting it, so e.g. the scroll position
+     * is kept.
+     *
+     * @param item the item to open or close
+     * @param open true to open
+     */
+    void setOpen(T item, boolean open) {
+        getOpenModel().setOpen(item, open);
+        if (lazyHierarchy != null) {
+            lazyHierarchy.setExpanded(item, open);
+            getDataProvider().refreshAll();
+            return;
+        }
+        int index = visibleRows == null ? -1 : visibleRows.indexOf(item);
+        if (index < 0) {
+            reloadData();
+            return;
+        }
+        if (open) {
+            expand(item, index);
+        } else {
+            collapse(item, index);
+        }
+        // visibleRows is the backing list of the data provider, re-sends
+        // only the rows in the viewport
+        getDataProvider().refreshAll();
+    }
+
     /**
      * Not supported in TreeTable, use setRootItems or setItems instead
      *
@@ -213,6 +483,7 @@ public class TreeTable<T> extends VGrid<T> {
     @Deprecated
     @Override
     public GridLazyDataView<T> setItems(BackEndDataProvider<T, Void> dataProvider) {
+        lazyHierarchy = null;
         return super.setItems(dataProvider);
     }
 
@@ -264,6 +535,24 @@ public class TreeTable<T> extends VGrid<T> {
         int getLevel(T item);
     }
 
+    public interface ChildrenFetcher<T> extends Serializable {
+        /**
+         * @param parent the parent item, null for the root items
+         * @param offset the index of the first child to fetch
+         * @param limit  the maximum number of children to fetch
+         * @return the children
+         */
+        Stream<T> fetch(T parent, int offset, int limit);
+    }
+
+    public interface ChildrenCounter<T> extends Serializable {
+        /**
+         * @param parent the parent item, null for the root items
+         * @return the number of children
+         */
+        int count(T parent);
+    }
+
     public interface TreeTableModel<T> extends OpenModel<T>, LeafModel<T>, LevelModel<T> {
 
     }
@@ -353,8 +642,7 @@ public class TreeTable<T> extends VGrid<T> {
         @ClientCallable
         private void onExpandedChanged() {
             boolean open = getElement().getProperty("expanded", false);
-            TreeTable.this.getOpenModel().setOpen(item, !open);
-            reloadData();
+            TreeTable.this.setOpen(item, !open);
         }
 
     }
@@ -0,0 +1,25 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.data.provider.Query;
+
+import java.io.Serializable;
+
+/**
+ * Resolves the index of an item in the (sorted and filtered) data shown by a
+ * grid, used by {@link VGrid#scrollToItem(Object)}. Implement this for lazy
+ * loaded grids, for example with a ranked query in the backend, so that the
+ * whole data set doesn't need to be streamed to find the item.
+ *
+ * @param <T> the item type
+ */
+@FunctionalInterface
+public interface ItemIndexProvider<T> extends Serializable {
+
+    /**
+     * @param item  the item
+     * @param query the query the grid uses to fetch its data, with the
+     *              active filter and sort orders, but without offset or limit
+     * @return the index of the item, or -1 if the item is not in the data
+     */
+    int indexOf(T item, Query<T, ?> query);
+}
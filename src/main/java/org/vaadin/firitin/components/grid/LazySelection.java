@@ -0,0 +1,288 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.shared.Registration;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A selection for huge lazy loaded grids, see {@link VGrid#withLazySelection()}.
+ * <p>
+ * Instead of holding all selected items in memory, the selection is stored
+ * either as "all items matching the filter, except the excluded ones" or as
+ * the explicitly selected items. Thus selecting all of the 500k rows costs
+ * nothing, and the selected items can be streamed from the data provider in
+ * batches for bulk actions, see {@link #streamSelected(int)}.
+ * </p>
+ *
+ * @param <T> the item type
+ */
+public class LazySelection<T> implements Serializable {
+
+    private final Grid<T> grid;
+    private boolean all;
+    // the query filter for "all" items, null for no extra filtering
+    private Object allFilter;
+    // the same filter in memory, null if all items match
+    private SerializablePredicate<T> allPredicate;
+    // when all selected: ids of deselected items matching the filter
+    private final Set<Object> excludedIds = new HashSet<>();
+    // id -> explicitly selected item, when all selected the ones not matching the filter
+    private final Map<Object, T> selectedItems = new LinkedHashMap<>();
+    private final List<SerializableConsumer<LazySelection<T>>> listeners = new ArrayList<>();
+
+    public LazySelection(Grid<T> grid) {
+        this.grid = grid;
+    }
+
+    private Object getId(T item) {
+        return grid.getDataProvider().getId(item);
+    }
+
+    private boolean matchesAll(T item) {
+        return allPredicate == null || allPredicate.test(item);
+    }
+
+    public boolean isSelected(T item) {
+        Object id = getId(item);
+        if (all && matchesAll(item)) {
+            return !excludedIds.contains(id);
+        }
+        return selectedItems.containsKey(id);
+    }
+
+    public void select(T item) {
+        if (all && matchesAll(item)) {
+            excludedIds.remove(getId(item));
+        } else {
+            selectedItems.put(getId(item), item);
+        }
+        grid.getDataCommunicator().refresh(item);
+        fireChange();
+    }
+
+    public void deselect(T item) {
+        if (all && matchesAll(item)) {
+            excludedIds.add(getId(item));
+        } else {
+            selectedItems.remove(getId(item));
+        }
+        grid.getDataCommunicator().refresh(item);
+        fireChange();
+    }
+
+    public void toggle(T item) {
+        if (isSelected(item)) {
+            deselect(item);
+        } else {
+            select(item);
+        }
+    }
+
+    /**
+     * Selects all items of the data provider, without fetching any of them.
+     */
+    public void selectAll() {
+        selectAll(null, null);
+    }
+
+    /**
+     * Selects all items matching the given filter, without fetching any of
+     * them. The filter is passed to the data provider in queries, like the
+     * filter of a filterable data provider, when the selected items are
+     * counted or streamed. The predicate tells if an item shown in the grid
+     * matches the same filter, so that the items outside of it are not shown
+     * as selected and deselecting them doesn't affect the count.
+     *
+     * @param filter          the query filter, null to select all items of the data provider
+     * @param filterPredicate the filter as a predicate, null if all items match
+     */
+    public void selectAll(Object filter, SerializablePredicate<T> filterPredicate) {
+        all = true;
+        allFilter = filter;
+        allPredicate = filterPredicate;
+        excludedIds.clear();
+        selectedItems.clear();
+        grid.getDataCommunicator().reset();
+        fireChange();
+    }
+
+    public void deselectAll() {
+        all = false;
+        allFilter = null;
+        allPredicate = null;
+        excludedIds.clear();
+        selectedItems.clear();
+        grid.getDataCommunicator().reset();
+        fireChange();
+    }
+
+    /**
+     * @return true if all items were selected (some of them may have been
+     * deselected after that)
+     */
+    public boolean isAllSelected() {
+        return all;
+    }
+
+    /**
+     * @return true if nothing is selected
+     */
+    public boolean isEmpty() {
+        return !all && selectedItems.isEmpty();
+    }
+
+    /**
+     * @return true if all items matching the filter are selected, with no
+     * exclusions
+     */
+    public boolean isFullySelected() {
+        return all && excludedIds.isEmpty();
+    }
+
+    /**
+     * Returns the number of selected items. If all items are selected, the
+     * count is queried from the data provider.
+     *
+     * @return the number of selected items
+     */
+    public long getSelectedCount() {
+        if (!all) {
+            return selectedItems.size();
+        }
+        // the excluded ids all match the filter, the explicitly selected ones don't
+        return Math.max(0, dataProvider().size(new Query<>(allFilter)) - excludedIds.size()) + selectedItems.size();
+    }
+
+    /**
+     * Streams the selected items. If all items are selected, they are
+     * fetched lazily from the data provider in batches of the given size,
+     * with the sort order of the grid, so only one batch is in memory at a
+     * time (unless collected by the caller). The items matching the filter
+     * must not change while the stream is consumed, use
+     * {@link #forEachSelectedBatch(int, SerializableConsumer)} for bulk
+     * actions that remove the handled items.
+     *
+     * @param batchSize the number of items fetched from the data provider at once
+     * @return the selected items
+     */
+    public Stream<T> streamSelected(int batchSize) {
+        if (!all) {
+            return new ArrayList<>(selectedItems.values()).stream();
+        }
+        Set<Object> excluded = new HashSet<>(excludedIds);
+        List<T> outsideFilter = new ArrayList<>(selectedItems.values());
+        return Stream.concat(streamBatches(batchSize)
+                        .flatMap(List::stream)
+                        .filter(item -> !excluded.contains(getId(item))),
+                outsideFilter.stream());
+    }
+
+    /**
+     * Passes the selected items to the given handler in batches, for bulk
+     * actions.
+     * <p>
+     * If all items are selected, they are fetched by offset, like in
+     * {@link #streamSelected(int)}. The handler may remove the handled items
+     * from the items matching the filter, e.g. delete or archive them: the
+     * number of matching items is queried after each batch and the offset of
+     * the next fetch is moved back by the number of removed items, so no item
+     * is skipped. Other changes to the matching items, like additions or
+     * removal of not yet handled items, are not supported during the
+     * iteration.
+     * </p>
+     *
+     * @param batchSize the maximum number of items in a batch
+     * @param handler   the handler for the batches
+     */
+    public void forEachSelectedBatch(int batchSize, SerializableConsumer<List<T>> handler) {
+        List<T> batch = new ArrayList<>(batchSize);
+        List<T> explicitlySelected = new ArrayList<>(selectedItems.values());
+        if (all) {
+            Set<Object> excluded = new HashSet<>(excludedIds);
+            Object filter = allFilter;
+            Query<T, Object> countQuery = new Query<>(filter);
+            int matching = dataProvider().size(countQuery);
+            int offset = 0;
+            List<T> page;
+            do {
+                page = fetchPage(offset, batchSize, filter);
+                offset += page.size();
+                for (T item : page) {
+                    if (!excluded.contains(getId(item)) && addToBatch(batch, batchSize, item, handler)) {
+                        int remaining = dataProvider().size(countQuery);
+                        if (remaining < matching) {
+                            // handled items removed from the matching ones, the rest have moved
+                            offset = Math.max(0, offset - (matching - remaining));
+                        }
+                        matching = remaining;
+                    }
+                }
+                // a partial page is the last one
+            } while (page.size() == batchSize);
+        }
+        for (T item : explicitlySelected) {
+            addToBatch(batch, batchSize, item, handler);
+        }
+        if (!batch.isEmpty()) {
+            handler.accept(batch);
+        }
+    }
+
+    /**
+     * @return true if the batch got full and was passed to the handler
+     */
+    private boolean addToBatch(List<T> batch, int batchSize, T item, SerializableConsumer<List<T>> handler) {
+        batch.add(item);
+        if (batch.size() == batchSize) {
+            handler.accept(new ArrayList<>(batch));
+            batch.clear();
+            return true;
+        }
+        return false;
+    }
+
+    private Stream<List<T>> streamBatches(int batchSize) {
+        Object filter = allFilter;
+        return LongStream.iterate(0, offset -> offset + batchSize)
+                .mapToObj(offset -> fetchPage((int) offset, batchSize, filter))
+                .takeWhile(batch -> !batch.isEmpty());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<T> fetchPage(int offset, int limit, Object filter) {
+        DataCommunicator<T> dataCommunicator = grid.getDataCommunicator();
+        DataProvider dataProvider = dataProvider();
+        return ((Stream<T>) dataProvider.fetch(new Query<>(offset, limit,
+                dataCommunicator.getBackEndSorting(),
+                dataCommunicator.getInMemorySorting(),
+                filter))).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private DataProvider<T, Object> dataProvider() {
+        return (DataProvider<T, Object>) grid.getDataProvider();
+    }
+
+    public Registration addSelectionChangeListener(SerializableConsumer<LazySelection<T>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    private void fireChange() {
+        new ArrayList<>(listeners).forEach(l -> l.accept(this));
+    }
+}
@@ -0,0 +1,129 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializableSupplier;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * An id to index map for in-memory data.
+ * <p>
+ * When the grid shows the items in the order of the backing list (no sorting,
+ * nothing filtered out), the map is maintained incrementally: the items are
+ * indexed only as far as needed to find the requested item, each hit is
+ * verified against the list in constant time and appended items are indexed
+ * without touching the rest. If the list has been modified before an indexed
+ * position, or an item is not found, the positions are re-indexed from the
+ * start.
+ * </p>
+ * <p>
+ * Sorted or filtered data is indexed in a single pass over the items shown by
+ * the grid, and the map is reused until {@link #invalidate()} is called on
+ * data, filter or sort order changes.
+ * </p>
+ *
+ * @param <T> the item type
+ */
+final class ListItemIndex<T> implements Serializable {
+
+    private final SerializableSupplier<List<T>> unsortedItems;
+    private final SerializableSupplier<Stream<T>> items;
+    private final SerializableFunction<T, Object> idGetter;
+    private transient Map<Object, Integer> index;
+    private transient boolean positional;
+    private transient int indexed;
+    private transient Object lastIndexedId;
+
+    /**
+     * @param unsortedItems supplies the backing list, if the items are shown
+     *                      in its order, null if sorted or filtered
+     * @param items         supplies the items in the order shown
+     * @param idGetter      resolves the id of an item
+     */
+    ListItemIndex(SerializableSupplier<List<T>> unsortedItems, SerializableSupplier<Stream<T>> items,
+                  SerializableFunction<T, Object> idGetter) {
+        this.unsortedItems = unsortedItems;
+        this.items = items;
+        this.idGetter = idGetter;
+    }
+
+    int indexOf(T item) {
+        Object id = idGetter.apply(item);
+        List<T> list = unsortedItems.get();
+        if (list != null) {
+            return positionalIndexOf(id, list);
+        }
+        if (index == null || positional) {
+            index = new HashMap<>();
+            positional = false;
+            try (Stream<T> stream = items.get()) {
+                int[] i = {0};
+                stream.forEachOrdered(itm -> index.putIfAbsent(idGetter.apply(itm), i[0]++));
+            }
+        }
+        return index.getOrDefault(id, -1);
+    }
+
+    private int positionalIndexOf(Object id, List<T> list) {
+        if (index == null || !positional) {
+            reset();
+            positional = true;
+        }
+        Integer i = index.get(id);
+        if (i != null) {
+            if (i < list.size() && id.equals(idGetter.apply(list.get(i)))) {
+                return i;
+            }
+            // the item has moved or is removed
+            reset();
+        } else if (indexed > list.size()
+                || indexed > 0 && !lastIndexedId.equals(idGetter.apply(list.get(indexed - 1)))) {
+            // items removed or inserted before the indexed positions
+            reset();
+        }
+        boolean fromStart = indexed == 0;
+        int found = indexFurther(id, list);
+        if (found < 0 && !fromStart) {
+            // an item before the indexed positions may have been replaced in place
+            reset();
+            found = indexFurther(id, list);
+        }
+        return found;
+    }
+
+    /**
+     * Continues indexing from the last indexed position until the item is found.
+     */
+    private int indexFurther(Object id, List<T> list) {
+        while (indexed < list.size()) {
+            Object nextId = idGetter.apply(list.get(indexed));
+            int nextIndex = indexed++;
+            lastIndexedId = nextId;
+            if (index.putIfAbsent(nextId, nextIndex) == null && nextId.equals(id)) {
+                return nextIndex;
+            }
+        }
+        return -1;
+    }
+
+    private void reset() {
+        index = new HashMap<>();
+        indexed = 0;
+        lastIndexedId = null;
+    }
+
+    /**
+     * Called when the data, filter or sort order changes. A positional index
+     * verifies itself against the list, so only sorted or filtered data is
+     * re-indexed.
+     */
+    void invalidate() {
+        if (!positional) {
+            index = null;
+        }
+    }
+}
@@ -13,12 +13,26 @@ import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.data.event.SortEvent;
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.shared.Registration;
 import org.vaadin.firitin.components.button.VButton;
 import org.vaadin.firitin.components.orderedlayout.VHorizontalLayout;
 
 import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A Grid which uses "traditional" paging, instead of the lazy loading while
@@ -35,15 +49,39 @@ public class PagingGrid<T> extends VGrid<T> {
     private MessageFormat statusMessage = new MessageFormat("Page {0}, showing {1} results per page.");
     private PaginationBarMode paginationBarMode = PaginationBarMode.TOP;
     private PagingGrid.PagingDataProvider<T> dataProvider;
+    private PagingGrid.AsyncPagingDataProvider<T> asyncDataProvider;
+    // the latest async page request, responses to earlier ones are dropped
+    private int pageRequestCounter;
+    private transient CompletableFuture<List<T>> pendingPageRequest;
+    private boolean loading;
+    private KeysetAdapter keysetAdapter;
+    private int totalResultsRequestCounter;
+    // applied when the pagination bar is created, if set before that
+    private Long totalResults;
     private PagingGrid<T>.PaginationBar paginationBar;
+    private int pageCacheSize;
+    // page number -> items, LRU, null if caching is disabled
+    private Map<Long, List<T>> pageCache;
+    // incremented on invalidation, so that pending read-aheads don't fill the cache with stale pages
+    private final AtomicInteger pageCacheGeneration = new AtomicInteger();
+    private boolean readAhead;
+    private transient Executor readAheadExecutor;
+    // the sort order the read-ahead in the current thread was scheduled with
+    private transient ThreadLocal<List<GridSortOrder<T>>> readAheadSortOrder;
     private ComponentEventListener<SortEvent<Grid<T>, GridSortOrder<T>>> sortListener = event -> {
-        if(dataProvider == null) {
+        if(dataProvider == null && asyncDataProvider == null) {
             // not yet set...
             return;
         }
+        invalidatePageCache();
+        if (asyncDataProvider != null) {
+            paginationBar.fetchPage();
+            return;
+        }
         // scroll to the beginning and fetch new rows (up to the implementation to read
         // sort order from the grid)
-        setItems(dataProvider.pageRequested(paginationBar.currentPage, getPageSize()));
+        setItems(loadPage(paginationBar.currentPage));
+        readAheadAround(paginationBar.currentPage);
     };
 
     public PagingGrid() {
@@ -84,7 +122,7 @@ public class PagingGrid<T> extends VGrid<T> {
 
     protected void preparePaginationBar() {
         if (paginationBar == null) {
-            paginationBar = new PaginationBar(null);
+            paginationBar = new PaginationBar(totalResults);
         }
         if(getColumns().isEmpty()) {
             // no columns yet, we'll add the pagination bar later
@@ -157,9 +195,361 @@ public class PagingGrid<T> extends VGrid<T> {
      * @param provider the data provider that fetches data from the backend by pages.
      */
     public void setPagingDataProvider(PagingGrid.PagingDataProvider<T> provider) {
+        cancelPendingPageRequest();
         this.dataProvider = provider;
+        this.keysetAdapter = provider instanceof PagingGrid<?>.KeysetAdapter ? (KeysetAdapter) provider : null;
+        this.asyncDataProvider = null;
+        invalidatePageCache();
+        preparePaginationBar();
+        setItems(loadPage(0));
+        readAheadAround(0);
+    }
+
+    public PagingGrid.KeysetPagingDataProvider<T> getKeysetPagingDataProvider() {
+        return keysetAdapter == null ? null : keysetAdapter.provider;
+    }
+
+    /**
+     * Defines a keyset (aka seek) based way to fetch data from the backend.
+     * Instead of an offset, the last item of the previous page is passed to
+     * the provider, which can then continue e.g. with a
+     * <code>WHERE (sortcolumn, id) &gt; (?, ?)</code> query. Unlike offset
+     * based queries, that performs equally well on deep pages.
+     * <p>
+     * The last items of the visited pages are remembered, so moving back is
+     * cheap. When jumping forward to a page that has not been visited, the
+     * pages in between are fetched to find the key. The remembered keys are
+     * dropped with the page cache, e.g. when the sort order changes.
+     * </p>
+     *
+     * @param provider the data provider that fetches data from the backend by pages.
+     */
+    public void setKeysetPagingDataProvider(PagingGrid.KeysetPagingDataProvider<T> provider) {
+        setPagingDataProvider(new KeysetAdapter(provider));
+    }
+
+    /**
+     * Sets the total amount of results once the given future completes,
+     * typically used with slow count queries, so that the first page can be
+     * shown before the count is known. The result is applied with
+     * {@link UI#access(com.vaadin.flow.server.Command)}. If called again, or
+     * if {@link #setTotalResults(long)} is called before the count is ready,
+     * the earlier count is ignored. A failed count is logged and the amount
+     * of results stays unknown.
+     *
+     * @param totalResults the future amount of results
+     * @see #setTotalResults(long)
+     */
+    public void setTotalResults(CompletableFuture<Long> totalResults) {
+        int request = ++totalResultsRequestCounter;
+        accessWhenComplete(totalResults, (count, error) -> {
+            if (request != totalResultsRequestCounter) {
+                // stale, the total results have been set again after the request
+                return;
+            }
+            if (error != null) {
+                Logger.getLogger(PagingGrid.class.getName()).log(Level.WARNING,
+                        "Failed to count the total results", error);
+                return;
+            }
+            applyTotalResults(count);
+        });
+    }
+
+    public PagingGrid.AsyncPagingDataProvider<T> getAsyncPagingDataProvider() {
+        return asyncDataProvider;
+    }
+
+    /**
+     * Defines an asynchronous way to fetch data from the backend, so that
+     * slow queries don't block the UI. The grid is in loading state (see
+     * {@link #isLoading()}) while a page is being fetched and the results
+     * are applied with {@link UI#access(com.vaadin.flow.server.Command)}, so
+     * server push or polling is needed for them to show up without further
+     * user interaction. Futures that are already complete are applied
+     * directly, and responses to a grid that is not attached to a UI are
+     * applied once it is attached. If the page or sort order changes before a
+     * response arrives, the pending request is cancelled and its response
+     * dropped.
+     *
+     * @param provider the data provider that fetches data from the backend by pages.
+     */
+    public void setAsyncPagingDataProvider(PagingGrid.AsyncPagingDataProvider<T> provider) {
+        this.asyncDataProvider = provider;
+        this.dataProvider = null;
+        this.keysetAdapter = null;
+        invalidatePageCache();
         preparePaginationBar();
-        setItems(dataProvider.pageRequested(0, getPageSize()));
+        paginationBar.currentPage = 0;
+        paginationBar.fetchPage();
+    }
+
+    /**
+     * @return true if an asynchronously fetched page is being loaded
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    private void setLoading(boolean loading) {
+        this.loading = loading;
+        getElement().setProperty("loading", loading);
+    }
+
+    private void cancelPendingPageRequest() {
+        // before cancelling, makes the response stale
+        pageRequestCounter++;
+        if (pendingPageRequest != null) {
+            // signal the backend, the response would be dropped anyway
+            pendingPageRequest.cancel(false);
+            pendingPageRequest = null;
+            setLoading(false);
+        }
+    }
+
+    private void requestPageAsync(long page, PaginationBar bar) {
+        cancelPendingPageRequest();
+        int request = pageRequestCounter;
+        int generation = pageCacheGeneration.get();
+        setLoading(true);
+        CompletableFuture<List<T>> future = asyncDataProvider.pageRequested(page, getPageSize());
+        pendingPageRequest = future;
+        accessWhenComplete(future, (items, error) -> pageResponse(request, generation, page, bar, items, error));
+    }
+
+    /**
+     * Passes the result of the future to the given action with the session
+     * lock: directly if the future is already complete (we are in the thread
+     * that requested it), otherwise with {@link UI#access(com.vaadin.flow.server.Command)}.
+     * If there is no UI to lock, e.g. the grid is not yet attached, the
+     * result is applied once the grid is attached.
+     */
+    private <V> void accessWhenComplete(CompletableFuture<V> future, BiConsumer<V, Throwable> action) {
+        if (future.isDone()) {
+            applyResult(future, action);
+            return;
+        }
+        UI ui = UI.getCurrent() != null ? UI.getCurrent() : getUI().orElse(null);
+        if (ui != null) {
+            future.whenComplete((value, error) -> ui.access(() -> action.accept(value, error)));
+            return;
+        }
+        Registration[] attachRegistration = new Registration[1];
+        attachRegistration[0] = addAttachListener(event -> {
+            attachRegistration[0].remove();
+            if (future.isDone()) {
+                applyResult(future, action);
+            } else {
+                UI attachedUi = event.getUI();
+                future.whenComplete((value, error) -> attachedUi.access(() -> action.accept(value, error)));
+            }
+        });
+    }
+
+    private static <V> void applyResult(CompletableFuture<V> future, BiConsumer<V, Throwable> action) {
+        V value;
+        try {
+            value = future.join();
+        } catch (CompletionException | CancellationException e) {
+            action.accept(null, e);
+            return;
+        }
+        action.accept(value, null);
+    }
+
+    private void pageResponse(int request, int generation, long page, PaginationBar bar, List<T> items, Throwable error) {
+        if (request != pageRequestCounter) {
+            // stale, page or sort order has changed after the request
+            return;
+        }
+        pendingPageRequest = null;
+        setLoading(false);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            throw cause instanceof RuntimeException re ? re : new RuntimeException(cause);
+        }
+        Map<Long, List<T>> cache = pageCache;
+        if (cache != null && generation == pageCacheGeneration.get()) {
+            cache.put(page, items);
+        }
+        bar.pageFetched(items);
+    }
+
+    /**
+     * Enables caching of the fetched pages, so that e.g. going back and forth
+     * between pages doesn't re-query the backend. The least recently used
+     * pages are evicted when the cache is full. The cache is invalidated when
+     * the sort order, page size or data provider changes, or explicitly with
+     * {@link #refresh()}. Disabled by default.
+     *
+     * @param pageCacheSize the maximum number of cached pages, 0 to disable
+     */
+    public void setPageCacheSize(int pageCacheSize) {
+        this.pageCacheSize = pageCacheSize;
+        if (pageCacheSize <= 0) {
+            pageCache = null;
+        } else {
+            pageCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, List<T>> eldest) {
+                    return size() > pageCacheSize;
+                }
+            });
+        }
+    }
+
+    public int getPageCacheSize() {
+        return pageCacheSize;
+    }
+
+    public PagingGrid<T> withPageCacheSize(int pageCacheSize) {
+        setPageCacheSize(pageCacheSize);
+        return this;
+    }
+
+    /**
+     * Enables reading ahead the next and the previous page to the page cache
+     * (see {@link #setPageCacheSize(int)}), after a page is shown. Note that
+     * the read-ahead calls the {@link PagingDataProvider} in a background
+     * thread, without the session lock. During that call, {@link #getSortOrder()}
+     * returns the sort order the read-ahead was scheduled with, but the
+     * provider should not access other UI state.
+     *
+     * @param readAhead true to enable read-ahead
+     */
+    public void setReadAhead(boolean readAhead) {
+        this.readAhead = readAhead;
+    }
+
+    public boolean isReadAhead() {
+        return readAhead;
+    }
+
+    /**
+     * @param readAheadExecutor the executor used to read ahead pages, by
+     *                          default the common fork join pool
+     */
+    public void setReadAheadExecutor(Executor readAheadExecutor) {
+        this.readAheadExecutor = readAheadExecutor;
+    }
+
+    /**
+     * Invalidates the page cache and fetches the current page again from the
+     * data provider.
+     */
+    public void refresh() {
+        invalidatePageCache();
+        if (dataProvider != null || asyncDataProvider != null) {
+            paginationBar.fetchPage();
+        }
+    }
+
+    /**
+     * Invalidates the page cache (and the keys of a keyset based provider),
+     * without re-fetching the current page.
+     */
+    public void invalidatePageCache() {
+        pageCacheGeneration.incrementAndGet();
+        Map<Long, List<T>> cache = pageCache;
+        if (cache != null) {
+            cache.clear();
+        }
+        if (keysetAdapter != null) {
+            keysetAdapter.clear();
+        }
+    }
+
+    private List<T> loadPage(long page) {
+        Map<Long, List<T>> cache = pageCache;
+        if (cache != null) {
+            List<T> cached = cache.get(page);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<T> items = dataProvider.pageRequested(page, getPageSize());
+        if (cache != null) {
+            cache.put(page, items);
+        }
+        return items;
+    }
+
+    private void readAheadAround(long page) {
+        if (!readAhead || pageCache == null) {
+            return;
+        }
+        Long pages = paginationBar.pages;
+        if (pages == null || page + 1 < pages) {
+            readAhead(page + 1);
+        }
+        if (page > 0) {
+            readAhead(page - 1);
+        }
+    }
+
+    private void readAhead(long page) {
+        Map<Long, List<T>> cache = pageCache;
+        if (cache.containsKey(page)) {
+            return;
+        }
+        int generation = pageCacheGeneration.get();
+        int pageSize = getPageSize();
+        if (asyncDataProvider != null) {
+            // failures ignored, the page is fetched again when actually requested
+            asyncDataProvider.pageRequested(page, pageSize)
+                    .thenAccept(items -> cacheReadAhead(cache, generation, page, items));
+            return;
+        }
+        PagingDataProvider<T> provider = dataProvider;
+        KeysetAdapter keyset = keysetAdapter;
+        List<GridSortOrder<T>> sortOrder = List.copyOf(getSortOrder());
+        if (readAheadSortOrder == null) {
+            readAheadSortOrder = new ThreadLocal<>();
+        }
+        ThreadLocal<List<GridSortOrder<T>>> sortOrderSnapshot = readAheadSortOrder;
+        Executor executor = readAheadExecutor == null ? ForkJoinPool.commonPool() : readAheadExecutor;
+        executor.execute(() -> {
+            List<T> items;
+            sortOrderSnapshot.set(sortOrder);
+            try {
+                items = keyset != null ? keyset.pageRequested(page, pageSize, sortOrder, generation)
+                        : provider.pageRequested(page, pageSize);
+            } catch (RuntimeException e) {
+                // the page is fetched again when actually requested
+                return;
+            } finally {
+                sortOrderSnapshot.remove();
+            }
+            cacheReadAhead(cache, generation, page, items);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Called by a {@link PagingDataProvider} that is reading ahead a page in
+     * a background thread, returns the sort order of the grid at the time the
+     * read-ahead was scheduled.
+     * </p>
+     */
+    @Override
+    public List<GridSortOrder<T>> getSortOrder() {
+        ThreadLocal<List<GridSortOrder<T>>> snapshot = readAheadSortOrder;
+        if (snapshot != null) {
+            List<GridSortOrder<T>> sortOrder = snapshot.get();
+            if (sortOrder != null) {
+                return sortOrder;
+            }
+        }
+        return super.getSortOrder();
+    }
+
+    private void cacheReadAhead(Map<Long, List<T>> cache, int generation, long page, List<T> items) {
+        synchronized (cache) {
+            if (generation == pageCacheGeneration.get()) {
+                cache.putIfAbsent(page, items);
+            }
+        }
     }
 
     /**
@@ -171,6 +561,17 @@ public class PagingGrid<T> extends VGrid<T> {
      * @param totalResults the amount of results
      */
     public void setTotalResults(long totalResults) {
+        // a pending count is no longer relevant
+        totalResultsRequestCounter++;
+        applyTotalResults(totalResults);
+    }
+
+    private void applyTotalResults(long totalResults) {
+        this.totalResults = totalResults;
+        if (paginationBar == null) {
+            // applied when the pagination bar is created
+            return;
+        }
         paginationBar.setSize(totalResults);
         paginationBar.updateState();
         if (secondaryBar != null) {
@@ -183,6 +584,7 @@ public class PagingGrid<T> extends VGrid<T> {
     public void setPageSize(int pageSize) {
         super.setPageSize(pageSize);
         if (paginationBar != null) {
+            invalidatePageCache();
             paginationBar.fetchPage();
         }
     }
@@ -219,6 +621,87 @@ public class PagingGrid<T> extends VGrid<T> {
         List<T> pageRequested(long page, int pageSize);
     }
 
+    public interface AsyncPagingDataProvider<T> extends Serializable {
+
+        /**
+         * Fetches one page from the database asynchronously. Note, the
+         * returned future may be cancelled if the page is no longer needed.
+         *
+         * @param page     the page number
+         * @param pageSize the number of results on a page
+         * @return the future result list
+         */
+        CompletableFuture<List<T>> pageRequested(long page, int pageSize);
+    }
+
+    public interface KeysetPagingDataProvider<T> extends Serializable {
+
+        /**
+         * Returns the page following the given item from the database.
+         *
+         * @param lastItem  the last item of the previous page, null for the
+         *                  first page
+         * @param sortOrder the current sort order of the grid
+         * @param pageSize  the number of results on a page
+         * @return the result list
+         */
+        List<T> pageRequested(T lastItem, List<GridSortOrder<T>> sortOrder, int pageSize);
+    }
+
+    /**
+     * Adapts a keyset based provider to page numbers, remembering the last
+     * item of each fetched page.
+     */
+    private class KeysetAdapter implements PagingDataProvider<T> {
+
+        private final KeysetPagingDataProvider<T> provider;
+        // the last item of page n at index n, may be read-ahead in a background thread
+        private final List<T> lastItems = new ArrayList<>();
+
+        KeysetAdapter(KeysetPagingDataProvider<T> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public List<T> pageRequested(long page, int pageSize) {
+            return pageRequested(page, pageSize, List.copyOf(getSortOrder()), pageCacheGeneration.get());
+        }
+
+        /**
+         * @param sortOrder  the sort order of the grid, captured in the UI thread
+         * @param generation the page cache generation at the time of the
+         *                   request, keys of older generations are not stored
+         */
+        List<T> pageRequested(long page, int pageSize, List<GridSortOrder<T>> sortOrder, int generation) {
+            long p;
+            T lastItem;
+            synchronized (this) {
+                p = Math.min(page, lastItems.size());
+                lastItem = p == 0 ? null : lastItems.get((int) p - 1);
+            }
+            List<T> items = List.of();
+            // walk forward from the last known key, if the page hasn't been visited,
+            // the backend is queried without holding the lock
+            for (; p <= page; p++) {
+                items = provider.pageRequested(lastItem, sortOrder, pageSize);
+                if (items.isEmpty()) {
+                    return items;
+                }
+                lastItem = items.get(items.size() - 1);
+                synchronized (this) {
+                    if (generation == pageCacheGeneration.get() && p == lastItems.size()) {
+                        lastItems.add(lastItem);
+                    }
+                }
+            }
+            return items;
+        }
+
+        synchronized void clear() {
+            lastItems.clear();
+        }
+    }
+
     class PaginationBar extends VHorizontalLayout {
 
         private static final long serialVersionUID = 7799263034212965499L;
@@ -321,7 +804,21 @@ public class PagingGrid<T> extends VGrid<T> {
         }
 
         void fetchPage() {
-            List<T> page = dataProvider.pageRequested(currentPage, getPageSize());
+            if (asyncDataProvider != null) {
+                Map<Long, List<T>> cache = pageCache;
+                List<T> cached = cache == null ? null : cache.get(currentPage);
+                if (cached == null) {
+                    requestPageAsync(currentPage, this);
+                    return;
+                }
+                cancelPendingPageRequest();
+                pageFetched(cached);
+            } else {
+                pageFetched(loadPage(currentPage));
+            }
+        }
+
+        void pageFetched(List<T> page) {
             if (page.size() > 0) {
                 setItems(page);
                 if (page.size() < getPageSize()) {
@@ -334,6 +831,7 @@ public class PagingGrid<T> extends VGrid<T> {
                 }
             }
             updateState();
+            readAheadAround(currentPage);
         }
 
         public long getSize() {
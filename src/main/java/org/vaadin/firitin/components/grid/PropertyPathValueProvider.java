@@ -0,0 +1,86 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.function.ValueProvider;
+import org.vaadin.firitin.form.BindingPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A value provider for a (possibly nested) property path, like
+ * <code>address.city</code>. The path is resolved once to a chain of
+ * compiled accessors (see {@link BindingPlan}), so reading cell values
+ * doesn't go through the reflection API.
+ * <p>
+ * Only the type and the path are serialized, the accessor chain is
+ * resolved again lazily after deserialization.
+ * </p>
+ *
+ * @param <T> the bean/record type
+ */
+final class PropertyPathValueProvider<T> implements ValueProvider<T, Object> {
+
+    private final Class<T> type;
+    private final String path;
+    private transient BindingPlan.Property[] chain;
+    private transient Class<?> valueType;
+
+    private PropertyPathValueProvider(Class<T> type, String path) {
+        this.type = type;
+        this.path = path;
+    }
+
+    /**
+     * Resolves the given property path.
+     *
+     * @param type the bean/record type
+     * @param path the property path, segments separated with dots
+     * @param <T>  the bean/record type
+     * @return the value provider or null if some segment of the path is not found
+     */
+    static <T> PropertyPathValueProvider<T> of(Class<T> type, String path) {
+        PropertyPathValueProvider<T> provider = new PropertyPathValueProvider<>(type, path);
+        return provider.chain() == null ? null : provider;
+    }
+
+    private BindingPlan.Property[] chain() {
+        BindingPlan.Property[] c = chain;
+        if (c == null) {
+            List<BindingPlan.Property> properties = new ArrayList<>();
+            Class<?> segmentType = type;
+            for (String segment : path.split("\\.")) {
+                BindingPlan.Property property = BindingPlan.of(segmentType).getProperty(segment);
+                if (property == null) {
+                    return null;
+                }
+                properties.add(property);
+                segmentType = property.getDefinition().getRawPrimaryType();
+            }
+            valueType = segmentType;
+            c = properties.toArray(new BindingPlan.Property[0]);
+            chain = c;
+        }
+        return c;
+    }
+
+    /**
+     * @return the (raw) type of the last property in the path
+     */
+    Class<?> getValueType() {
+        chain();
+        return valueType;
+    }
+
+    @Override
+    public Object apply(T item) {
+        Object value = item;
+        for (BindingPlan.Property property : chain()) {
+            if (value == null) {
+                // Handled by Grid, based on NestedNullBehavior
+                throw new NullPointerException("Null value in the property path " + path);
+            }
+            value = property.getValue(value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,446 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.internal.ReflectTools;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ListDataProvider} that sorts with precomputed sort keys, used by
+ * {@link VGrid#setPrecomputedSorting(boolean)}.
+ * <p>
+ * The default in-memory sorting calls the value providers of the sorted
+ * columns twice per comparison. This implementation extracts the sort keys
+ * once per item into (primitive when possible) arrays, sorts a permutation
+ * of item indexes (an <code>int[]</code>) comparing the arrays, and serves
+ * the queries from the sorted snapshot until the data or the sort order
+ * changes. Large lists are sorted in parallel, using the common fork join
+ * pool.
+ * </p>
+ * <p>
+ * The sort semantics are the same as in Grid: values with a common
+ * {@link Comparable} base type are compared naturally, others by their
+ * string representation, and nulls are last when compared to Comparable
+ * values. The sort is stable.
+ * </p>
+ *
+ * @param <T> the item type
+ */
+public class SortKeyListDataProvider<T> extends ListDataProvider<T> {
+
+    /**
+     * A sort key, the value of the sorted column and the direction.
+     *
+     * @param keyExtractor the value provider of the sorted column
+     * @param descending   true for descending order
+     * @param <T>          the item type
+     */
+    public record SortKey<T>(ValueProvider<T, ?> keyExtractor, boolean descending) implements Serializable {
+    }
+
+    private int parallelSortThreshold = 10_000;
+    private List<SortKey<T>> sortKeys;
+    private transient List<T> sortedSnapshot;
+
+    public SortKeyListDataProvider(Collection<T> items) {
+        super(items);
+    }
+
+    /**
+     * Sets the sort keys, typically from the sort listener of the grid.
+     *
+     * @param sortKeys the sort keys, null or empty if the items are not
+     *                 sorted or the sort order can't be expressed with keys,
+     *                 in which case the in-memory sorting of the query is used
+     */
+    public void setSortKeys(List<SortKey<T>> sortKeys) {
+        this.sortKeys = sortKeys == null || sortKeys.isEmpty() ? null : List.copyOf(sortKeys);
+        sortedSnapshot = null;
+    }
+
+    public List<SortKey<T>> getSortKeys() {
+        return sortKeys;
+    }
+
+    public int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * @param parallelSortThreshold the number of items from which the
+     *                              permutation is sorted in parallel
+     */
+    public void setParallelSortThreshold(int parallelSortThreshold) {
+        this.parallelSortThreshold = parallelSortThreshold;
+    }
+
+    @Override
+    public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
+        if (sortKeys == null || query.getInMemorySorting() == null || getSortComparator() != null) {
+            return super.fetch(query);
+        }
+        List<T> sorted = sortedSnapshot;
+        if (sorted == null) {
+            sorted = sort(getItems(), sortKeys, parallelSortThreshold);
+            sortedSnapshot = sorted;
+        }
+        Stream<T> stream = sorted.stream();
+        SerializablePredicate<T> filter = getFilter();
+        if (filter != null) {
+            stream = stream.filter(filter);
+        }
+        if (query.getFilter().isPresent()) {
+            stream = stream.filter(query.getFilter().get());
+        }
+        return stream.skip(query.getOffset()).limit(query.getLimit());
+    }
+
+    @Override
+    public void refreshAll() {
+        sortedSnapshot = null;
+        super.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        // the sort key might have changed
+        sortedSnapshot = null;
+        super.refreshItem(item);
+    }
+
+    @Override
+    public void refreshItem(T item, boolean refreshChildren) {
+        sortedSnapshot = null;
+        super.refreshItem(item, refreshChildren);
+    }
+
+    /**
+     * Sorts the given items with precomputed sort keys.
+     *
+     * @param items                 the items
+     * @param sortKeys              the sort keys
+     * @param parallelSortThreshold the number of items from which to sort in parallel
+     * @param <T>                   the item type
+     * @return a new, sorted, list
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> sort(Collection<T> items, List<SortKey<T>> sortKeys, int parallelSortThreshold) {
+        Object[] itemArray = items.toArray();
+        int n = itemArray.length;
+        KeyColumn[] columns = new KeyColumn[sortKeys.size()];
+        for (int k = 0; k < columns.length; k++) {
+            columns[k] = KeyColumn.extract(itemArray, (ValueProvider<Object, ?>) sortKeys.get(k).keyExtractor(),
+                    sortKeys.get(k).descending());
+        }
+        IndexComparator comparator = columns.length == 1 ? columns[0] : (a, b) -> {
+            for (KeyColumn column : columns) {
+                int result = column.compare(a, b);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        // stable, like the stream based in-memory sorting
+        int[] buffer = permutation.clone();
+        if (n >= parallelSortThreshold) {
+            ForkJoinPool.commonPool().invoke(new MergeSortTask(buffer, permutation, 0, n, comparator));
+        } else {
+            mergeSort(buffer, permutation, 0, n, comparator);
+        }
+        List<T> sorted = new ArrayList<>(n);
+        for (int i : permutation) {
+            sorted.add((T) itemArray[i]);
+        }
+        return sorted;
+    }
+
+    /**
+     * Compares items by their index in the sorted array, without boxing.
+     */
+    @FunctionalInterface
+    private interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int PARALLEL_GRANULARITY = 8192;
+
+    /**
+     * Stable merge sort of the range [low, high) to dest, src must have the
+     * same content in the range and is used as the work array.
+     */
+    private static void mergeSort(int[] src, int[] dest, int low, int high, IndexComparator c) {
+        if (high - low < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                int v = dest[i];
+                int j = i - 1;
+                while (j >= low && c.compare(dest[j], v) > 0) {
+                    dest[j + 1] = dest[j];
+                    j--;
+                }
+                dest[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, c);
+        mergeSort(dest, src, mid, high, c);
+        merge(src, dest, low, mid, high, c);
+    }
+
+    private static void merge(int[] src, int[] dest, int low, int mid, int high, IndexComparator c) {
+        if (c.compare(src[mid - 1], src[mid]) <= 0) {
+            // already in order
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && c.compare(src[p], src[q]) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    private static final class MergeSortTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dest;
+        private final int low;
+        private final int high;
+        private final IndexComparator comparator;
+
+        MergeSortTask(int[] src, int[] dest, int low, int high, IndexComparator comparator) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low < PARALLEL_GRANULARITY) {
+                mergeSort(src, dest, low, high, comparator);
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            invokeAll(new MergeSortTask(dest, src, low, mid, comparator),
+                    new MergeSortTask(dest, src, mid, high, comparator));
+            merge(src, dest, low, mid, high, comparator);
+        }
+    }
+
+    /**
+     * The extracted keys of one sorted column, specialized by the value type.
+     */
+    private abstract static class KeyColumn implements IndexComparator {
+
+        // nulls last (in ascending order), like in Grid
+        final boolean[] nulls;
+        final boolean descending;
+
+        KeyColumn(boolean[] nulls, boolean descending) {
+            this.nulls = nulls;
+            this.descending = descending;
+        }
+
+        static KeyColumn extract(Object[] items, ValueProvider<Object, ?> keyExtractor, boolean descending) {
+            int n = items.length;
+            Object[] values = new Object[n];
+            boolean[] nulls = new boolean[n];
+            Class<?> commonType = null;
+            boolean mixed = false;
+            for (int i = 0; i < n; i++) {
+                // nested nulls are handled by the key extractor, see Grid.NestedNullBehavior
+                Object v = keyExtractor.apply(items[i]);
+                values[i] = v;
+                if (v == null) {
+                    nulls[i] = true;
+                } else if (commonType == null) {
+                    commonType = v.getClass();
+                } else if (commonType != v.getClass()) {
+                    mixed = true;
+                }
+            }
+            if (commonType == null) {
+                return new ObjectKeys(new Comparable[n], nulls, descending);
+            }
+            if (mixed) {
+                return new MixedKeys(values, descending);
+            }
+            if (commonType == Integer.class || commonType == Long.class
+                    || commonType == Short.class || commonType == Byte.class) {
+                long[] keys = new long[n];
+                for (int i = 0; i < n; i++) {
+                    if (!nulls[i]) {
+                        keys[i] = ((Number) values[i]).longValue();
+                    }
+                }
+                return new LongKeys(keys, nulls, descending);
+            }
+            if (commonType == Double.class || commonType == Float.class) {
+                double[] keys = new double[n];
+                for (int i = 0; i < n; i++) {
+                    if (!nulls[i]) {
+                        keys[i] = ((Number) values[i]).doubleValue();
+                    }
+                }
+                return new DoubleKeys(keys, nulls, descending);
+            }
+            Comparable[] keys = new Comparable[n];
+            if (Comparable.class.isAssignableFrom(commonType)) {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = (Comparable) values[i];
+                }
+                return new ObjectKeys(keys, nulls, descending);
+            }
+            // Grid compares other values by their string representation, nulls as ""
+            for (int i = 0; i < n; i++) {
+                keys[i] = Objects.toString(values[i], "");
+            }
+            return new ObjectKeys(keys, new boolean[n], descending);
+        }
+
+        @Override
+        public final int compare(int a, int b) {
+            int result = compareAscending(a, b);
+            return descending ? -result : result;
+        }
+
+        int compareAscending(int a, int b) {
+            if (nulls[a] || nulls[b]) {
+                return nulls[a] == nulls[b] ? 0 : (nulls[a] ? 1 : -1);
+            }
+            return compareNonNull(a, b);
+        }
+
+        abstract int compareNonNull(int a, int b);
+    }
+    private static final class LongKeys extends KeyColumn {
+        private final long[] keys;
+
+        LongKeys(long[] keys, boolean[] nulls, boolean descending) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareNonNull(int a, int b) {
+            return Long.compare(keys[a], keys[b]);
+        }
+    }
+
+    private static final class DoubleKeys extends KeyColumn {
+        private final double[] keys;
+
+        DoubleKeys(double[] keys, boolean[] nulls, boolean descending) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareNonNull(int a, int b) {
+            return Double.compare(keys[a], keys[b]);
+        }
+    }
+
+    private static final class ObjectKeys extends KeyColumn {
+        private final Comparable[] keys;
+
+        ObjectKeys(Comparable[] keys, boolean[] nulls, boolean descending) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int compareNonNull(int a, int b) {
+            return keys[a].compareTo(keys[b]);
+        }
+    }
+
+    /**
+     * Values of different types, compared pairwise like Grid does: values
+     * with a common {@link Comparable} base type naturally, others by their
+     * string representation.
+     */
+    private static final class MixedKeys extends KeyColumn {
+        private final Object[] values;
+        private final String[] strings;
+        // type id per item, -1 for null
+        private final int[] types;
+        private final boolean[] comparableTypes;
+        private final boolean[][] naturalPairs;
+
+        MixedKeys(Object[] values, boolean descending) {
+            super(null, descending);
+            int n = values.length;
+            this.values = values;
+            strings = new String[n];
+            types = new int[n];
+            Map<Class<?>, Integer> typeIds = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                Object v = values[i];
+                strings[i] = Objects.toString(v, "");
+                types[i] = v == null ? -1 : typeIds.computeIfAbsent(v.getClass(), c -> typeIds.size());
+            }
+            Class<?>[] classes = new Class<?>[typeIds.size()];
+            typeIds.forEach((c, id) -> classes[id] = c);
+            comparableTypes = new boolean[classes.length];
+            for (int i = 0; i < classes.length; i++) {
+                comparableTypes[i] = Comparable.class.isAssignableFrom(classes[i]);
+            }
+            naturalPairs = new boolean[classes.length][classes.length];
+            for (int i = 0; i < classes.length; i++) {
+                for (int j = 0; j < classes.length; j++) {
+                    naturalPairs[i][j] = comparableTypes[i] && comparableTypes[j] && (i == j
+                            || Comparable.class.isAssignableFrom(ReflectTools.findCommonBaseType(classes[i], classes[j])));
+                }
+            }
+        }
+
+        @Override
+        int compareAscending(int a, int b) {
+            int typeA = types[a];
+            int typeB = types[b];
+            if (typeA < 0 || typeB < 0) {
+                if (typeA == typeB) {
+                    return 0;
+                }
+                // nulls are last when compared to a Comparable, otherwise compared as ""
+                if (comparableTypes[typeA < 0 ? typeB : typeA]) {
+                    return typeA < 0 ? 1 : -1;
+                }
+                return strings[a].compareTo(strings[b]);
+            }
+            return compareNonNull(a, b);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int compareNonNull(int a, int b) {
+            if (naturalPairs[types[a]][types[b]]) {
+                return ((Comparable<Object>) values[a]).compareTo(values[b]);
+            }
+            return strings[a].compareTo(strings[b]);
+        }
+    }
+}
@@ -1,59 +1,81 @@
 package org.vaadin.firitin.components.grid;
 
-import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
-import com.fasterxml.jackson.databind.introspect.BasicBeanDescription;
-import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.contextmenu.ContextMenu;
 import com.vaadin.flow.component.contextmenu.MenuItem;
 import com.vaadin.flow.component.grid.ColumnPathRenderer;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridSelectionModel;
+import com.vaadin.flow.component.grid.GridSortOrder;
 import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.grid.dataview.GridListDataView;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.DataChangeEvent;
 import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.data.renderer.Renderer;
 import com.vaadin.flow.dom.Style;
 import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.internal.SharedUtil;
+import com.vaadin.flow.shared.Registration;
 import org.apache.commons.lang3.StringUtils;
 import org.vaadin.firitin.fluency.ui.FluentComponent;
 import org.vaadin.firitin.fluency.ui.FluentFocusable;
 import org.vaadin.firitin.fluency.ui.FluentHasSize;
 import org.vaadin.firitin.fluency.ui.FluentHasStyle;
 import org.vaadin.firitin.fluency.ui.FluentHasTheme;
-import org.vaadin.firitin.util.VStyleUtil;
+import org.vaadin.firitin.form.BindingPlan;
+import org.vaadin.firitin.form.GeneratedAccessors;
+import org.vaadin.firitin.util.StyleRuleRegistry;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.RandomAccess;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class VGrid<T> extends Grid<T>
         implements FluentComponent<VGrid<T>>, FluentHasStyle<VGrid<T>>, FluentHasSize<VGrid<T>>,
         FluentFocusable<Grid<T>, VGrid<T>>, FluentHasTheme<VGrid<T>> {
 
-    // Not really used for object mapping, but introspection
-    private static ObjectMapper dummyOm;
-    private BasicBeanDescription bbd;
-    private Set<String> columnCssKeys;
-    private Set<String> rowCssKeys;
+    private BindingPlan<T> plan;
+    // max number of cached row styler results per grid
+    private static final int MAX_CACHED_STYLE_KEYS = 1000;
     private CellFormatter<T> cellFormatter;
+    private boolean precomputedSorting;
+    private boolean sortKeyListenerAdded;
+    private ItemIndexProvider<T> itemIndexProvider;
+    private ListItemIndex<T> listItemIndex;
+    private DataProvider<T, ?> indexedDataProvider;
+    private Registration indexedDataProviderRegistration;
+    private LazySelection<T> lazySelection;
+    private boolean columnVirtualization;
+    private int columnVirtualizationBuffer = 3;
+    private Registration columnViewportAttachRegistration;
+    private int virtualColumnWidth = 150;
+    private double viewportScrollLeft;
+    // estimate until reported by the client
+    private double viewportWidth = 1920;
 
     public VGrid() {
         super();
@@ -76,14 +98,10 @@ public class VGrid<T> extends Grid<T>
     public VGrid(Class<T> beanType, boolean autoCreateColumns) {
         // Make Grid skip column detection, we can do better work here
         super(beanType, false);
-        // Now lets get columns with Jackson, and pick the missing ones for records
-        if (dummyOm == null) {
-            dummyOm = new ObjectMapper();
-        }
-        JavaType javaType = dummyOm.getTypeFactory().constructType(beanType);
-        this.bbd = (BasicBeanDescription) dummyOm.getSerializationConfig().introspect(javaType);
+        // Now lets get columns with Jackson (shared binding plan), works also for records
+        this.plan = BindingPlan.of(beanType);
         if(autoCreateColumns) {
-            List<String> propertyNames = bbd.findProperties().stream().map(BeanPropertyDefinition::getName).toList();
+            List<String> propertyNames = plan.getProperties().stream().map(BindingPlan.Property::getName).toList();
             setColumns(propertyNames.toArray(new String[0]));
         }
     }
@@ -126,68 +144,88 @@ public class VGrid<T> extends Grid<T>
 
     @Override
     public void setColumns(String... propertyNames) {
-        if (getBeanType().isRecord()) {
+        if (plan != null) {
             removeAllColumns();
-            RecordComponent[] recordComponents = getBeanType().getRecordComponents();
             for (String p : propertyNames) {
-                for (RecordComponent r : recordComponents) {
-                    String name = r.getName();
-                    if (name.equals(p)) {
-                        addRecordColumn(r, name);
-                    }
-                }
+                addColumn(p);
             }
         } else {
             super.setColumns(propertyNames);
         }
     }
 
+    /**
+     * Adds a column for the given property. Nested properties are supported
+     * with dot separated paths, e.g. <code>address.city</code>.
+     * <p>
+     * The property accessors are compiled once per type (see
+     * {@link BindingPlan}), so unlike with the default Grid, reading the
+     * cell values doesn't use the reflection API. Also works for records and
+     * e.g. default methods, that Vaadin core doesn't support.
+     * </p>
+     *
+     * @param propertyName the property name or path
+     * @return the created column
+     */
     @Override
     public Column<T> addColumn(String propertyName) {
-        try {
+        GeneratedAccessors<T> generated = getGeneratedAccessors();
+        if (generated != null && generated.getGetters().containsKey(propertyName)) {
+            return addGeneratedColumn(generated, propertyName);
+        }
+        PropertyPathValueProvider<T> valueProvider = plan == null ? null
+                : PropertyPathValueProvider.of(getBeanType(), propertyName);
+        if (valueProvider == null) {
+            // e.g. a property that Jackson doesn't see, let Vaadin try
             return super.addColumn(propertyName);
-        } catch (IllegalArgumentException exception) {
-            // Vaadin don't by default support modern Java like default methods, records
-            // try falling back to create column using Jackson introspection
-            if (bbd != null) {
-                var d = bbd.findProperties().stream().filter(p -> p.getName().equals(propertyName)).findFirst().get();
-                AnnotatedMethod getter = d.getGetter();
-                Column<T> col = addColumn(i -> {
-                    try {
-                        return getter.callOn(i);
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
-                });
-                try {
-                    col.setKey(propertyName);
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException(
-                            "Multiple columns for the same property: "
-                                    + propertyName);
-                }
-                if (Comparable.class.isAssignableFrom(d.getPrimaryType().getRawClass())) {
-                    col.setSortable(true);
-                }
-                col.setHeader(StringUtils.capitalize(propertyName));
-                return col;
-            } else {
-                throw exception;
-            }
         }
+        Column<T> col = addColumn(valueProvider);
+        try {
+            col.setKey(propertyName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Multiple columns for the same property: "
+                            + propertyName);
+        }
+        Class<?> type = valueProvider.getValueType();
+        if (type.isPrimitive() || Comparable.class.isAssignableFrom(type)) {
+            col.setSortProperty(propertyName);
+        }
+        if (plan.isRecordType()) {
+            col.setHeader(StringUtils.capitalize(propertyName));
+        } else {
+            // same as Vaadin does for bean properties
+            col.setHeader(SharedUtil.propertyIdToHumanFriendly(propertyName));
+        }
+        return col;
     }
 
-    private void addRecordColumn(RecordComponent r, String name) {
-        addColumn(v -> {
-            try {
-                r.getAccessor().setAccessible(true);
-                return r.getAccessor().invoke(v);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
-            }
-        }).setKey(name).setHeader(StringUtils.capitalize(name));
+    private GeneratedAccessors<T> getGeneratedAccessors() {
+        Class<T> beanType = getBeanType();
+        return beanType == null ? null : BindingPlan.generatedAccessors(beanType);
+    }
+
+    /**
+     * Creates a column using the accessor table generated at compile time,
+     * see {@link org.vaadin.firitin.form.GenerateBinder}, no reflection needed
+     * for the cell values.
+     */
+    private Column<T> addGeneratedColumn(GeneratedAccessors<T> generated, String propertyName) {
+        Function<T, Object> getter = generated.getGetters().get(propertyName);
+        Column<T> col = addColumn(getter::apply);
+        try {
+            col.setKey(propertyName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Multiple columns for the same property: "
+                            + propertyName);
+        }
+        Class<?> type = generated.getPropertyTypes().get(propertyName);
+        if (type != null && (type.isPrimitive() || Comparable.class.isAssignableFrom(type))) {
+            col.setSortable(true);
+        }
+        col.setHeader(StringUtils.capitalize(propertyName));
+        return col;
     }
 
     public VGrid<T> withThemeVariants(GridVariant... variants) {
@@ -201,6 +239,85 @@ public class VGrid<T> extends Grid<T>
         return this;
     }
 
+    @Override
+    public GridListDataView<T> setItems(Collection<T> items) {
+        if (precomputedSorting) {
+            return setItems(new SortKeyListDataProvider<>(items));
+        }
+        return super.setItems(items);
+    }
+
+    @Override
+    public GridListDataView<T> setItems(ListDataProvider<T> dataProvider) {
+        GridListDataView<T> dataView = super.setItems(dataProvider);
+        updateSortKeys();
+        return dataView;
+    }
+
+    /**
+     * Enables sorting of in-memory (list) data with precomputed sort keys.
+     * Instead of calling the value providers of the sorted columns for each
+     * comparison, the sort keys are extracted once per item and a
+     * permutation of the items is sorted, in parallel for large lists. See
+     * {@link SortKeyListDataProvider}. Makes a notable difference with large
+     * lists and/or expensive value providers.
+     * <p>
+     * Sorting by columns with a custom comparator (other than one set with
+     * {@link Column#setComparator(ValueProvider)}) falls back to the normal
+     * in-memory sorting.
+     * </p>
+     *
+     * @param precomputedSorting true to enable
+     */
+    public void setPrecomputedSorting(boolean precomputedSorting) {
+        this.precomputedSorting = precomputedSorting;
+        if (precomputedSorting) {
+            if (!sortKeyListenerAdded) {
+                addSortListener(e -> updateSortKeys());
+                sortKeyListenerAdded = true;
+            }
+            if (getDataProvider() instanceof ListDataProvider<T> listDataProvider
+                    && !(listDataProvider instanceof SortKeyListDataProvider)) {
+                SortKeyListDataProvider<T> sortKeyDataProvider = new SortKeyListDataProvider<>(listDataProvider.getItems());
+                sortKeyDataProvider.setFilter(listDataProvider.getFilter());
+                sortKeyDataProvider.setSortComparator(listDataProvider.getSortComparator());
+                setItems(sortKeyDataProvider);
+                return;
+            }
+        }
+        updateSortKeys();
+    }
+
+    public boolean isPrecomputedSorting() {
+        return precomputedSorting;
+    }
+
+    public VGrid<T> withPrecomputedSorting() {
+        setPrecomputedSorting(true);
+        return this;
+    }
+
+    private void updateSortKeys() {
+        if (getDataProvider() instanceof SortKeyListDataProvider<T> sortKeyDataProvider) {
+            sortKeyDataProvider.setSortKeys(precomputedSorting ? resolveSortKeys() : null);
+        }
+    }
+
+    private List<SortKeyListDataProvider.SortKey<T>> resolveSortKeys() {
+        List<SortKeyListDataProvider.SortKey<T>> keys = new ArrayList<>();
+        for (GridSortOrder<T> order : getSortOrder()) {
+            if (!(order.getSorted() instanceof VColumn<T> column) || column.sortKeyProvider == null) {
+                // custom comparator, use the normal in-memory sorting
+                return null;
+            }
+            ValueProvider<T, ?> valueProvider = column.sortKeyProvider;
+            // nested nulls as configured for the grid, like the comparators do
+            keys.add(new SortKeyListDataProvider.SortKey<>(item -> applyValueProvider(valueProvider, item),
+                    order.getDirection() == SortDirection.DESCENDING));
+        }
+        return keys;
+    }
+
     public VGrid<T> withItems(Collection<T> items) {
         setItems(items);
         return this;
@@ -211,31 +328,310 @@ public class VGrid<T> extends Grid<T>
         return this;
     }
 
+    /**
+     * Sets the provider used to resolve item indexes for
+     * {@link #scrollToItem(Object)}. Needed for efficient scrolling in lazy
+     * loaded grids, for example with a ranked query in the backend.
+     *
+     * @param itemIndexProvider the item index provider, null to use the default strategy
+     */
+    public void setItemIndexProvider(ItemIndexProvider<T> itemIndexProvider) {
+        this.itemIndexProvider = itemIndexProvider;
+    }
+
+    public ItemIndexProvider<T> getItemIndexProvider() {
+        return itemIndexProvider;
+    }
+
+    public VGrid<T> withItemIndexProvider(ItemIndexProvider<T> itemIndexProvider) {
+        setItemIndexProvider(itemIndexProvider);
+        return this;
+    }
+
     /**
      * Scrolls to the row presenting the given item.
+     * <p>
+     * With in-memory data, the index is resolved from an id to index map. The
+     * map is maintained incrementally while the items are shown in the order
+     * of the backing list, and rebuilt after changes to sorted or filtered
+     * data. With lazy loaded
+     * data, the index is resolved with the {@link ItemIndexProvider}, if
+     * configured.
+     * </p>
      *
      * @param item the item to scroll to
-     * @deprecated Note, with lazy loaded content, calling this method
-     * may cause performance issues
+     * @see #setItemIndexProvider(ItemIndexProvider)
      */
-    @Deprecated
     public void scrollToItem(T item) {
-        int index;
-        Stream<T> items;
-        try {
-            items = getListDataView().getItems();
-        } catch (IllegalStateException exception) {
-            // lazy loaded, this might be slow
-            // TODO, figure out if we could optimze this
-            // for the rows that happen to be already in
-            // the viewport
-            items = getGenericDataView().getItems();
+        scrollToIndex(resolveIndex(item));
+    }
+
+    private int resolveIndex(T item) {
+        if (itemIndexProvider != null) {
+            // the filter and sort orders the grid fetches its data with
+            @SuppressWarnings("unchecked")
+            Query<T, ?> query = getDataCommunicator().buildQuery(0, Integer.MAX_VALUE);
+            return itemIndexProvider.indexOf(item, query);
+        }
+        DataProvider<T, ?> dataProvider = getDataProvider();
+        if (dataProvider instanceof ListDataProvider) {
+            return listItemIndex(dataProvider).indexOf(item);
         }
+        // lazy loaded without ItemIndexProvider, this might be slow
         AtomicInteger i = new AtomicInteger(); // any mutable integer wrapper
-        index = items.peek(v -> i.incrementAndGet())
+        return getGenericDataView().getItems()
+                .peek(v -> i.incrementAndGet())
                 .anyMatch(itm -> itm.equals(item)) ?
                 i.get() - 1 : -1;
-        scrollToIndex(index);
+    }
+
+    private ListItemIndex<T> listItemIndex(DataProvider<T, ?> dataProvider) {
+        if (listItemIndex == null) {
+            listItemIndex = new ListItemIndex<>(this::unsortedListItems, () -> getListDataView().getItems(),
+                    item -> getDataProvider().getId(item));
+            addSortListener(e -> listItemIndex.invalidate());
+            // filter changes
+            getGenericDataView().addItemCountChangeListener(e -> listItemIndex.invalidate());
+        }
+        if (dataProvider != indexedDataProvider) {
+            if (indexedDataProviderRegistration != null) {
+                indexedDataProviderRegistration.remove();
+            }
+            indexedDataProvider = dataProvider;
+            indexedDataProviderRegistration = dataProvider.addDataProviderListener(e -> {
+                // refreshing a single item doesn't change the order
+                if (!(e instanceof DataChangeEvent.DataRefreshEvent)) {
+                    listItemIndex.invalidate();
+                }
+            });
+            listItemIndex.invalidate();
+        }
+        return listItemIndex;
+    }
+
+    /**
+     * @return the backing list of the data provider, if the grid shows its
+     * items in the list order, otherwise null
+     */
+    private List<T> unsortedListItems() {
+        if (getDataProvider() instanceof ListDataProvider<T> listDataProvider
+                && listDataProvider.getItems() instanceof List<T> list && list instanceof RandomAccess
+                && listDataProvider.getSortComparator() == null && getSortOrder().isEmpty()
+                && getDataCommunicator().getInMemorySorting() == null
+                // nothing filtered out
+                && getListDataView().getItemCount() == list.size()) {
+            return list;
+        }
+        return null;
+    }
+
+    /**
+     * Enables a {@link LazySelection}, a selection model for huge lazy loaded
+     * grids that doesn't hold all selected items in memory. A checkbox column
+     * is added as the first column, with a "select all" checkbox in its
+     * header. The built-in selection of Grid is disabled.
+     *
+     * @return the grid with lazy selection
+     * @see #getLazySelection()
+     */
+    public VGrid<T> withLazySelection() {
+        if (lazySelection != null) {
+            return this;
+        }
+        setSelectionMode(SelectionMode.NONE);
+        lazySelection = new LazySelection<>(this);
+        Column<T> column = addColumn(LitRenderer.<T>of(
+                        "<vaadin-checkbox aria-label='Select row' .checked=${item.selected} @click=${toggle}></vaadin-checkbox>")
+                .withProperty("selected", item -> lazySelection.isSelected(item))
+                .withFunction("toggle", item -> lazySelection.toggle(item)));
+        column.setKey("lazy-selection");
+        column.setWidth("56px");
+        column.setFlexGrow(0);
+        column.setFrozen(true);
+
+        Checkbox selectAll = new Checkbox();
+        selectAll.setAriaLabel("Select all");
+        selectAll.addValueChangeListener(e -> {
+            if (e.isFromClient()) {
+                if (e.getValue()) {
+                    lazySelection.selectAll();
+                } else {
+                    lazySelection.deselectAll();
+                }
+            }
+        });
+        lazySelection.addSelectionChangeListener(s -> {
+            selectAll.setValue(s.isAllSelected());
+            selectAll.setIndeterminate(!s.isEmpty() && !s.isFullySelected());
+        });
+        column.setHeader(selectAll);
+
+        List<Column<T>> columns = new ArrayList<>(getColumns());
+        columns.remove(column);
+        columns.add(0, column);
+        setColumnOrder(columns);
+        return this;
+    }
+
+    /**
+     * @return the lazy selection, null if not enabled with {@link #withLazySelection()}
+     */
+    public LazySelection<T> getLazySelection() {
+        return lazySelection;
+    }
+
+    /**
+     * Enables horizontal column virtualization, for very wide grids. Grid
+     * virtualizes rows, but by default sends and renders the data of all
+     * columns. In this mode, only the columns in the horizontal viewport
+     * (plus a buffer, see {@link #setColumnVirtualizationBuffer(int)}) keep
+     * their renderers. The other columns get an empty renderer, so nothing is
+     * generated or sent for their cells (e.g. no components are created for
+     * component columns), and the visible rows are re-fetched on horizontal
+     * scroll. Thus the payload and rendering time scale with the viewport
+     * instead of the number of columns.
+     * <p>
+     * The column positions are calculated from their widths, so columns
+     * should have a fixed pixel width. Columns without one are set to
+     * {@link #setVirtualColumnWidth(int)} pixels, without flex grow. Frozen
+     * columns are always rendered. For columns outside the viewport,
+     * {@link Column#getRenderer()} returns the empty renderer, a renderer set
+     * for such a column is applied when it is back in the viewport.
+     * </p>
+     *
+     * @param columnVirtualization true to enable
+     */
+    public void setColumnVirtualization(boolean columnVirtualization) {
+        if (this.columnVirtualization == columnVirtualization) {
+            return;
+        }
+        this.columnVirtualization = columnVirtualization;
+        if (columnVirtualization) {
+            getColumns().forEach(this::prepareVirtualizedColumn);
+            // again on each attach, the client side script runs only once per element
+            columnViewportAttachRegistration = addAttachListener(e -> initColumnViewportReporting());
+            if (isAttached()) {
+                initColumnViewportReporting();
+            }
+        } else {
+            columnViewportAttachRegistration.remove();
+            columnViewportAttachRegistration = null;
+        }
+        updateRenderedColumns();
+    }
+
+    public boolean isColumnVirtualization() {
+        return columnVirtualization;
+    }
+
+    public VGrid<T> withColumnVirtualization() {
+        setColumnVirtualization(true);
+        return this;
+    }
+
+    /**
+     * @param columnVirtualizationBuffer the number of columns rendered on
+     *                                   both sides of the viewport, 3 by default
+     */
+    public void setColumnVirtualizationBuffer(int columnVirtualizationBuffer) {
+        this.columnVirtualizationBuffer = columnVirtualizationBuffer;
+        updateRenderedColumns();
+    }
+
+    /**
+     * @param virtualColumnWidth the width, in pixels, of columns without a
+     *                           fixed pixel width, when column virtualization
+     *                           is enabled
+     */
+    public void setVirtualColumnWidth(int virtualColumnWidth) {
+        this.virtualColumnWidth = virtualColumnWidth;
+    }
+
+    private void prepareVirtualizedColumn(Column<T> column) {
+        if (parsePixelWidth(column.getWidth()) < 0) {
+            column.setWidth(virtualColumnWidth + "px");
+            column.setFlexGrow(0);
+        }
+    }
+
+    private static double parsePixelWidth(String width) {
+        if (width != null && width.endsWith("px")) {
+            try {
+                return Double.parseDouble(width.substring(0, width.length() - 2));
+            } catch (NumberFormatException e) {
+                // not a plain pixel value
+            }
+        }
+        return -1;
+    }
+
+    private void initColumnViewportReporting() {
+        getElement().executeJs("""
+                const grid = this;
+                if (grid.__firitinColumnViewport) {
+                    return;
+                }
+                grid.__firitinColumnViewport = true;
+                let timeout, lastLeft, lastWidth;
+                const report = () => {
+                    clearTimeout(timeout);
+                    timeout = setTimeout(() => {
+                        const left = grid.$.table.scrollLeft;
+                        const width = grid.$.table.clientWidth;
+                        // vertical scrolling also fires scroll events
+                        if (left !== lastLeft || width !== lastWidth) {
+                            lastLeft = left;
+                            lastWidth = width;
+                            grid.$server.columnViewportChanged(left, width);
+                        }
+                    }, 50);
+                };
+                grid.$.table.addEventListener('scroll', report);
+                new ResizeObserver(report).observe(grid);
+                report();
+                """);
+    }
+
+    @ClientCallable
+    void columnViewportChanged(double scrollLeft, double width) {
+        viewportScrollLeft = scrollLeft;
+        viewportWidth = width;
+        updateRenderedColumns();
+    }
+
+    private void updateRenderedColumns() {
+        List<Column<T>> columns = getColumns().stream().filter(Column::isVisible).toList();
+        int first = -1;
+        int last = -1;
+        double left = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            Column<T> column = columns.get(i);
+            double width = parsePixelWidth(column.getWidth());
+            double right = left + (width < 0 ? virtualColumnWidth : width);
+            if (right > viewportScrollLeft && left < viewportScrollLeft + viewportWidth) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+            left = right;
+        }
+        boolean changed = false;
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i) instanceof VColumn<T> column) {
+                boolean outside = columnVirtualization
+                        && !column.isFrozen() && !column.isFrozenToEnd()
+                        && (i < first - columnVirtualizationBuffer || i > last + columnVirtualizationBuffer);
+                if (column.outsideViewport != outside) {
+                    column.setOutsideViewport(outside);
+                    changed = true;
+                }
+            }
+        }
+        if (changed) {
+            // re-sends the rows in the viewport
+            getDataCommunicator().reset();
+        }
     }
 
     /**
@@ -279,46 +675,58 @@ public class VGrid<T> extends Grid<T>
         return this;
     }
 
-    private VColumn<T> colById(String columnId) {
-        // Reflection extension 🤪: Map<String, Column<T>> idToColumnMap
-        try {
-            final Field field = Grid.class.getDeclaredField("idToColumnMap");
-            field.setAccessible(true);
-            Map<String, Column<T>> idToColumnMap = (Map<String, Column<T>>) field.get(this);
-            return (VColumn<T>) idToColumnMap.get(columnId);
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+    @Override
+    protected <C extends Column<T>> C addColumn(Renderer<T> renderer, BiFunction<Renderer<T>, String, C> columnFactory) {
+        C column = super.addColumn(renderer, columnFactory);
+        if (columnVirtualization) {
+            prepareVirtualizedColumn(column);
+            updateRenderedColumns();
         }
+        return column;
     }
 
     @Override
     protected <C extends Column<T>> C addColumn(ValueProvider<T, ?> valueProvider, BiFunction<Renderer<T>, String, C> columnFactory) {
         String columnId = createColumnId(false);
 
+        // The renderer is created before the column, capture the column
+        // to this holder once created, instead of looking it up for each cell
+        AtomicReference<VColumn<T>> columnHolder = new AtomicReference<>();
         C column = addColumn(
                 new ColumnPathRenderer<T>(columnId,
-                        item -> formatColumnValue(colById(columnId),
-                                applyValueProvider(valueProvider, item))),
+                        item -> formatColumnValue(columnHolder.get(), applyValueProvider(valueProvider, item))),
                 columnFactory);
+        if (column instanceof VColumn<T> vColumn) {
+            columnHolder.set(vColumn);
+            vColumn.sortKeyProvider = valueProvider;
+        }
         // Set comparator in the same way as in super implementation using reflection
         // setComparator has side effects
         try {
-            final Field field = Column.class.getDeclaredField("comparator");
-            field.setAccessible(true);
             SerializableComparator<T> c = ((a, b) -> compareMaybeComparables(
                     applyValueProvider(valueProvider, a),
                     applyValueProvider(valueProvider, b)));
-            field.set(column, c);
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
+            ComparatorField.field.set(column, c);
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         }
         return column;
     }
 
+    // Lazy holder, Column.comparator resolved only once
+    private static class ComparatorField {
+        private static final Field field;
+
+        static {
+            try {
+                field = Column.class.getDeclaredField("comparator");
+                field.setAccessible(true);
+            } catch (NoSuchFieldException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     // Copy pasted from Grid to override formatting
     private Object applyValueProvider(ValueProvider<T, ?> valueProvider,
                                       T item) {
@@ -358,70 +766,93 @@ public class VGrid<T> extends Grid<T>
      * @param rowStyler the RowStyler
      */
     public VGrid<T> withRowStyler(RowStyler<T> rowStyler) {
+        return withRowStyler(rowStyler, null);
+    }
+
+    /**
+     * Adds a strategy to style cells based on rows, with a cache for the
+     * styler results. Rows whose items have an equal style key (e.g. a status
+     * enum used to pick the colors) get the same style, so the styler is
+     * called only once per key. Items with null key are always styled.
+     * <p>
+     * The generated CSS rules are shared with other grids in the same UI,
+     * see {@link StyleRuleRegistry}.
+     * </p>
+     *
+     * @param rowStyler        the RowStyler
+     * @param styleKeyProvider provides the style key for an item, or null to disable the cache
+     * @return the VGrid for further configuration
+     */
+    public VGrid<T> withRowStyler(RowStyler<T> rowStyler, ValueProvider<T, ?> styleKeyProvider) {
         var oldCNG = getPartNameGenerator();
-        setPartNameGenerator((ValueProvider<T, String>) t -> {
-            TreeMap<String, String> styleRules = new TreeMap<>();
-            Style style = new Style() {
-                @Override
-                public String get(String name) {
-                    return styleRules.get(name);
-                }
+        // style key -> rule, null value for "no style"
+        Map<Object, StyleRuleRegistry.Rule> styleKeyToRule = styleKeyProvider == null ? null
+                : new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, StyleRuleRegistry.Rule> eldest) {
+                return size() > MAX_CACHED_STYLE_KEYS;
+            }
+        };
+        // The same map and Style instance are reused for all rows, the
+        // part name generator is only called by the UI thread
+        TreeMap<String, String> styleRules = new TreeMap<>();
+        Style style = new Style() {
+            @Override
+            public String get(String name) {
+                return styleRules.get(name);
+            }
 
-                @Override
-                public Style set(String name, String value) {
-                    styleRules.put(name, value);
-                    return this;
-                }
+            @Override
+            public Style set(String name, String value) {
+                styleRules.put(name, value);
+                return this;
+            }
 
-                @Override
-                public Style remove(String name) {
-                    styleRules.remove(name);
-                    return this;
-                }
+            @Override
+            public Style remove(String name) {
+                styleRules.remove(name);
+                return this;
+            }
 
-                @Override
-                public Style clear() {
-                    styleRules.clear();
-                    return this;
-                }
+            @Override
+            public Style clear() {
+                styleRules.clear();
+                return this;
+            }
 
-                @Override
-                public boolean has(String name) {
-                    return styleRules.containsKey(name);
-                }
+            @Override
+            public boolean has(String name) {
+                return styleRules.containsKey(name);
+            }
 
-                @Override
-                public Stream<String> getNames() {
-                    return styleRules.keySet().stream();
+            @Override
+            public Stream<String> getNames() {
+                return styleRules.keySet().stream();
+            }
+        };
+        setPartNameGenerator((ValueProvider<T, String>) t -> {
+            StyleRuleRegistry.Rule rule;
+            Object styleKey = styleKeyProvider == null ? null : styleKeyProvider.apply(t);
+            if (styleKey != null && styleKeyToRule.containsKey(styleKey)) {
+                rule = styleKeyToRule.get(styleKey);
+            } else {
+                styleRules.clear();
+                rowStyler.styleRow(t, style);
+                rule = styleRules.isEmpty() ? null : StyleRuleRegistry.computeRule(styleRules, "dynstyle-r");
+                if (styleKey != null) {
+                    styleKeyToRule.put(styleKey, rule);
                 }
-            };
-            rowStyler.styleRow(t, style);
-            if (styleRules.isEmpty()) {
+            }
+            if (rule == null) {
                 return oldCNG != null ? oldCNG.apply(t) : null;
             } else {
-                StringBuilder cellCssBody = new StringBuilder();
-                styleRules.forEach((k, v) -> {
-                    cellCssBody.append("%s: %s;".formatted(k, v));
-                });
-                String cellCssBodyString = cellCssBody.toString();
-                // part/class name unique for the similar style rules
-                // if e.g. 5 rows are configured with same style, they will share the same style element
-                // currently grid wide optimisation, could be per UI as well
-                String key = "dynstyle" + cellCssBodyString.hashCode() + "-rc";
-                if (rowCssKeys == null) {
-                    rowCssKeys = new HashSet<>();
-                }
-                boolean newRule = rowCssKeys.add(key);
-                if (newRule) {
-                    VStyleUtil.inject("""
-                            vaadin-grid::part(%s) {
-                                %s
-                            }
-                            """.formatted(
-                            key,
-                            cellCssBodyString)
-                    );
-                }
+                // part name unique for the similar style rules, if e.g. 5 rows
+                // (in any grid of the UI) have the same style, they share the same style element
+                String key = StyleRuleRegistry.get().register(rule, r -> """
+                        vaadin-grid::part(%s) {
+                            %s
+                        }
+                        """.formatted(r.key(), r.body()));
                 if(oldCNG != null) {
                     String oldNames = oldCNG.apply(t);
                     if(oldNames != null) {
@@ -479,6 +910,12 @@ public class VGrid<T> extends Grid<T>
     public static class VColumn<T> extends Column<T> {
 
         private Style customStyle;
+        // the value the column is sorted by, null if sorted with a custom comparator
+        private ValueProvider<T, ?> sortKeyProvider;
+        // horizontally virtualized, see VGrid.setColumnVirtualization
+        private boolean outsideViewport;
+        // the actual renderer while outside the viewport
+        private Renderer<T> virtualizedRenderer;
 
         /**
          * Constructs a new Column for use inside a Grid.
@@ -492,6 +929,47 @@ public class VGrid<T> extends Grid<T>
             super(grid, columnId, renderer);
         }
 
+        @Override
+        public Column<T> setRenderer(Renderer<T> renderer) {
+            if (outsideViewport) {
+                // applied when back in the viewport
+                virtualizedRenderer = renderer;
+                return this;
+            }
+            return super.setRenderer(renderer);
+        }
+
+        private void setOutsideViewport(boolean outsideViewport) {
+            if (outsideViewport) {
+                virtualizedRenderer = getRenderer();
+                this.outsideViewport = true;
+                // no properties, nothing is generated for the cells
+                super.setRenderer(LitRenderer.of(""));
+            } else {
+                this.outsideViewport = false;
+                super.setRenderer(virtualizedRenderer);
+                virtualizedRenderer = null;
+            }
+        }
+
+        boolean isOutsideViewport() {
+            return outsideViewport;
+        }
+
+        @Override
+        public Column<T> setComparator(Comparator<T> comparator) {
+            sortKeyProvider = null;
+            return super.setComparator(comparator);
+        }
+
+        @Override
+        public <V extends Comparable<? super V>> Column<T> setComparator(ValueProvider<T, V> keyExtractor) {
+            // delegates to setComparator(Comparator)
+            super.setComparator(keyExtractor);
+            sortKeyProvider = keyExtractor;
+            return this;
+        }
+
         @Override
         public Style getStyle() {
             // super implementation is completely useless
@@ -525,25 +1003,35 @@ public class VGrid<T> extends Grid<T>
 
                 private void deferredApply() {
                     if (!deferred) {
-                        getGrid().getElement().getNode().runWhenAttached(ui -> doApply());
+                        getGrid().getElement().getNode().runWhenAttached(ui -> doApply(ui));
                         deferred = true;
                     }
                 }
 
-                private void doApply() {
-                    StringBuilder cellCssBody = new StringBuilder();
+                private void doApply(UI ui) {
                     StringBuilder headerContentCssBody = new StringBuilder();
                     styles.forEach((k, v) -> {
-                        cellCssBody.append("%s: %s;".formatted(k, v));
                         if (Arrays.stream(harmfulAsDuplicate).noneMatch(k::contains)) {
                             headerContentCssBody.append("%s: %s;".formatted(k, v));
                         }
                     });
-                    String cellCssBodyString = cellCssBody.toString();
+                    String headerContentCssBodyString = headerContentCssBody.toString();
                     // part/class name unique for the similar style rules
-                    // if 5 cols are mady with same style, they will share the same style element
-                    // currently grid wide optimisation, could be per UI as well
-                    String key = "dynstyle" + cellCssBodyString.hashCode();
+                    // if 5 cols (in any grid of the UI) are made with same style, they will share the same style element
+                    String key = StyleRuleRegistry.of(ui).register(
+                            StyleRuleRegistry.computeRule(styles, "dynstyle-c"),
+                            r -> """
+                                    vaadin-grid::part(%s) {
+                                        %s
+                                    }
+                                    .%s-hc {
+                                        %s
+                                    }
+                                    """.formatted(
+                                    r.key(),
+                                    r.body(),
+                                    r.key(),
+                                    headerContentCssBodyString));
 
                     String headerText = getHeaderText();
                     if (headerText != null) {
@@ -556,26 +1044,6 @@ public class VGrid<T> extends Grid<T>
 
                     getGrid().getElement().executeJs("const g = this; setTimeout(() => {g.shadowRoot.querySelector('th:nth-child(" + (indexOfColumn + 1) + ")').part.add('" + key + "');}, 1);");
 
-                    VGrid grid = findAncestor(VGrid.class);
-                    if (grid.columnCssKeys == null) {
-                        grid.columnCssKeys = new HashSet<>();
-                    }
-                    boolean newRule = grid.columnCssKeys.add(key);
-                    if (newRule) {
-                        VStyleUtil.inject("""
-                                vaadin-grid::part(%s) {
-                                    %s
-                                }
-                                .%s-hc {
-                                    %s
-                                }
-                                """.formatted(
-                                key,
-                                cellCssBodyString,
-                                key,
-                                headerContentCssBody.toString())
-                        );
-                    }
                 }
 
                 @Override
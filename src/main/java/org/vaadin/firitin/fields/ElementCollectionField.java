@@ -1,8 +1,5 @@
 package org.vaadin.firitin.fields;
 
-import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.introspect.BasicBeanDescription;
 import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import com.vaadin.flow.component.AbstractField;
 import com.vaadin.flow.component.Component;
@@ -17,6 +14,7 @@ import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.shared.Registration;
 import org.apache.commons.lang3.StringUtils;
 import org.vaadin.firitin.components.button.VButton;
+import org.vaadin.firitin.components.orderedlayout.VScroller;
 import org.vaadin.firitin.components.datepicker.VDatePicker;
 import org.vaadin.firitin.components.datetimepicker.VDateTimePicker;
 import org.vaadin.firitin.components.textfield.VIntegerField;
@@ -27,14 +25,19 @@ import org.vaadin.firitin.fields.internalhtmltable.TableCell;
 import org.vaadin.firitin.fields.internalhtmltable.TableDataCell;
 import org.vaadin.firitin.fields.internalhtmltable.TableRow;
 import org.vaadin.firitin.form.AbstractForm;
+import org.vaadin.firitin.form.BindingPlan;
 import org.vaadin.firitin.form.FormBinder;
+import org.vaadin.firitin.util.ResizeObserver;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,12 +45,20 @@ import java.util.Map;
  * A field to pick a list of objects from a superset.
  *
  * <p>Usage example: selecting runners to a relay team.</p>
+ * <p>
+ * For large collections, see {@link #setVirtualized(boolean)}.
+ * </p>
  */
 public class ElementCollectionField<T> extends Composite<VerticalLayout>
         implements HasValue<HasValue.ValueChangeEvent<List<T>>, List<T>>, HasSize {
 
-    // Helper "Jack" to do introspection
-    private static final ObjectMapper jack = new ObjectMapper();
+    // Row prototypes for generated editors, computed once per element type
+    private static final ClassValue<RowPrototype> generatedRowPrototypes = new ClassValue<>() {
+        @Override
+        protected RowPrototype computeValue(Class<?> elementType) {
+            return RowPrototype.forElementType(elementType);
+        }
+    };
 
     private final Class<T> clazz;
     private final Class<?> editorClass;
@@ -62,7 +73,25 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
     private FormBinder newItemForm;
 
     private SerializableSupplier<Object> editorInstantiator;
-    private BasicBeanDescription bbd;
+    // row -> index in the value list, instead of scanning the table rows
+    private final Map<TableRow, Integer> rowToIndex = new HashMap<>();
+
+    private boolean virtualized;
+    private VScroller scroller;
+    private int virtualRowHeight = 48;
+    private int virtualRowBuffer = 5;
+    private int viewportHeight = 400;
+    private int scrollTop;
+    // the rows above and below the rendered window, sized to keep the scrollbar right
+    private TableRow topSpacer;
+    private TableRow bottomSpacer;
+    // editors of the rendered window, index windowFirst..windowLast-1 in value
+    private final List<RowEditor> windowEditors = new ArrayList<>();
+    private int windowFirst;
+    private int windowLast;
+    // rows added via the "new item" row, always the tail of the value list
+    private final List<TableRow> appendedRows = new ArrayList<>();
+    private final Deque<RowEditor> editorPool = new ArrayDeque<>();
 
     /**
      * Creates a new instance of the field.
@@ -107,12 +136,15 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
     protected void configureColumneHeaders() {
         List<String> fieldNames;
         if(editorClass != null) {
-            fieldNames = Arrays.stream(editorClass.getDeclaredFields()).map(f -> f.getName()).toList();
+            // the editor fields the row binder actually binds, in the same order
+            BindingPlan<T> plan = BindingPlan.of(clazz);
+            fieldNames = BindingPlan.editorFields(editorClass).stream()
+                    .map(BindingPlan.EditorField::name)
+                    .filter(name -> plan.getProperty(name) != null)
+                    .toList();
         } else {
-            // Full autogeneration, let mr Jackson do it on the element type
-            JavaType javaType = jack.getTypeFactory().constructType(clazz);
-            bbd = (BasicBeanDescription) jack.getSerializationConfig().introspect(javaType);
-            fieldNames = bbd.findProperties().stream().map(p -> p.getName()).toList();
+            // Full autogeneration, properties introspected once per element type
+            fieldNames = generatedRowPrototypes.get(clazz).propertyNames();
         }
         TableRow tr = new TableRow();
         for(String fieldName : fieldNames) {
@@ -142,11 +174,35 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
     protected void addDeleteButtonColumn(TableRow row, T item) {
         TableDataCell cell = row.addDataCell();
         cell.add(new VButton(VaadinIcon.TRASH.create(), event -> {
-            value.remove(item);
+            removeItem(row, item);
             row.getParent().ifPresent(p -> ((Table) p).removeRows(row));
             fireValueChange();
         }));
     }
+    private void removeItem(TableRow row, T item) {
+        Integer index = indexOf(row);
+        if (virtualized) {
+            appendedRows.remove(row);
+        } else {
+            rowToIndex.remove(row);
+        }
+        if (index == null) {
+            value.remove(item);
+            return;
+        }
+        // by index, the row may contain a replaced record or an equal item
+        value.remove((int) index);
+        rowToIndex.replaceAll((r, i) -> i > index ? i - 1 : i);
+    }
+
+    private Integer indexOf(TableRow row) {
+        if (virtualized) {
+            int i = appendedRows.indexOf(row);
+            return i < 0 ? null : value.size() - appendedRows.size() + i;
+        }
+        return rowToIndex.get(row);
+    }
+
     private void fireValueChange() {
         fireEvent(new AbstractField.ComponentValueChangeEvent<ElementCollectionField, List<T>>(this,this,null,true));
     };
@@ -156,16 +212,288 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
     public void setValue(List<T> value) {
         this.value = value;
         table.removeAllRows();
+        rowToIndex.clear();
+        appendedRows.clear();
+        windowEditors.forEach(editorPool::push);
+        windowEditors.clear();
+        windowFirst = windowLast = 0;
         configureColumneHeaders();
-        value.forEach(this::addNewRow);
+        if (virtualized) {
+            addSpacerRows();
+        } else {
+            for (int i = 0; i < value.size(); i++) {
+                addNewRow(value.get(i), i);
+            }
+        }
         addRowForNewItem();
     }
 
+    public boolean isVirtualized() {
+        return virtualized;
+    }
+
+    /**
+     * Enables the virtualized rendering mode, designed for large collections.
+     * In this mode the table is shown in a scrollable viewport (see
+     * {@link #setVirtualViewportHeight(String)}) and only the rows in view
+     * (plus a small buffer) are rendered, the rest of the collection is
+     * represented by two spacer rows. The row editors (and their binders)
+     * are recycled for other rows while scrolling, so the server side memory
+     * and client side DOM stay small regardless of the collection size.
+     * <p>
+     * Rows have a fixed height in this mode, see {@link #setVirtualRowHeight(int)}.
+     * The {@link #addDeleteButtonColumn(TableRow, Object)} hook is only
+     * used for the "new item" row, the recycled editors have their own
+     * delete buttons. Items added via the "new item" row keep their editors
+     * until the next {@link #setValue(List)}.
+     * </p>
+     *
+     * @param virtualized true to enable the virtualized mode
+     */
+    public void setVirtualized(boolean virtualized) {
+        if (this.virtualized == virtualized) {
+            return;
+        }
+        this.virtualized = virtualized;
+        editorPool.clear();
+        getContent().removeAll();
+        if (virtualized) {
+            scroller = new VScroller(table);
+            scroller.setHeight(viewportHeight + "px");
+            scroller.addScrollListener(e -> {
+                scrollTop = e.getScrollTop();
+                updateVirtualWindow(false);
+            });
+            scroller.addAttachListener(attach -> {
+                Registration resizeRegistration = ResizeObserver.of(attach.getUI())
+                        .addResizeListener(scroller, e -> {
+                            viewportHeight = e.getHeight();
+                            updateVirtualWindow(false);
+                        });
+                scroller.addDetachListener(detach -> {
+                    detach.unregisterListener();
+                    resizeRegistration.remove();
+                });
+            });
+            getContent().add(scroller);
+        } else {
+            scroller = null;
+            getContent().add(table);
+        }
+        if (value != null) {
+            setValue(value);
+        }
+    }
+
+    public ElementCollectionField<T> withVirtualized(boolean virtualized) {
+        setVirtualized(virtualized);
+        return this;
+    }
+
+    /**
+     * Sets the height of the scrollable viewport used in the virtualized mode.
+     *
+     * @param height the height as CSS value, 400px by default
+     */
+    public void setVirtualViewportHeight(String height) {
+        if (scroller == null) {
+            throw new IllegalStateException("Only supported in the virtualized mode");
+        }
+        scroller.setHeight(height);
+    }
+
+    /**
+     * Sets the fixed height of the rows in the virtualized mode, used to
+     * calculate which rows are in view.
+     *
+     * @param virtualRowHeight the row height in pixels, 48 by default
+     */
+    public void setVirtualRowHeight(int virtualRowHeight) {
+        this.virtualRowHeight = virtualRowHeight;
+        windowEditors.forEach(e -> e.row.getStyle().setHeight(virtualRowHeight + "px"));
+        editorPool.stream().filter(e -> e.row != null)
+                .forEach(e -> e.row.getStyle().setHeight(virtualRowHeight + "px"));
+        appendedRows.forEach(r -> r.getStyle().setHeight(virtualRowHeight + "px"));
+        updateVirtualWindow(false);
+    }
+
+    /**
+     * Sets the number of rows above and below the viewport that are also
+     * rendered with editors in the virtualized mode.
+     *
+     * @param virtualRowBuffer the number of extra rows, 5 by default
+     */
+    public void setVirtualRowBuffer(int virtualRowBuffer) {
+        this.virtualRowBuffer = virtualRowBuffer;
+        updateVirtualWindow(false);
+    }
+
+    private void addSpacerRows() {
+        // the header row (if any) + the delete button column
+        int columns = table.getRows().isEmpty() ? 1 : table.getRows().get(0).getCells().size() + 1;
+        topSpacer = createSpacerRow(columns);
+        bottomSpacer = createSpacerRow(columns);
+        table.addRows(topSpacer, bottomSpacer);
+        updateVirtualWindow(true);
+    }
+
+    private static TableRow createSpacerRow(int columns) {
+        TableRow spacer = new TableRow();
+        spacer.addDataCell().setColSpan(columns);
+        spacer.getStyle().setHeight("0px");
+        return spacer;
+    }
+
+    /**
+     * Renders the rows in view, recycling the editors of the rows that are no
+     * longer in view, and sizes the spacer rows for the rest of the
+     * collection.
+     *
+     * @param force true to rebind all rows, e.g. after an item was removed
+     */
+    private void updateVirtualWindow(boolean force) {
+        if (!virtualized || value == null || topSpacer == null) {
+            return;
+        }
+        // the appended rows are rendered after the bottom spacer
+        int size = value.size() - appendedRows.size();
+        // -1 for the header row
+        int firstVisible = Math.max(0, scrollTop / virtualRowHeight - 1);
+        int visibleRows = (viewportHeight + virtualRowHeight - 1) / virtualRowHeight + 1;
+        int last = Math.min(size, firstVisible + visibleRows + virtualRowBuffer);
+        int first = Math.min(last, Math.max(0, firstVisible - virtualRowBuffer));
+        if (!force && first == windowFirst && last == windowLast) {
+            return;
+        }
+        // the rows still in view keep their editors and their place in the DOM
+        int keepFrom = force ? last : Math.max(first, windowFirst);
+        int keepTo = force ? last : Math.min(last, windowLast);
+        if (keepFrom >= keepTo) {
+            keepFrom = keepTo = last;
+        }
+        List<RowEditor> kept = new ArrayList<>();
+        for (int i = 0; i < windowEditors.size(); i++) {
+            RowEditor editor = windowEditors.get(i);
+            int index = windowFirst + i;
+            if (index >= keepFrom && index < keepTo) {
+                kept.add(editor);
+            } else {
+                table.removeRows(editor.row);
+                editorPool.push(editor);
+            }
+        }
+        List<RowEditor> before = bindEditors(first, keepFrom);
+        List<RowEditor> after = bindEditors(keepTo, last);
+        // after the header row and the top spacer
+        int tableIndex = table.getRows().indexOf(topSpacer) + 1;
+        table.insertRows(tableIndex, rows(before));
+        table.insertRows(tableIndex + before.size() + kept.size(), rows(after));
+
+        windowEditors.clear();
+        windowEditors.addAll(before);
+        windowEditors.addAll(kept);
+        windowEditors.addAll(after);
+        windowFirst = first;
+        windowLast = last;
+        topSpacer.getStyle().setHeight((long) first * virtualRowHeight + "px");
+        bottomSpacer.getStyle().setHeight((long) (size - last) * virtualRowHeight + "px");
+    }
+
+    private List<RowEditor> bindEditors(int from, int to) {
+        List<RowEditor> editors = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            RowEditor editor = editorPool.poll();
+            if (editor == null) {
+                editor = new RowEditor();
+            }
+            editor.bind(i);
+            editors.add(editor);
+        }
+        return editors;
+    }
+
+    private static TableRow[] rows(List<RowEditor> editors) {
+        return editors.stream().map(e -> e.row).toArray(TableRow[]::new);
+    }
+
+    /**
+     * A row editor (binder + editor components) in the virtualized mode,
+     * recycled for different rows while scrolling.
+     */
+    private class RowEditor {
+        private final FormBinder<T> binder;
+        private final AbstractForm<T> form;
+        private TableRow row;
+        private int index;
+        private boolean binding;
+
+        RowEditor() {
+            Object rowObject = instantiateRowObject();
+            binder = rowObject != null ? new FormBinder<>(clazz, rowObject) : new FormBinder<>(clazz, generateEditors());
+            form = rowObject instanceof AbstractForm ? (AbstractForm<T>) rowObject : null;
+            if (form == null) {
+                initRow(new TableRow(toEditorComponents(binder)));
+            }
+            binder.addValueChangeListener(e -> {
+                if (binding) {
+                    return;
+                }
+                if (clazz.isRecord()) {
+                    // replace the item in the list
+                    value.set(index, binder.getValue());
+                }
+                fireValueChange();
+            });
+        }
+
+        private void initRow(TableRow tr) {
+            tr.getStyle().setHeight(virtualRowHeight + "px");
+            tr.addCells(new VButton(VaadinIcon.TRASH.create(), event -> {
+                value.remove(index);
+                updateVirtualWindow(true);
+                fireValueChange();
+            }));
+            row = tr;
+        }
+
+        private Component[] toEditorComponents(FormBinder<T> binder) {
+            List<String> bindings = binder.getBoundProperties();
+            Component[] components = new Component[bindings.size()];
+            for (int i = 0; i < bindings.size(); i++) {
+                components[i] = (Component) binder.getEditor(bindings.get(i));
+            }
+            return components;
+        }
+
+        void bind(int index) {
+            this.index = index;
+            T item = value.get(index);
+            binding = true;
+            try {
+                // the validation errors of the previous row don't apply to this one
+                binder.clearValidationErrors();
+                if (form != null && row == null) {
+                    form.setEntity(item);
+                } else if (form != null) {
+                    // setEntity would re-create the content, which is now in the table
+                    form.getBinder().setBean(item);
+                }
+                binder.setValue(item);
+            } finally {
+                binding = false;
+            }
+            if (row == null) {
+                // the form creates its content lazily, on the first setEntity
+                initRow((TableRow) form.getContent().getChildren().findFirst().get());
+            }
+        }
+    }
+
     private void addRowForNewItem() {
         if(!clazz.isRecord()) {
             newItem = instantiateNewItem();
         }
-        newItemForm = addNewRow(newItem);
+        newItemForm = addNewRow(newItem, -1);
         // hide the delete button until actually added to the collection
         getLastCell().setVisible(false);
     }
@@ -175,7 +503,7 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
         return lastRow.getCells().get(lastRow.getCells().size() - 1);
     }
 
-    private FormBinder<T> addNewRow(T item) {
+    private FormBinder<T> addNewRow(T item, int index) {
         Object row = instantiateRowObject();
         FormBinder<T> binder;
         if(row != null) {
@@ -204,6 +532,9 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
         if(item != null) {
             binder.setValue(item);
         }
+        if (index >= 0 && !virtualized) {
+            rowToIndex.put(tr, index);
+        }
         addDeleteButtonColumn(tr, item);
         binder.addValueChangeListener(e -> {
             if(binder == newItemForm) {
@@ -215,6 +546,13 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
                         // Record/immutable object
                         value.add(binder.getValue());
                     }
+                    if (virtualized) {
+                        // stays in place, after the bottom spacer, so the user keeps focus
+                        tr.getStyle().setHeight(virtualRowHeight + "px");
+                        appendedRows.add(tr);
+                    } else {
+                        rowToIndex.put(tr, value.size() - 1);
+                    }
                     // display the delete button column
                     getLastCell().setVisible(true);
                     addRowForNewItem();
@@ -222,10 +560,8 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
                 }
             } else {
                 if(clazz.isRecord()) {
-                    List<TableRow> rows = table.getRows();
-                    int index = rows.indexOf(tr) - 1; // 1 for the header row
                     // replace the item in the list
-                    value.set(index, binder.getValue());
+                    value.set(indexOf(tr), binder.getValue());
                 }
                 fireValueChange();
             }
@@ -240,32 +576,66 @@ public class ElementCollectionField<T> extends Composite<VerticalLayout>
      * @return map of editors for properties
      */
     private Map<String, HasValue> generateEditors() {
+        Map<String,HasValue> editors = new LinkedHashMap<>();
+        for (EditorTemplate template : generatedRowPrototypes.get(clazz).editors()) {
+            editors.put(template.property(), template.createEditor());
+        }
+        return editors;
+    }
+
+    /**
+     * The editor to generate for a property, resolved once per element type.
+     */
+    private record EditorTemplate(String property, Class<?> type) {
+
         // TODO figure out how to/if should use field factory from Vaadin core
         // TODO figure out how to make this configurable
         // TODO figure out all possible types that could be supported out of the box with various fields & converters
-        Map<String,HasValue> editors = new HashMap<>();
-        List<BeanPropertyDefinition> properties = bbd.findProperties();
-        for (BeanPropertyDefinition property : properties) {
-            Class<?> type = property.getRawPrimaryType();
-            HasValue hv = null;
+        static boolean isSupported(Class<?> type) {
+            return String.class == type || Integer.class == type || Double.class == type
+                    || LocalDate.class == type || LocalDateTime.class == type
+                    || Enum.class.isAssignableFrom(type);
+        }
+
+        HasValue createEditor() {
             if(String.class == type) {
-                hv = new VTextField();
+                return new VTextField();
             } else if(Integer.class == type) {
-                hv = new VIntegerField();
+                return new VIntegerField();
             } else if(Double.class == type) {
-                hv = new VNumberField();
+                return new VNumberField();
             } else if(LocalDate.class == type) {
-                hv = new VDatePicker();
+                return new VDatePicker();
             } else if(LocalDateTime.class == type) {
-                hv = new VDateTimePicker();
-            } else if(Enum.class.isAssignableFrom(type)) {
-                hv = new EnumSelect<>(type);
+                return new VDateTimePicker();
             } else {
-                throw new UnsupportedOperationException("No field generated for type " + type.getName());
+                return new EnumSelect<>(type);
             }
-            editors.put(property.getName(), hv);
         }
-        return editors;
+    }
+
+    /**
+     * The part of the row binding that is the same for all rows with
+     * generated editors: the introspected properties (via the shared
+     * {@link BindingPlan}) and the editor types for them. The per row
+     * {@link FormBinder}s then only create the editors and wire listeners.
+     */
+    private record RowPrototype(List<String> propertyNames, List<EditorTemplate> editors) {
+
+        static RowPrototype forElementType(Class<?> elementType) {
+            List<String> names = new ArrayList<>();
+            List<EditorTemplate> editors = new ArrayList<>();
+            for (BindingPlan.Property property : BindingPlan.of(elementType).getProperties()) {
+                BeanPropertyDefinition definition = property.getDefinition();
+                Class<?> type = definition.getRawPrimaryType();
+                if (!EditorTemplate.isSupported(type)) {
+                    throw new UnsupportedOperationException("No field generated for type " + type.getName());
+                }
+                names.add(definition.getName());
+                editors.add(new EditorTemplate(definition.getName(), type));
+            }
+            return new RowPrototype(List.copyOf(names), List.copyOf(editors));
+        }
     }
 
     protected T instantiateNewItem() {
@@ -0,0 +1,34 @@
+package org.vaadin.firitin.form;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A validator for a single property, that does its work asynchronously,
+ * for example checks the uniqueness of a username from the backend. Added
+ * to {@link FormBinder} with {@link FormBinder#addAsyncValidator(String, AsyncValidator)}.
+ * <p>
+ * The validator is called in the UI thread, so it should only start the
+ * slow work (using the given executor) and return a future. The result is
+ * applied to the UI by the binder with a proper UI lock, and possible
+ * stale validations are cancelled if the field changes again before the
+ * validation is finished.
+ * </p>
+ *
+ * @param <T> the type of the bound object
+ */
+@FunctionalInterface
+public interface AsyncValidator<T> extends Serializable {
+
+    /**
+     * Starts validating the given value.
+     *
+     * @param value    the current value of the bound object
+     * @param executor the executor configured for the binder, that should be
+     *                 used to run the slow work
+     * @return a future that completes with an error message, or with null if
+     * the value is valid
+     */
+    CompletableFuture<String> validate(T value, Executor executor);
+}
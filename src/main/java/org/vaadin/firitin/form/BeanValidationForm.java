@@ -24,12 +24,9 @@ import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
-import jakarta.validation.Configuration;
+import com.vaadin.flow.component.shared.HasValidationProperties;
 import jakarta.validation.ConstraintViolation;
-import jakarta.validation.MessageInterpolator;
-import jakarta.validation.Validation;
 import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
 import org.vaadin.firitin.components.button.DefaultButton;
 import org.vaadin.firitin.components.button.DeleteButton;
 import org.vaadin.firitin.components.button.VButton;
@@ -40,7 +37,6 @@ import org.vaadin.firitin.util.VStyles;
 import java.io.Serializable;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -86,7 +82,9 @@ public abstract class BeanValidationForm<T> extends Composite<Div> {
     private Button resetButton;
     private Button deleteButton;
     private Class<?>[] validationGroups;
-    private Validator validator;
+    private boolean incrementalValidation;
+    private Set<String> classLevelValidationDependencies;
+    private Boolean hasClassLevelConstraints;
 
     private Div classLevelViolationsDisplay = new Div();
 
@@ -219,14 +217,92 @@ public abstract class BeanValidationForm<T> extends Composite<Div> {
             if (e.isFromClient()) {
                 hasChanges = true;
                 // TODO this is old status change listener, figure out what is really needed
-                Set<ConstraintViolation<T>> constraintViolations = doBeanValidation(e.getValue());
-                binder.setConstraintViolations(constraintViolations);
+                validate(e);
                 adjustResetButtonState();
                 adjustSaveButtonState();
             }
         });
     }
 
+    /**
+     * Validates the bean after a value change. In the default mode the whole
+     * bean is validated. In the incremental mode, only the changed property is
+     * validated, unless class level constraints depend on it.
+     *
+     * @param e the value change event from the binder
+     */
+    protected void validate(FormBinderValueChangeEvent<T> e) {
+        Set<String> properties = e.getProperties();
+        boolean propertyLevel = incrementalValidation && !properties.isEmpty();
+        if (propertyLevel) {
+            for (String property : properties) {
+                if (!(binder.getEditor(property) instanceof HasValidationProperties)
+                        || isClassLevelValidationNeeded(property)) {
+                    propertyLevel = false;
+                    break;
+                }
+            }
+        }
+        if (propertyLevel) {
+            T value = e.getValue();
+            for (String property : properties) {
+                binder.setPropertyConstraintViolations(property, doPropertyValidation(value, property));
+            }
+        } else {
+            binder.setConstraintViolations(doBeanValidation(e.getValue()));
+        }
+    }
+
+    /**
+     * @param property the changed property
+     * @return true if class level constraints need to be re-evaluated when the given property changes
+     */
+    protected boolean isClassLevelValidationNeeded(String property) {
+        if (hasClassLevelConstraints == null) {
+            hasClassLevelConstraints = getValidator().getConstraintsForClass(entityType)
+                    .getConstraintDescriptors().size() > 0;
+        }
+        if (!hasClassLevelConstraints) {
+            return false;
+        }
+        return classLevelValidationDependencies == null
+                || classLevelValidationDependencies.contains(property);
+    }
+
+    public boolean isIncrementalValidation() {
+        return incrementalValidation;
+    }
+
+    /**
+     * Enables incremental validation. In this mode, only the changed property
+     * is validated on value changes with {@link Validator#validateProperty(Object, String, Class[])}
+     * and only the error state of its editor is updated. The whole bean (including
+     * class level constraints) is validated only if class level constraints
+     * depend on the changed property, see {@link #setClassLevelValidationDependencies(String...)}.
+     * <p>
+     * Handy for large forms with many constraints, where validating the whole
+     * bean on each keystroke is expensive.
+     * </p>
+     *
+     * @param incrementalValidation true to enable the incremental mode
+     */
+    public void setIncrementalValidation(boolean incrementalValidation) {
+        this.incrementalValidation = incrementalValidation;
+    }
+
+    /**
+     * Defines the properties that class level constraints depend on. In
+     * {@link #setIncrementalValidation(boolean) incremental mode}, changes to
+     * these properties cause a validation of the whole bean. If not set,
+     * and the bean has class level constraints, all changes cause a full
+     * validation.
+     *
+     * @param properties the properties the class level constraints depend on
+     */
+    public void setClassLevelValidationDependencies(String... properties) {
+        this.classLevelValidationDependencies = Set.of(properties);
+    }
+
     public Class<?>[] getValidationGroups() {
         return validationGroups;
     }
@@ -244,26 +320,24 @@ public abstract class BeanValidationForm<T> extends Composite<Div> {
         }
     }
 
-    protected Validator getValidator() {
-        if (validator == null) {
-            Configuration<?> configuration = Validation.byDefaultProvider().configure();
-            MessageInterpolator defaultMessageInterpolator = configuration.getDefaultMessageInterpolator();
-            ValidatorFactory factory = configuration
-                    .messageInterpolator(new MessageInterpolator() {
-                        @Override
-                        public String interpolate(String messageTemplate, Context context) {
-                            // Override the locale to come from the form (~ UI), instead of JVM default
-                            return defaultMessageInterpolator.interpolate(messageTemplate, context, getLocale());
-                        }
-
-                        @Override
-                        public String interpolate(String messageTemplate, Context context, Locale locale) {
-                            return defaultMessageInterpolator.interpolate(messageTemplate, context, locale);
-                        }
-                    }).buildValidatorFactory();
-            validator = factory.getValidator();
+    protected Set<ConstraintViolation<T>> doPropertyValidation(T object, String property) {
+        Class<?>[] groups = getValidationGroups();
+        if (groups != null) {
+            return getValidator().validateProperty(object, property, groups);
+        } else {
+            return getValidator().validateProperty(object, property);
         }
-        return validator;
+    }
+
+    /**
+     * Returns the validator used by the form. By default, a shared validator
+     * from {@link ValidatorCache} is used, that reports messages in the locale
+     * of the form.
+     *
+     * @return the validator
+     */
+    protected Validator getValidator() {
+        return ValidatorCache.getValidator(getLocale());
     }
 
     /**
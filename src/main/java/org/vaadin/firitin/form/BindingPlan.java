@@ -0,0 +1,532 @@
+package org.vaadin.firitin.form;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.BasicBeanDescription;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.googlecode.gentyref.GenericTypeReflector;
+import com.vaadin.flow.component.HasValue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An application wide "compiled" binding plan for a bean or record type,
+ * used by {@link FormBinder}.
+ * <p>
+ * Jackson introspection is done only once per type and the property
+ * accessors, setters and record constructors are compiled to
+ * {@link MethodHandle}s. New binders for the same type reuse the plan, so
+ * constructing forms and moving values between the bean and the editors
+ * don't need to go through the reflection API on every call. The editor
+ * fields of container classes (like forms) are resolved once per editor
+ * class in the same manner.
+ * </p>
+ * <p>
+ * If the type is annotated with {@link GenerateBinder} and the accessor
+ * table has been generated at compile time, the generated accessors are
+ * used instead of method handles.
+ * </p>
+ * <p>
+ * Plans are stored with {@link ClassValue}s, so they don't prevent
+ * unloading classes, e.g. in case of a redeploy.
+ * </p>
+ *
+ * @param <T> the bean/record type
+ */
+public final class BindingPlan<T> {
+
+    // Helper "Jack" to do introspection
+    private static final ObjectMapper jack = new ObjectMapper();
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private static final ClassValue<BindingPlan<?>> plans = new ClassValue<>() {
+        @Override
+        protected BindingPlan<?> computeValue(Class<?> type) {
+            JavaType javaType = jack.getTypeFactory().constructType(type);
+            return new BindingPlan<>((BasicBeanDescription) jack.getSerializationConfig().introspect(javaType));
+        }
+    };
+
+    private static final ClassValue<Optional<GeneratedAccessors<?>>> generatedAccessors = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedAccessors<?>> computeValue(Class<?> type) {
+            String name = type.getName().replace('$', '_') + GeneratedAccessors.CLASS_NAME_SUFFIX;
+            try {
+                Class<?> accessorsClass = Class.forName(name, true, type.getClassLoader());
+                return Optional.of((GeneratedAccessors<?>) accessorsClass.getDeclaredConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                // Not generated, the normal case
+                return Optional.empty();
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                Logger.getLogger(BindingPlan.class.getName()).log(Level.WARNING,
+                        "Failed to load generated accessors " + name + ", falling back to reflection", e);
+                return Optional.empty();
+            }
+        }
+    };
+
+    private static final ClassValue<List<EditorField>> editorFields = new ClassValue<>() {
+        @Override
+        protected List<EditorField> computeValue(Class<?> editorClass) {
+            List<EditorField> fields = new ArrayList<>();
+            for (Field f : editorClass.getDeclaredFields()) {
+                // TODO, figure out other naming strategies
+                // TODO, inspect the class hierarchy to some known core component
+                if (HasValue.class.isAssignableFrom(f.getType())) {
+                    fields.add(new EditorField(f.getName(), f, compileFieldReader(f)));
+                }
+            }
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    private static final ClassValue<Class<?>> editorValueTypes = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> editorClass) {
+            Type fieldValueType = GenericTypeReflector.getTypeParameter(
+                    editorClass,
+                    HasValue.class.getTypeParameters()[1]);
+            return GenericTypeReflector.erase(fieldValueType);
+        }
+    };
+
+    private final BasicBeanDescription bbd;
+    private final boolean recordType;
+    private final Set<String> reportedUnboundProperties = ConcurrentHashMap.newKeySet();
+    private final Map<String, Property> properties = new LinkedHashMap<>();
+    private final List<Property> propertyList;
+    private final GeneratedAccessors<T> generated;
+    private final MethodHandle constructor;
+    private final int constructorParameterCount;
+    // plan property index -> generated constructor parameter index
+    private final int[] generatedArgumentOrder;
+
+    @SuppressWarnings("unchecked")
+    private BindingPlan(BasicBeanDescription bbd) {
+        this.bbd = bbd;
+        this.recordType = bbd.isRecordType();
+        this.generated = (GeneratedAccessors<T>) generatedAccessors(bbd.getBeanClass());
+        for (BeanPropertyDefinition definition : bbd.findProperties()) {
+            properties.put(definition.getName(), new Property(definition, recordType, generated));
+        }
+        propertyList = List.copyOf(properties.values());
+        generatedArgumentOrder = resolveGeneratedArgumentOrder();
+        if (generatedArgumentOrder != null) {
+            constructorParameterCount = generatedArgumentOrder.length;
+            constructor = null;
+        } else if (recordType && !bbd.getConstructors().isEmpty()) {
+            AnnotatedConstructor annotatedConstructor = bbd.getConstructors().get(0);
+            constructorParameterCount = annotatedConstructor.getParameterCount();
+            constructor = compileConstructor(annotatedConstructor);
+        } else if (!recordType) {
+            AnnotatedConstructor defaultConstructor = bbd.findDefaultConstructor();
+            constructorParameterCount = 0;
+            constructor = defaultConstructor == null ? null : compileConstructor(defaultConstructor);
+        } else {
+            constructorParameterCount = 0;
+            constructor = null;
+        }
+    }
+
+    /**
+     * Returns the shared binding plan for the given type.
+     *
+     * @param type the bean or record type
+     * @param <T>  the bean or record type
+     * @return the binding plan, computed on the first call for the type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BindingPlan<T> of(Class<T> type) {
+        return (BindingPlan<T>) plans.get(type);
+    }
+
+    /**
+     * Creates a new, non-shared, binding plan for the given bean description.
+     * Used for semi-manual wiring when the bean description is built by
+     * the developer.
+     *
+     * @param bbd the bean description
+     * @param <T> the bean or record type
+     * @return a new binding plan
+     */
+    public static <T> BindingPlan<T> of(BasicBeanDescription bbd) {
+        return new BindingPlan<>(bbd);
+    }
+
+    /**
+     * Returns the accessor table generated at compile time for the given type,
+     * see {@link GenerateBinder}.
+     *
+     * @param type the bean or record type
+     * @param <T>  the bean or record type
+     * @return the generated accessors or null if not available
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GeneratedAccessors<T> generatedAccessors(Class<T> type) {
+        return (GeneratedAccessors<T>) generatedAccessors.get(type).orElse(null);
+    }
+
+    /**
+     * Returns the fields of the given editor class (like a form) that
+     * are of type {@link HasValue} and thus candidates for binding.
+     *
+     * @param editorClass the class containing the editor fields
+     * @return the editor fields declared by the class
+     */
+    public static List<EditorField> editorFields(Class<?> editorClass) {
+        return editorFields.get(editorClass);
+    }
+
+    /**
+     * Resolves the value type of the given {@link HasValue} implementation,
+     * cached per editor class.
+     *
+     * @param editorClass the editor class
+     * @return the (erased) value type of the editor
+     */
+    public static Class<?> editorValueType(Class<?> editorClass) {
+        return editorValueTypes.get(editorClass);
+    }
+
+    /**
+     * Used to report properties without an editor only once per type, instead
+     * of each time a value is bound.
+     *
+     * @param property the property without an editor
+     * @return true if this is the first report for the property
+     */
+    boolean isFirstUnboundReport(String property) {
+        return reportedUnboundProperties.add(property);
+    }
+
+    public BasicBeanDescription getBeanDescription() {
+        return bbd;
+    }
+
+    public boolean isRecordType() {
+        return recordType;
+    }
+
+    /**
+     * @return the properties of the type, in the order reported by Jackson
+     */
+    public List<Property> getProperties() {
+        return propertyList;
+    }
+
+    /**
+     * @param name the property name
+     * @return the property, or null if there is no such property
+     */
+    public Property getProperty(String name) {
+        return properties.get(name);
+    }
+
+    /**
+     * Resolves the compiled property for the given definition. If the
+     * definition is not part of this plan (e.g. created by the developer for
+     * semi-manual binding), a new, non-shared, compiled property is created.
+     *
+     * @param definition the property definition
+     * @return the compiled property
+     */
+    public Property resolve(BeanPropertyDefinition definition) {
+        Property property = properties.get(definition.getName());
+        if (property != null && property.definition == definition) {
+            return property;
+        }
+        return new Property(definition, recordType, generated);
+    }
+
+    /**
+     * Instantiates a new bean using the default constructor.
+     *
+     * @return a new instance of the bean
+     */
+    @SuppressWarnings("unchecked")
+    public T instantiate() {
+        if (generatedArgumentOrder != null && !recordType) {
+            return generated.newInstance(new Object[0]);
+        }
+        if (constructor == null || recordType) {
+            return (T) bbd.instantiateBean(true);
+        }
+        try {
+            return (T) constructor.invoke(new Object[0]);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Constructs a new record instance using the canonical constructor.
+     *
+     * @param args the constructor arguments
+     * @return a new record instance
+     */
+    @SuppressWarnings("unchecked")
+    public T construct(Object[] args) {
+        if (generatedArgumentOrder != null) {
+            Object[] generatedArgs = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                generatedArgs[generatedArgumentOrder[i]] = args[i];
+            }
+            return generated.newInstance(generatedArgs);
+        }
+        try {
+            if (constructor == null) {
+                AnnotatedConstructor annotatedConstructor = bbd.getConstructors().get(0);
+                annotatedConstructor.fixAccess(true);
+                return (T) annotatedConstructor.call(args);
+            }
+            return (T) constructor.invoke(args);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public int getConstructorParameterCount() {
+        return constructorParameterCount;
+    }
+
+    /**
+     * Maps the property order of this plan to the parameter order of the
+     * generated constructor, null if the generated constructor can't be used.
+     */
+    private int[] resolveGeneratedArgumentOrder() {
+        if (generated == null || generated.getConstructorParameters() == null) {
+            return null;
+        }
+        List<String> parameters = generated.getConstructorParameters();
+        if (!recordType) {
+            return parameters.isEmpty() ? new int[0] : null;
+        }
+        if (parameters.size() != propertyList.size()) {
+            return null;
+        }
+        int[] order = new int[parameters.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = parameters.indexOf(propertyList.get(i).getName());
+            if (order[i] < 0) {
+                return null;
+            }
+        }
+        return order;
+    }
+
+    private static MethodHandle compileConstructor(AnnotatedConstructor annotatedConstructor) {
+        try {
+            Constructor<?> c = annotatedConstructor.getAnnotated();
+            c.setAccessible(true);
+            return lookup.unreflectConstructor(c)
+                    .asSpreader(Object[].class, c.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (RuntimeException | IllegalAccessException e) {
+            // e.g. module restrictions, fall back to Jackson's reflection based calls
+            return null;
+        }
+    }
+
+    private static MethodHandle compileFieldReader(Field f) {
+        try {
+            f.setAccessible(true);
+            return lookup.unreflectGetter(f)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (RuntimeException | IllegalAccessException e) {
+            // reported only if the field actually matches a bound property
+            return null;
+        }
+    }
+
+    /**
+     * A bean/record property with compiled accessors.
+     */
+    public static final class Property {
+
+        private final BeanPropertyDefinition definition;
+        private final AnnotatedMember reader;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Function<Object, Object> generatedGetter;
+        private final BiConsumer<Object, Object> generatedSetter;
+        private Boolean required;
+
+        @SuppressWarnings("unchecked")
+        Property(BeanPropertyDefinition definition, boolean recordType, GeneratedAccessors<?> generated) {
+            this.definition = definition;
+            // Records are read via the "accessor" (field or accessor method),
+            // mutable beans via getter
+            this.reader = recordType ? definition.getAccessor() : definition.getGetter();
+            this.generatedGetter = generated == null ? null
+                    : (Function<Object, Object>) generated.getGetters().get(definition.getName());
+            this.generatedSetter = generated == null ? null
+                    : (BiConsumer<Object, Object>) generated.getSetters().get(definition.getName());
+            if (generatedGetter == null && definition.getAccessor() != null) {
+                definition.getAccessor().fixAccess(true);
+            }
+            this.getter = generatedGetter == null ? compileReader(reader) : null;
+            this.setter = generatedSetter == null ? compileSetter(definition.getSetter()) : null;
+        }
+
+        public BeanPropertyDefinition getDefinition() {
+            return definition;
+        }
+
+        public String getName() {
+            return definition.getName();
+        }
+
+        /**
+         * Tells whether the property is required, based on primitive type
+         * and Bean Validation annotations, see {@link FormBinder#isRequired(BeanPropertyDefinition)}.
+         * The annotation lookup is done only once per property.
+         *
+         * @return true if the property is required
+         */
+        public boolean isRequired() {
+            Boolean r = required;
+            if (r == null) {
+                // racy single check is fine, the result is always the same
+                r = FormBinder.isRequired(definition);
+                required = r;
+            }
+            return r;
+        }
+
+        /**
+         * Reads the value of this property from the given bean.
+         *
+         * @param bean the bean or record
+         * @return the property value
+         */
+        public Object getValue(Object bean) {
+            try {
+                if (generatedGetter != null) {
+                    return generatedGetter.apply(bean);
+                }
+                if (getter != null) {
+                    return (Object) getter.invokeExact(bean);
+                }
+                return reader.getValue(bean);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Writes the value of this property to the given bean.
+         *
+         * @param bean  the bean
+         * @param value the new property value
+         */
+        public void setValue(Object bean, Object value) {
+            try {
+                if (generatedSetter != null) {
+                    generatedSetter.accept(bean, value);
+                } else if (setter != null) {
+                    setter.invokeExact(bean, value);
+                } else {
+                    definition.getSetter().callOnWith(bean, value);
+                }
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private static MethodHandle compileReader(AnnotatedMember member) {
+            try {
+                MethodHandle mh;
+                if (member instanceof AnnotatedMethod am) {
+                    Method m = am.getAnnotated();
+                    m.setAccessible(true);
+                    mh = lookup.unreflect(m);
+                } else if (member instanceof AnnotatedField af) {
+                    Field f = af.getAnnotated();
+                    f.setAccessible(true);
+                    mh = lookup.unreflectGetter(f);
+                } else {
+                    return null;
+                }
+                return mh.asType(MethodType.methodType(Object.class, Object.class));
+            } catch (RuntimeException | IllegalAccessException e) {
+                // e.g. module restrictions, fall back to Jackson's reflection based calls
+                return null;
+            }
+        }
+
+        private static MethodHandle compileSetter(AnnotatedMethod setter) {
+            if (setter == null) {
+                return null;
+            }
+            try {
+                Method m = setter.getAnnotated();
+                m.setAccessible(true);
+                return lookup.unreflect(m)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (RuntimeException | IllegalAccessException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A {@link HasValue} typed field in an editor class (like a form),
+     * with a compiled reader.
+     *
+     * @param name   the name of the field, used to match the bean property
+     * @param field  the field
+     * @param reader the compiled field reader, null if the field is not accessible
+     */
+    public record EditorField(String name, Field field, MethodHandle reader) {
+
+        /**
+         * Reads the editor component from the given editor object.
+         *
+         * @param editorObject the object containing the field
+         * @return the editor
+         */
+        public HasValue getEditor(Object editorObject) {
+            try {
+                if (reader == null) {
+                    return (HasValue) field.get(editorObject);
+                }
+                return (HasValue) (Object) reader.invokeExact(editorObject);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -1,15 +1,13 @@
 package org.vaadin.firitin.form;
 
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyName;
-import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
 import com.fasterxml.jackson.databind.introspect.BasicBeanDescription;
 import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
-import com.googlecode.gentyref.GenericTypeReflector;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.HasComponents;
 import com.vaadin.flow.component.HasValue;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.shared.HasValidationProperties;
 import com.vaadin.flow.data.binder.Result;
@@ -19,23 +17,32 @@ import com.vaadin.flow.data.converter.DefaultConverterFactory;
 import com.vaadin.flow.data.value.HasValueChangeMode;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.Registration;
+import com.vaadin.flow.shared.communication.PushMode;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -64,20 +71,39 @@ import java.util.logging.Logger;
  */
 public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T> {
 
-    // Helper "Jack" to do introspection
-    private static final ObjectMapper jack = new ObjectMapper();
     private final Class<T> tClass;
+    private final BindingPlan<T> plan;
     private final BasicBeanDescription bbd;
 
     Map<BeanPropertyDefinition, HasValue> bpdToEditorField = new HashMap<>();
     Map<String, HasValue> nameToEditorField = new LinkedHashMap<>();
+    Map<String, BindingPlan.Property> nameToProperty = new HashMap<>();
     Map<String, Converter> nameToConverter = new HashMap<>();
+    Map<String, Converter> nameToDefaultConverter = new HashMap<>();
+    private Map<String, InputConversion> nameToInputConversion = new HashMap<>();
+    private Map<String, ValueContext> nameToValueContext = new HashMap<>();
     HashMap<String, String> propertyToInputValueConversionError = new HashMap<>();
     List<Registration> registrations = new ArrayList<>();
     private Set<Component> errorMsgs = new HashSet<>();
     private T valueObject;
     private List<ValueChangeListener> valueChangeListeners;
     private boolean constraintViolations;
+    private Set<String> invalidProperties = new HashSet<>();
+    private Map<String, List<AsyncValidator<T>>> asyncValidators;
+    private Map<String, PendingAsyncValidation> pendingAsyncValidations = new HashMap<>();
+    private Map<String, String> asyncViolations = new HashMap<>();
+    private Executor asyncValidationExecutor;
+    // the UI in which polling was enabled for the pending async validations
+    private UI asyncValidationPollingUI;
+    private List<String> propertyIndexToName = new ArrayList<>();
+    private Map<String, Integer> propertyNameToIndex = new HashMap<>();
+    private BitSet changedProperties = new BitSet();
+    // true while the editors are updated from a new value object
+    private boolean settingValue;
+    private boolean coalesceValueChangeEvents;
+    private BitSet pendingEventProperties = new BitSet();
+    private boolean pendingEventFromClient;
+    private boolean eventFlushScheduled;
     private HasComponents classLevelViolationDisplay;
     private boolean ignoreServerOriginatedChanges = true;
     private SerializableFunction<String, Component> classLevelValidationViolationComponentProvider = new ParagraphWithErrorStyleClassLevelValidationViolationComponentProvider();
@@ -93,34 +119,11 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
         if (containerComponents[0] instanceof HasComponents hc) {
             classLevelViolationDisplay = hc;
         }
-        JavaType javaType = jack.getTypeFactory().constructType(tClass);
-        this.bbd = (BasicBeanDescription) jack.getSerializationConfig().introspect(javaType);
+        this.plan = BindingPlan.of(tClass);
+        this.bbd = plan.getBeanDescription();
 
         for (Component formComponent : containerComponents) {
-            Class<? extends Component> aClass = formComponent.getClass();
-            Field[] declaredFields = aClass.getDeclaredFields();
-            for (Field f : declaredFields) {
-                // TODO, figure out other naming strategies
-                // TODO, inspect the class hierarchy to some known core component
-                Class<?> type = f.getType();
-                if (HasValue.class.isAssignableFrom(type)) {
-                    BeanPropertyDefinition property = bbd.findProperty(new PropertyName(f.getName()));
-
-                    if (property != null) {
-                        property.getAccessor().fixAccess(true);
-                        try {
-                            f.setAccessible(true);
-                            HasValue hasValue = (HasValue) f.get(formComponent);
-                            if (isRequired(property)) {
-                                hasValue.setRequiredIndicatorVisible(true);
-                            }
-                            bindProperty(property, hasValue);
-                        } catch (IllegalAccessException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                }
-            }
+            bindEditorFields(formComponent);
         }
     }
 
@@ -137,27 +140,9 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
         if (editorObject instanceof HasComponents hc) {
             classLevelViolationDisplay = hc;
         }
-        JavaType javaType = jack.getTypeFactory().constructType(tClass);
-        this.bbd = (BasicBeanDescription) jack.getSerializationConfig().introspect(javaType);
-        Class<?> aClass = editorObject.getClass();
-        Field[] declaredFields = aClass.getDeclaredFields();
-        for (Field f : declaredFields) {
-            Class<?> type = f.getType();
-            if (HasValue.class.isAssignableFrom(type)) {
-                BeanPropertyDefinition property = bbd.findProperty(new PropertyName(f.getName()));
-
-                if (property != null) {
-                    property.getAccessor().fixAccess(true);
-                    try {
-                        f.setAccessible(true);
-                        HasValue hasValue = (HasValue) f.get(editorObject);
-                        bindProperty(property, hasValue);
-                    } catch (IllegalAccessException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            }
-        }
+        this.plan = BindingPlan.of(tClass);
+        this.bbd = plan.getBeanDescription();
+        bindEditorFields(editorObject);
     }
 
     /**
@@ -168,12 +153,12 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
      */
     public FormBinder(Class<T> tClass, Map<String, HasValue> propertyNameToEditor) {
         this.tClass = tClass;
-        JavaType javaType = jack.getTypeFactory().constructType(tClass);
-        this.bbd = (BasicBeanDescription) jack.getSerializationConfig().introspect(javaType);
-        for (BeanPropertyDefinition property : bbd.findProperties()) {
-            if (propertyNameToEditor.containsKey(property.getName())) {
-                HasValue hasValue = propertyNameToEditor.get(property.getName());
-                bindProperty(property, hasValue);
+        this.plan = BindingPlan.of(tClass);
+        this.bbd = plan.getBeanDescription();
+        for (BindingPlan.Property property : plan.getProperties()) {
+            HasValue hasValue = propertyNameToEditor.get(property.getName());
+            if (hasValue != null) {
+                bindProperty(property.getDefinition(), hasValue);
             }
         }
     }
@@ -184,6 +169,7 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
      */
     public FormBinder(BasicBeanDescription bdd) {
         this.bbd = bdd;
+        this.plan = BindingPlan.of(bdd);
         this.tClass = (Class<T>) bbd.getType().getRawClass();
     }
 
@@ -200,6 +186,15 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
         setValue(dto);
     }
 
+    private void bindEditorFields(Object editorObject) {
+        for (BindingPlan.EditorField f : BindingPlan.editorFields(editorObject.getClass())) {
+            BindingPlan.Property property = plan.getProperty(f.name());
+            if (property != null) {
+                bindProperty(property.getDefinition(), f.getEditor(editorObject));
+            }
+        }
+    }
+
     protected static boolean isRequired(BeanPropertyDefinition property) {
         if (property.getPrimaryType().isPrimitive() && property.getRawPrimaryType() != boolean.class) {
             return true;
@@ -222,7 +217,7 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
      * @param hasValue the editor field to bind
      */
     public void bindProperty(BeanPropertyDefinition property, HasValue hasValue) {
-        if (isRequired(property)) {
+        if (plan.resolve(property).isRequired()) {
             hasValue.setRequiredIndicatorVisible(true);
         }
         bpdToEditorField.put(property, hasValue);
@@ -231,36 +226,112 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
     }
 
     protected void configureEditor(BeanPropertyDefinition property, HasValue hasValue) {
+        BindingPlan.Property accessor = plan.resolve(property);
+        nameToProperty.put(property.getName(), accessor);
 
         if (hasValue instanceof HasValueChangeMode hvcm) {
             hvcm.setValueChangeMode(ValueChangeMode.LAZY);
         }
         if (!isImmutable()) {
-            ValueContext ctx = new ValueContext((Component) hasValue);
             // Mutate
             registrations.add(hasValue.addValueChangeListener(e -> {
                 boolean dropServerOriginateEvent = !e.isFromClient() && ignoreServerOriginatedChanges;
                 if (!dropServerOriginateEvent) {
                     Object value = e.getValue();
-                    value = convertInputValue(value, property, ctx);
-                    try {
-                        property.getSetter().callOnWith(valueObject, value);
-                    } catch (Exception ex) {
-                        throw new RuntimeException(ex);
-                    }
+                    // looked up per change, the cached context is replaced if the locale changes
+                    value = convertInputValue(value, property, valueContext(property.getName(), hasValue));
+                    accessor.setValue(valueObject, value);
                 }
             }));
         }
+        // bit index for the change tracking
+        int propertyIndex = propertyNameToIndex.computeIfAbsent(property.getName(), name -> {
+            propertyIndexToName.add(name);
+            return propertyIndexToName.size() - 1;
+        });
         registrations.add(hasValue.addValueChangeListener(e -> {
+            if (!settingValue && (e.isFromClient() || !ignoreServerOriginatedChanges)) {
+                changedProperties.set(propertyIndex);
+                if (asyncValidators != null) {
+                    validateAsync(property.getName());
+                }
+            }
             if (valueChangeListeners != null) {
-                var event = new FormBinderValueChangeEvent<T>(FormBinder.this, e.isFromClient());
-                for (ValueChangeListener vcl : valueChangeListeners.toArray(new ValueChangeListener[0])) {
-                    vcl.valueChanged(event);
+                if (!coalesceValueChangeEvents || !queueValueChangeEvent(propertyIndex, e.isFromClient())) {
+                    fireValueChange(new FormBinderValueChangeEvent<T>(FormBinder.this, e.isFromClient(), property.getName()));
                 }
             }
         }));
     }
 
+    private void fireValueChange(FormBinderValueChangeEvent<T> event) {
+        // CopyOnWriteArrayList, safe even if listeners remove themselves
+        for (ValueChangeListener vcl : valueChangeListeners) {
+            vcl.valueChanged(event);
+        }
+    }
+
+    /**
+     * Queues the change to be reported in a single event just before the
+     * response is sent to the client.
+     *
+     * @return false if there is no UI to flush the changes, in which case
+     * the event should be fired directly
+     */
+    private boolean queueValueChangeEvent(int propertyIndex, boolean fromClient) {
+        if (!eventFlushScheduled) {
+            UI ui = UI.getCurrent();
+            if (ui == null) {
+                return false;
+            }
+            eventFlushScheduled = true;
+            // UI as the node, so the flush happens even if the form gets detached
+            ui.beforeClientResponse(ui, ctx -> fireCoalescedValueChange());
+        }
+        pendingEventProperties.set(propertyIndex);
+        pendingEventFromClient |= fromClient;
+        return true;
+    }
+
+    private void fireCoalescedValueChange() {
+        eventFlushScheduled = false;
+        if (pendingEventProperties.isEmpty() || valueChangeListeners == null) {
+            return;
+        }
+        Set<String> properties = new LinkedHashSet<>();
+        pendingEventProperties.stream().forEach(i -> properties.add(propertyIndexToName.get(i)));
+        boolean fromClient = pendingEventFromClient;
+        pendingEventProperties.clear();
+        pendingEventFromClient = false;
+        fireValueChange(new FormBinderValueChangeEvent<>(this, fromClient, properties));
+    }
+
+    public boolean isCoalesceValueChangeEvents() {
+        return coalesceValueChangeEvents;
+    }
+
+    /**
+     * Enables coalescing of value change events. In this mode, all property
+     * changes during a single request are collected and reported with a single
+     * {@link FormBinderValueChangeEvent} just before the response is sent
+     * to the client. The changed properties are available via
+     * {@link FormBinderValueChangeEvent#getProperties()}.
+     * <p>
+     * Handy if the listeners do expensive work and a single round trip can
+     * contain changes to several fields, e.g. on browser autofill.
+     * </p>
+     *
+     * @param coalesceValueChangeEvents true to fire one event per request
+     */
+    public void setCoalesceValueChangeEvents(boolean coalesceValueChangeEvents) {
+        this.coalesceValueChangeEvents = coalesceValueChangeEvents;
+    }
+
+    public FormBinder<T> withCoalesceValueChangeEvents(boolean coalesceValueChangeEvents) {
+        setCoalesceValueChangeEvents(coalesceValueChangeEvents);
+        return this;
+    }
+
     private Object convertInputValue(Object value, BeanPropertyDefinition property, ValueContext ctx) {
         Converter converter = nameToConverter.get(property.getName());
         if (converter != null) {
@@ -272,15 +343,16 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
             } catch (Throwable ex) {
                 value = handleInputConversionError(property, ctx, ex.getMessage());
             }
-        } else {
+        } else if (value != null) {
             Class<?> presentationValueClass = value.getClass();
-            if (!property.getPrimaryType().isTypeOrSuperTypeOf(presentationValueClass)) {
-                // Go and check Vaadin's default converters
-                converter = DefaultConverterFactory.INSTANCE.newInstance(
-                        presentationValueClass, property.getPrimaryType().getRawClass()
-                ).orElseThrow(() -> new RuntimeException("No converter found for for " + presentationValueClass + " -> " + property.getPrimaryType()));
+            InputConversion conversion = nameToInputConversion.get(property.getName());
+            if (conversion == null || conversion.presentationType() != presentationValueClass) {
+                conversion = resolveInputConversion(property, presentationValueClass);
+                nameToInputConversion.put(property.getName(), conversion);
+            }
+            if (conversion.converter() != null) {
                 try {
-                    value = converter.convertToModel(value, ctx).getOrThrow(em -> new IllegalArgumentException("Conversion failed" + em));
+                    value = conversion.converter().convertToModel(value, ctx).getOrThrow(em -> new IllegalArgumentException("Conversion failed" + em));
                 } catch (Throwable e) {
                     throw new RuntimeException("Conversion failed for " + property.getPrimaryType().getRawClass().getName());
                 }
@@ -289,6 +361,44 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
         return value;
     }
 
+    private static InputConversion resolveInputConversion(BeanPropertyDefinition property, Class<?> presentationValueClass) {
+        if (property.getPrimaryType().isTypeOrSuperTypeOf(presentationValueClass)) {
+            // no conversion needed
+            return new InputConversion(presentationValueClass, null);
+        }
+        // Go and check Vaadin's default converters
+        Converter converter = DefaultConverterFactory.INSTANCE.newInstance(
+                presentationValueClass, property.getPrimaryType().getRawClass()
+        ).orElseThrow(() -> new RuntimeException("No converter found for for " + presentationValueClass + " -> " + property.getPrimaryType()));
+        return new InputConversion(presentationValueClass, converter);
+    }
+
+    /**
+     * Returns the value context for the editor of the given property. The
+     * context is created once per bound editor and reused for all
+     * conversions, until the locale of the editor changes (the context
+     * captures the locale when created).
+     */
+    private ValueContext valueContext(String property, HasValue hasValue) {
+        ValueContext ctx = nameToValueContext.get(property);
+        if (ctx == null || ctx.getComponent().orElse(null) != hasValue
+                || !Objects.equals(ctx.getLocale().orElse(null), ((Component) hasValue).getLocale())) {
+            ctx = new ValueContext((Component) hasValue);
+            nameToValueContext.put(property, ctx);
+        }
+        return ctx;
+    }
+
+    /**
+     * Resolved input conversion for a property, cached for the latest
+     * presentation value type.
+     *
+     * @param presentationType the type of the presentation value
+     * @param converter        the converter, null if no conversion is needed
+     */
+    private record InputConversion(Class<?> presentationType, Converter converter) {
+    }
+
     /**
      * Handles input conversion error. By default, the error message saved and
      * set to the field.
@@ -334,36 +444,51 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
     @Override
     public void setValue(T valueObject) {
         this.valueObject = valueObject;
-        for (BeanPropertyDefinition pd : bbd.findProperties()) {
+        // the results for the previous value object are no more relevant
+        cancelAsyncValidations();
+        // the editor changes are not user changes, nor need async validation
+        settingValue = true;
+        try {
+            updateEditors();
+        } finally {
+            settingValue = false;
+        }
+        changedProperties.clear();
+    }
+
+    private void updateEditors() {
+        for (BindingPlan.Property property : plan.getProperties()) {
+            BeanPropertyDefinition pd = property.getDefinition();
             HasValue hasValue = bpdToEditorField.get(pd);
             if (hasValue != null) {
-                Object pValue;
-                if (isImmutable()) {
-                    pValue = pd.getAccessor().getValue(valueObject);
-                } else {
-                    pValue = pd.getGetter().getValue(valueObject);
-                }
+                Object pValue = nameToProperty.get(pd.getName()).getValue(valueObject);
 
                 if (pValue == null) {
-                    hasValue.clear();
+                    // Only touch the editor if there is a real change, avoids
+                    // redundant state changes to the client
+                    if (!hasValue.isEmpty()) {
+                        hasValue.clear();
+                    }
                 } else {
                     Converter converter = nameToConverter.get(pd.getName());
+                    if (converter == null) {
+                        // resolved on an earlier call, after a ClassCastException
+                        converter = nameToDefaultConverter.get(pd.getName());
+                    }
                     if (converter != null) {
-                        pValue = converter.convertToPresentation(pValue, new ValueContext((Component) hasValue));
+                        pValue = converter.convertToPresentation(pValue, valueContext(pd.getName(), hasValue));
                     }
                     try {
-                        hasValue.setValue(pValue);
+                        setPresentationValue(hasValue, pValue);
                     } catch (ClassCastException ex) {
                         // Try checking out still the Vaadin's default conversions
                         try {
-                            Type fieldValueType = GenericTypeReflector.getTypeParameter(
-                                    hasValue.getClass(),
-                                    HasValue.class.getTypeParameters()[1]);
-                            Class<?> fieldValueClazz = GenericTypeReflector.erase(fieldValueType);
+                            Class<?> fieldValueClazz = BindingPlan.editorValueType(hasValue.getClass());
                             converter = DefaultConverterFactory.INSTANCE.newInstance(fieldValueClazz, pd.getPrimaryType().getRawClass())
                                     .orElseThrow(() -> new RuntimeException("No converter found for " + pd.getPrimaryType().getRawClass().getName()));
-                            Object converted = converter.convertToPresentation(pValue, new ValueContext((Component) hasValue));
-                            hasValue.setValue(converted);
+                            Object converted = converter.convertToPresentation(pValue, valueContext(pd.getName(), hasValue));
+                            setPresentationValue(hasValue, converted);
+                            nameToDefaultConverter.put(pd.getName(), converter);
                         } catch (Exception e) {
                             new RuntimeException("Conversion failed for " + pd.getPrimaryType().getRawClass().getName(), e);
                         }
@@ -372,12 +497,88 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
             } else {
                 // TODO figure out if non-bound fields needs to be handled some how, probably not
                 // Or maybe should for records?
-                Logger.getLogger(FormBinder.class.getName()).log(Level.WARNING, "No editor field for property " + pd.getName());
+                if (plan.isFirstUnboundReport(pd.getName())) {
+                    Logger.getLogger(FormBinder.class.getName()).log(Level.WARNING, "No editor field for property " + pd.getName());
+                }
             }
 
         }
     }
 
+    private static void setPresentationValue(HasValue hasValue, Object presentationValue) {
+        if (!Objects.equals(hasValue.getValue(), presentationValue)) {
+            hasValue.setValue(presentationValue);
+        }
+    }
+
+    /**
+     * @return true if some bound property has been changed via its editor
+     * since the last {@link #setValue(Object)} (or {@link #clearChanges()}) call.
+     */
+    public boolean hasChanges() {
+        return !changedProperties.isEmpty();
+    }
+
+    /**
+     * @return the names of the properties changed via their editors since the
+     * last {@link #setValue(Object)} (or {@link #clearChanges()}) call, in binding order.
+     */
+    public Set<String> getChangedProperties() {
+        Set<String> changed = new LinkedHashSet<>();
+        changedProperties.stream().forEach(i -> changed.add(propertyIndexToName.get(i)));
+        return changed;
+    }
+
+    /**
+     * Returns the current values of the changed properties. Handy to send
+     * partial updates to the backend, instead of merging the whole entity.
+     *
+     * @return property name - current model value, for changed properties only
+     */
+    public Map<String, Object> getChangedValues() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (changedProperties.isEmpty()) {
+            return changes;
+        }
+        T value = getValue();
+        changedProperties.stream().forEach(i -> {
+            String name = propertyIndexToName.get(i);
+            changes.put(name, nameToProperty.get(name).getValue(value));
+        });
+        return changes;
+    }
+
+    /**
+     * Exports the changed properties as a JSON Merge Patch (RFC 7386)
+     * document.
+     *
+     * @param objectMapper the object mapper used to serialize the values,
+     *                     should be configured similarly as on the receiving side
+     * @return the changes as JSON Merge Patch
+     */
+    public ObjectNode getChangesAsMergePatch(ObjectMapper objectMapper) {
+        ObjectNode patch = objectMapper.createObjectNode();
+        getChangedValues().forEach((name, value) -> patch.set(name, objectMapper.valueToTree(value)));
+        return patch;
+    }
+
+    /**
+     * Exports the changed properties as a JSON Merge Patch (RFC 7386)
+     * document, using an object mapper with modules found from the classpath.
+     *
+     * @return the changes as JSON Merge Patch
+     */
+    public ObjectNode getChangesAsMergePatch() {
+        return getChangesAsMergePatch(MergePatchMapper.mapper);
+    }
+
+    /**
+     * Forgets the tracked changes, e.g. after the changes have been persisted.
+     */
+    public void clearChanges() {
+        changedProperties.clear();
+    }
+
     public FormBinder<T> withValue(T value) {
         setValue(value);
         return this;
@@ -386,7 +587,7 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
     @Override
     public Registration addValueChangeListener(ValueChangeListener<? super FormBinderValueChangeEvent<T>> listener) {
         if (valueChangeListeners == null) {
-            valueChangeListeners = new ArrayList<>();
+            valueChangeListeners = new CopyOnWriteArrayList<>();
         }
         valueChangeListeners.add(listener);
         return () -> valueChangeListeners.remove(listener);
@@ -426,14 +627,13 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
     }
 
     protected T constructRecord() {
-        AnnotatedConstructor annotatedConstructor = bbd.getConstructors().get(0);
-        List<BeanPropertyDefinition> properties = bbd.findProperties();
-        Object[] args = new Object[annotatedConstructor.getParameterCount()];
-        for (int i = 0; i < annotatedConstructor.getParameterCount(); i++) {
-            BeanPropertyDefinition definition = properties.get(i);
+        List<BindingPlan.Property> properties = plan.getProperties();
+        Object[] args = new Object[plan.getConstructorParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            BeanPropertyDefinition definition = properties.get(i).getDefinition();
             HasValue hasValue = bpdToEditorField.get(definition);
             Object value = hasValue.getValue();
-            value = convertInputValue(value, definition, new ValueContext((Component) hasValue));
+            value = convertInputValue(value, definition, valueContext(definition.getName(), hasValue));
             args[i] = value;
             Class<?> rawType = definition.getGetter().getRawType();
             boolean primitive = definition.getGetter().getRawType().isPrimitive();
@@ -441,24 +641,15 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
                 throw new NullPointerException("Can't construct " + bbd.getType().getRawClass().getName() + ", parameter value " + i + " is null!");
             }
         }
-        try {
-            annotatedConstructor.fixAccess(true);
-            return (T) annotatedConstructor.call(args);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return plan.construct(args);
     }
 
     protected T constructPojo() {
-        T o = (T) bbd.instantiateBean(true);
+        T o = plan.instantiate();
         bpdToEditorField.forEach((bpd, hasValue) -> {
-            try {
-                Object value = hasValue.getValue();
-                value = convertInputValue(value, bpd, new ValueContext((Component) hasValue));
-                bpd.getSetter().callOnWith(o, value);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            Object value = hasValue.getValue();
+            value = convertInputValue(value, bpd, valueContext(bpd.getName(), hasValue));
+            nameToProperty.get(bpd.getName()).setValue(o, value);
         });
         return o;
     }
@@ -481,11 +672,47 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
                     hvp.setInvalid(true);
                     hvp.setErrorMessage(cv.getMessage());
                     nonReported.remove(cv);
+                    invalidProperties.add(property);
                 }
             }
         });
         handleClassLevelValidations(nonReported);
         constraintViolations = !violations.isEmpty();
+        applyAsyncViolations();
+    }
+
+    /**
+     * Updates the constraint violations of a single property, without
+     * touching the error state of other editors or the class level
+     * violations. Handy with {@link jakarta.validation.Validator#validateProperty(Object, String, Class[])}
+     * when only one property has changed.
+     * <p>
+     * The editor of the property is expected to be of type
+     * {@link HasValidationProperties}, use {@link #setConstraintViolations(Set)}
+     * otherwise.
+     * </p>
+     *
+     * @param property   the property whose violations are updated
+     * @param violations the current constraint violations of the property
+     */
+    public void setPropertyConstraintViolations(String property, Set<ConstraintViolation<T>> violations) {
+        HasValue hasValue = nameToEditorField.get(property);
+        if (!(hasValue instanceof HasValidationProperties hvp)) {
+            throw new IllegalArgumentException("No editor supporting validation errors bound for " + property);
+        }
+        invalidProperties.remove(property);
+        hvp.setInvalid(false);
+        hvp.setErrorMessage(null);
+        for (ConstraintViolation<T> cv : violations) {
+            if (property.equals(cv.getPropertyPath().toString())) {
+                hvp.setInvalid(true);
+                hvp.setErrorMessage(cv.getMessage());
+                invalidProperties.add(property);
+                break;
+            }
+        }
+        constraintViolations = !invalidProperties.isEmpty();
+        applyAsyncViolations();
     }
 
     /**
@@ -537,17 +764,248 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
         HashMap<String, String> nonReported = new HashMap<>();
         nonReported.putAll(propertyToViolation);
         propertyToViolation.forEach((property, msg) -> {
-            if (!property.isEmpty()) {
-                HasValue hasValue = nameToEditorField.get(property);
-                if (hasValue instanceof HasValidationProperties hvp) {
-                    hvp.setInvalid(true);
-                    hvp.setErrorMessage(msg);
-                    nonReported.remove(property);
-                }
+            if (!property.isEmpty() && showViolation(property, msg)) {
+                nonReported.remove(property);
+                invalidProperties.add(property);
             }
         });
         handleClassLevelValidations(nonReported);
         constraintViolations = !propertyToViolation.isEmpty();
+        applyAsyncViolations();
+    }
+
+    private boolean showViolation(String property, String msg) {
+        HasValue hasValue = nameToEditorField.get(property);
+        if (hasValue instanceof HasValidationProperties hvp) {
+            hvp.setInvalid(true);
+            hvp.setErrorMessage(msg);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds an asynchronous validator for the given property. The validator is
+     * started when the editor of the property changes (or when {@link #validateAsync()}
+     * is called) and possible previous, still running, validation of the
+     * property is cancelled. The result is applied to the editor in the UI
+     * thread, in the same way as with {@link #setRawConstraintViolations(Map)},
+     * and kept displayed even if other violations are reported meanwhile.
+     * <p>
+     * If push is not enabled, polling is enabled as long as there are
+     * pending asynchronous validations in the binder. Without a UI (e.g. in
+     * unit tests), the result is applied with the lock of the current
+     * session, or if there is no session either, directly in the thread
+     * completing the validation.
+     * </p>
+     *
+     * @param property  the property to validate
+     * @param validator the validator
+     * @return a registration to remove the validator
+     */
+    public Registration addAsyncValidator(String property, AsyncValidator<T> validator) {
+        if (asyncValidators == null) {
+            asyncValidators = new HashMap<>();
+        }
+        asyncValidators.computeIfAbsent(property, p -> new ArrayList<>()).add(validator);
+        return () -> asyncValidators.get(property).remove(validator);
+    }
+
+    /**
+     * Sets the executor passed to {@link AsyncValidator}s. By default, virtual
+     * threads are used when the JVM supports them, otherwise the common fork
+     * join pool.
+     *
+     * @param executor the executor used for asynchronous validation
+     */
+    public void setAsyncValidationExecutor(Executor executor) {
+        this.asyncValidationExecutor = executor;
+    }
+
+    public Executor getAsyncValidationExecutor() {
+        if (asyncValidationExecutor == null) {
+            return DefaultAsyncValidationExecutor.executor;
+        }
+        return asyncValidationExecutor;
+    }
+
+    /**
+     * Starts all asynchronous validators, e.g. after a new value has been
+     * set to the binder.
+     */
+    public void validateAsync() {
+        if (asyncValidators != null) {
+            asyncValidators.keySet().forEach(this::validateAsync);
+        }
+    }
+
+    private void validateAsync(String property) {
+        List<AsyncValidator<T>> validators = asyncValidators.get(property);
+        if (validators == null || validators.isEmpty()) {
+            return;
+        }
+        PendingAsyncValidation stale = pendingAsyncValidations.remove(property);
+        if (stale != null) {
+            stale.cancel();
+        }
+        // The old result is no more relevant, the new result replaces it
+        asyncViolations.remove(property);
+
+        T value = getValue();
+        Executor executor = getAsyncValidationExecutor();
+        List<CompletableFuture<String>> tasks = validators.stream()
+                .map(v -> v.validate(value, executor)).toList();
+        CompletableFuture<String> result = CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+                .thenApply(v -> tasks.stream().map(CompletableFuture::join)
+                        .filter(Objects::nonNull).findFirst().orElse(null));
+        PendingAsyncValidation pending = new PendingAsyncValidation(result, tasks);
+        pendingAsyncValidations.put(property, pending);
+
+        UI ui = UI.getCurrent();
+        VaadinSession session = ui == null ? VaadinSession.getCurrent() : null;
+        if (ui != null) {
+            ensurePushOrPolling(ui);
+        }
+        result.whenComplete((msg, throwable) -> {
+            if (pending.isCancelled()) {
+                // stale, no need to touch the UI
+                return;
+            }
+            Command command = () -> asyncValidationCompleted(ui, property, pending, msg, throwable);
+            if (ui != null) {
+                ui.access(command);
+            } else if (session != null) {
+                session.access(command);
+            } else {
+                command.execute();
+            }
+        });
+    }
+
+    private void asyncValidationCompleted(UI ui, String property, PendingAsyncValidation pending, String msg, Throwable throwable) {
+        if (pendingAsyncValidations.get(property) != pending) {
+            // stale, the field has been changed again or the binder unbound
+            return;
+        }
+        pendingAsyncValidations.remove(property);
+        releasePushOrPolling();
+        if (throwable != null) {
+            Logger.getLogger(FormBinder.class.getName()).log(Level.WARNING, "Async validation failed for " + property, throwable);
+        } else if (msg == null) {
+            if (!invalidProperties.contains(property)
+                    && nameToEditorField.get(property) instanceof HasValidationProperties hvp) {
+                hvp.setInvalid(false);
+                hvp.setErrorMessage(null);
+            }
+        } else {
+            asyncViolations.put(property, msg);
+            applyAsyncViolations();
+        }
+        if (ui != null && ui.getPushConfiguration().getPushMode() == PushMode.MANUAL) {
+            ui.push();
+        }
+    }
+
+    /**
+     * Enables polling, if push is not enabled, for the pending asynchronous
+     * validations. One guard per binder covers all pending validations, so
+     * restarting a validation never turns polling off.
+     */
+    private void ensurePushOrPolling(UI ui) {
+        if (asyncValidationPollingUI == null
+                && ui.getPushConfiguration().getPushMode() == PushMode.DISABLED
+                && ui.getPollInterval() == -1) {
+            ui.setPollInterval(1000);
+            asyncValidationPollingUI = ui;
+        }
+    }
+
+    private void releasePushOrPolling() {
+        if (asyncValidationPollingUI != null && pendingAsyncValidations.isEmpty()) {
+            asyncValidationPollingUI.setPollInterval(-1);
+            asyncValidationPollingUI = null;
+        }
+    }
+
+    /**
+     * Cancels the pending asynchronous validations and removes the displayed
+     * asynchronous violations.
+     */
+    private void cancelAsyncValidations() {
+        pendingAsyncValidations.values().forEach(PendingAsyncValidation::cancel);
+        pendingAsyncValidations.clear();
+        releasePushOrPolling();
+        asyncViolations.keySet().forEach(property -> {
+            if (!invalidProperties.contains(property)
+                    && nameToEditorField.get(property) instanceof HasValidationProperties hvp) {
+                hvp.setInvalid(false);
+                hvp.setErrorMessage(null);
+            }
+        });
+        asyncViolations.clear();
+    }
+
+    private void applyAsyncViolations() {
+        asyncViolations.forEach((property, msg) -> {
+            if (!invalidProperties.contains(property)) {
+                showViolation(property, msg);
+            }
+        });
+    }
+
+    /**
+     * @return true if there are asynchronous validations still running
+     */
+    public boolean hasPendingAsyncValidations() {
+        return !pendingAsyncValidations.isEmpty();
+    }
+
+    /**
+     * @return the violations reported by {@link AsyncValidator}s, property-message
+     */
+    public Map<String, String> getAsyncViolations() {
+        return Collections.unmodifiableMap(asyncViolations);
+    }
+
+    private static final class PendingAsyncValidation {
+        private final CompletableFuture<String> result;
+        private final List<CompletableFuture<String>> tasks;
+        // read in the thread completing the validation
+        private volatile boolean cancelled;
+
+        PendingAsyncValidation(CompletableFuture<String> result, List<CompletableFuture<String>> tasks) {
+            this.result = result;
+            this.tasks = tasks;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        void cancel() {
+            cancelled = true;
+            tasks.forEach(t -> t.cancel(true));
+            result.cancel(true);
+        }
+    }
+
+    private static class MergePatchMapper {
+        private static final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    }
+
+    // Lazily initialized, virtual threads if the JVM supports them (the library targets Java 17)
+    private static class DefaultAsyncValidationExecutor {
+        private static final Executor executor;
+
+        static {
+            Executor e;
+            try {
+                e = (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException ex) {
+                e = ForkJoinPool.commonPool();
+            }
+            executor = e;
+        }
     }
 
     private void handleClassLevelValidations(HashMap<String, String> nonReported) {
@@ -570,6 +1028,7 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
      * Removes all validation errors from bound fields and {@link #getClassLevelViolationDisplay()}.
      */
     public void clearValidationErrors() {
+        invalidProperties.clear();
         nameToEditorField.values().forEach(hv -> {
             if (hv instanceof HasValidationProperties hvp) {
                 hvp.setInvalid(false);
@@ -591,6 +1050,7 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
      */
     public void setConverter(String property, Converter<?, ?> strToDt) {
         nameToConverter.put(property, strToDt);
+        nameToDefaultConverter.remove(property);
     }
 
     /**
@@ -618,7 +1078,8 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
      */
     public boolean isValid() {
         return getInputConversionErrors().isEmpty()
-                && errorMsgs.isEmpty() && !constraintViolations;
+                && errorMsgs.isEmpty() && !constraintViolations
+                && asyncViolations.isEmpty();
     }
 
     /**
@@ -638,6 +1099,8 @@ public class FormBinder<T> implements HasValue<FormBinderValueChangeEvent<T>, T>
     public void unBind() {
         registrations.forEach(Registration::remove);
         registrations.clear();
+        cancelAsyncValidations();
+        pendingEventProperties.clear();
         this.valueObject = null;
     }
 
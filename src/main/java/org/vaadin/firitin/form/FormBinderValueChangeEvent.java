@@ -2,17 +2,55 @@ package org.vaadin.firitin.form;
 
 import com.vaadin.flow.component.HasValue;
 
+import java.util.Collections;
+import java.util.Set;
+
 public class FormBinderValueChangeEvent<T> implements HasValue.ValueChangeEvent<T> {
 
     public FormBinderValueChangeEvent(FormBinder<T> source, boolean fromClient) {
+        this(source, fromClient, Collections.emptySet());
+    }
+
+    public FormBinderValueChangeEvent(FormBinder<T> source, boolean fromClient, String property) {
+        this(source, fromClient, property == null ? Collections.emptySet() : Collections.singleton(property));
+    }
+
+    /**
+     * Creates an event covering several property changes, e.g. a coalesced
+     * event, see {@link FormBinder#setCoalesceValueChangeEvents(boolean)}.
+     *
+     * @param source     the binder
+     * @param fromClient true if any of the changes came from the client
+     * @param properties the names of the changed properties
+     */
+    public FormBinderValueChangeEvent(FormBinder<T> source, boolean fromClient, Set<String> properties) {
         this.source = source;
         this.fromClient = fromClient;
+        this.properties = Collections.unmodifiableSet(properties);
     }
 
     private FormBinder<T> source;
 
     private boolean fromClient;
 
+    private Set<String> properties;
+
+    /**
+     * @return the name of the property whose editor fired the change, or null
+     * if not known or if the event covers several properties
+     */
+    public String getProperty() {
+        return properties.size() == 1 ? properties.iterator().next() : null;
+    }
+
+    /**
+     * @return the names of the properties changed, in case of a coalesced
+     * event possibly several, empty if not known
+     */
+    public Set<String> getProperties() {
+        return properties;
+    }
+
     @Override
     public HasValue getHasValue() {
         return source;
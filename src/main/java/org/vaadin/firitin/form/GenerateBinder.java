@@ -0,0 +1,34 @@
+package org.vaadin.firitin.form;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record or bean for which {@link GenerateBinderProcessor} should
+ * generate a reflection free accessor table (a {@link GeneratedAccessors}
+ * implementation named like <code>Person_Accessors</code> in the same
+ * package).
+ * <p>
+ * {@link FormBinder} (via {@link BindingPlan}) and
+ * {@link org.vaadin.firitin.components.grid.VGrid} pick up the generated
+ * table automatically when it is present and otherwise fall back to
+ * reflection. The processor is optional, it needs to be enabled in the
+ * compiler configuration, e.g. with Maven:
+ * </p>
+ * <pre>
+ * &lt;plugin&gt;
+ *     &lt;artifactId&gt;maven-compiler-plugin&lt;/artifactId&gt;
+ *     &lt;configuration&gt;
+ *         &lt;annotationProcessors&gt;
+ *             &lt;annotationProcessor&gt;org.vaadin.firitin.form.GenerateBinderProcessor&lt;/annotationProcessor&gt;
+ *         &lt;/annotationProcessors&gt;
+ *     &lt;/configuration&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateBinder {
+}
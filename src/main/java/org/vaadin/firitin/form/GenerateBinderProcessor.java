@@ -0,0 +1,279 @@
+package org.vaadin.firitin.form;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An annotation processor generating {@link GeneratedAccessors} for types
+ * annotated with {@link GenerateBinder}. See {@link GenerateBinder} for how to
+ * enable it.
+ * <p>
+ * For records, the record components are used as properties. For beans, the
+ * properties are resolved like Jackson does by default: public getters
+ * (<code>is</code> prefix only for primitive booleans), setters and public
+ * fields. Only public setters are generated, the generated class can't call
+ * e.g. protected setters inherited from another package. {@link BindingPlan}
+ * falls back to reflection for properties missing from the table.
+ * </p>
+ */
+@SupportedAnnotationTypes("org.vaadin.firitin.form.GenerateBinder")
+public class GenerateBinderProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (!(element instanceof TypeElement type)
+                        || (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD)) {
+                    error(element, "@GenerateBinder is only supported for classes and records");
+                    continue;
+                }
+                if (!isAccessible(type)) {
+                    error(element, "@GenerateBinder types must not be private or inside private types");
+                    continue;
+                }
+                try {
+                    generate(type);
+                } catch (IOException e) {
+                    error(element, "Failed to generate accessors: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_') + GeneratedAccessors.CLASS_NAME_SUFFIX;
+        String typeName = erasure(type.asType());
+
+        Map<String, String> propertyTypes = new LinkedHashMap<>();
+        Map<String, String> getters = new LinkedHashMap<>();
+        Map<String, String> setters = new LinkedHashMap<>();
+        List<String> constructorParameters = new ArrayList<>();
+        String constructorArgs = null;
+
+        if (type.getKind() == ElementKind.RECORD) {
+            List<String> args = new ArrayList<>();
+            for (RecordComponentElement rc : type.getRecordComponents()) {
+                String name = rc.getSimpleName().toString();
+                propertyTypes.put(name, erasure(rc.asType()));
+                getters.put(name, "bean." + rc.getAccessor().getSimpleName() + "()");
+                args.add("(" + erasure(rc.asType()) + ") args[" + args.size() + "]");
+                constructorParameters.add(name);
+            }
+            constructorArgs = String.join(", ", args);
+        } else {
+            for (Element member : processingEnv.getElementUtils().getAllMembers(type)) {
+                if (member.getModifiers().contains(Modifier.STATIC)
+                        || member.getModifiers().contains(Modifier.PRIVATE)) {
+                    continue;
+                }
+                if (member instanceof ExecutableElement method && method.getKind() == ElementKind.METHOD) {
+                    String methodName = method.getSimpleName().toString();
+                    TypeMirror returnType = method.getReturnType();
+                    if (method.getParameters().isEmpty() && method.getModifiers().contains(Modifier.PUBLIC)
+                            && returnType.getKind() != TypeKind.VOID && !methodName.equals("getClass")) {
+                        String name = null;
+                        if (methodName.startsWith("get") && methodName.length() > 3) {
+                            name = manglePropertyName(methodName.substring(3));
+                        } else if (methodName.startsWith("is") && methodName.length() > 2
+                                && returnType.getKind() == TypeKind.BOOLEAN) {
+                            name = manglePropertyName(methodName.substring(2));
+                        }
+                        if (name != null) {
+                            propertyTypes.put(name, erasure(returnType));
+                            getters.put(name, "bean." + methodName + "()");
+                        }
+                    } else if (method.getParameters().size() == 1 && method.getModifiers().contains(Modifier.PUBLIC)
+                            && methodName.startsWith("set") && methodName.length() > 3) {
+                        // non-public setters might be inherited from another package, not callable from the generated class
+                        String name = manglePropertyName(methodName.substring(3));
+                        TypeMirror parameterType = method.getParameters().get(0).asType();
+                        propertyTypes.putIfAbsent(name, erasure(parameterType));
+                        setters.put(name, "bean." + methodName + "((" + erasure(parameterType) + ") value)");
+                    }
+                } else if (member instanceof VariableElement field && field.getKind() == ElementKind.FIELD
+                        && field.getModifiers().contains(Modifier.PUBLIC)) {
+                    String name = field.getSimpleName().toString();
+                    propertyTypes.putIfAbsent(name, erasure(field.asType()));
+                    getters.putIfAbsent(name, "bean." + name);
+                    if (!field.getModifiers().contains(Modifier.FINAL)) {
+                        setters.putIfAbsent(name, "bean." + name + " = (" + erasure(field.asType()) + ") value");
+                    }
+                }
+            }
+            if (hasNoArgsConstructor(type)) {
+                constructorArgs = "";
+            }
+        }
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type);
+        try (Writer w = file.openWriter()) {
+            if (!packageName.isEmpty()) {
+                w.write("package " + packageName + ";\n\n");
+            }
+            w.write("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n");
+            w.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            w.write("public final class " + simpleName + " implements " + GeneratedAccessors.class.getName() + "<" + typeName + "> {\n\n");
+
+            w.write("    private static final java.util.Map<String, Class<?>> PROPERTY_TYPES;\n");
+            w.write("    private static final java.util.Map<String, java.util.function.Function<" + typeName + ", Object>> GETTERS;\n");
+            w.write("    private static final java.util.Map<String, java.util.function.BiConsumer<" + typeName + ", Object>> SETTERS;\n\n");
+            w.write("    static {\n");
+            w.write("        java.util.Map<String, Class<?>> types = new java.util.LinkedHashMap<>();\n");
+            for (Map.Entry<String, String> e : propertyTypes.entrySet()) {
+                w.write("        types.put(\"" + e.getKey() + "\", " + e.getValue() + ".class);\n");
+            }
+            w.write("        PROPERTY_TYPES = java.util.Collections.unmodifiableMap(types);\n");
+            w.write("        java.util.Map<String, java.util.function.Function<" + typeName + ", Object>> getters = new java.util.HashMap<>();\n");
+            for (Map.Entry<String, String> e : getters.entrySet()) {
+                w.write("        getters.put(\"" + e.getKey() + "\", bean -> " + e.getValue() + ");\n");
+            }
+            w.write("        GETTERS = java.util.Collections.unmodifiableMap(getters);\n");
+            w.write("        java.util.Map<String, java.util.function.BiConsumer<" + typeName + ", Object>> setters = new java.util.HashMap<>();\n");
+            for (Map.Entry<String, String> e : setters.entrySet()) {
+                w.write("        setters.put(\"" + e.getKey() + "\", (bean, value) -> " + e.getValue() + ");\n");
+            }
+            w.write("        SETTERS = java.util.Collections.unmodifiableMap(setters);\n");
+            w.write("    }\n\n");
+
+            w.write("    @Override\n");
+            w.write("    public java.util.Map<String, Class<?>> getPropertyTypes() {\n");
+            w.write("        return PROPERTY_TYPES;\n");
+            w.write("    }\n\n");
+            w.write("    @Override\n");
+            w.write("    public java.util.Map<String, java.util.function.Function<" + typeName + ", Object>> getGetters() {\n");
+            w.write("        return GETTERS;\n");
+            w.write("    }\n\n");
+            w.write("    @Override\n");
+            w.write("    public java.util.Map<String, java.util.function.BiConsumer<" + typeName + ", Object>> getSetters() {\n");
+            w.write("        return SETTERS;\n");
+            w.write("    }\n\n");
+            w.write("    @Override\n");
+            w.write("    public java.util.List<String> getConstructorParameters() {\n");
+            if (constructorArgs == null) {
+                w.write("        return null;\n");
+            } else {
+                List<String> quoted = constructorParameters.stream().map(p -> "\"" + p + "\"").toList();
+                w.write("        return java.util.List.of(" + String.join(", ", quoted) + ");\n");
+            }
+            w.write("    }\n\n");
+            w.write("    @Override\n");
+            w.write("    public " + typeName + " newInstance(Object[] args) {\n");
+            if (constructorArgs == null) {
+                w.write("        throw new UnsupportedOperationException(\"" + typeName + " can't be instantiated by generated code\");\n");
+            } else {
+                w.write("        return new " + typeName + "(" + constructorArgs + ");\n");
+            }
+            w.write("    }\n");
+            w.write("}\n");
+        }
+    }
+
+    private boolean hasNoArgsConstructor(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)
+                || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))) {
+            return false;
+        }
+        for (Element e : type.getEnclosedElements()) {
+            if (e.getKind() == ElementKind.CONSTRUCTOR
+                    && ((ExecutableElement) e).getParameters().isEmpty()
+                    && !e.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAccessible(TypeElement type) {
+        Element e = type;
+        while (e != null && !(e instanceof PackageElement)) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (e instanceof TypeElement te && te.getNestingKind() == NestingKind.LOCAL) {
+                return false;
+            }
+            e = e.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * The source name of the erased type. Built from the type element, as the
+     * string form of a type mirror contains its TYPE_USE annotations, e.g.
+     * <code>@jakarta.validation.constraints.NotNull java.lang.String</code>,
+     * which is not valid in a class literal or a cast.
+     */
+    private String erasure(TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erasure = types.erasure(type);
+        if (erasure.getKind() == TypeKind.ARRAY) {
+            return erasure(((ArrayType) erasure).getComponentType()) + "[]";
+        }
+        if (erasure.getKind().isPrimitive()) {
+            return types.getPrimitiveType(erasure.getKind()).toString();
+        }
+        if (erasure.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) types.asElement(erasure)).getQualifiedName().toString();
+        }
+        return erasure.toString();
+    }
+
+    /**
+     * Same as Jackson's default naming: leading upper case characters are
+     * lower cased, e.g. "URL" -> "url", "FirstName" -> "firstName".
+     */
+    static String manglePropertyName(String basename) {
+        StringBuilder sb = null;
+        for (int i = 0; i < basename.length(); i++) {
+            char upper = basename.charAt(i);
+            char lower = Character.toLowerCase(upper);
+            if (upper == lower) {
+                break;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(basename);
+            }
+            sb.setCharAt(i, lower);
+        }
+        return sb == null ? basename : sb.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
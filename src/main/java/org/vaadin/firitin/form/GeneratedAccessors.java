@@ -0,0 +1,57 @@
+package org.vaadin.firitin.form;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A typed accessor table for a record or bean, generated at compile time by
+ * {@link GenerateBinderProcessor} for types annotated with
+ * {@link GenerateBinder}. Found at runtime with
+ * {@link BindingPlan#generatedAccessors(Class)}.
+ * <p>
+ * The accessors are plain method calls, so no reflection is needed when
+ * reading or writing property values.
+ * </p>
+ *
+ * @param <T> the record or bean type
+ */
+public interface GeneratedAccessors<T> {
+
+    /**
+     * Suffix of the generated class name, e.g. <code>Person_Accessors</code>.
+     */
+    String CLASS_NAME_SUFFIX = "_Accessors";
+
+    /**
+     * @return the (erased) types of the properties, in declaration order
+     */
+    Map<String, Class<?>> getPropertyTypes();
+
+    /**
+     * @return the property readers, keyed by property name
+     */
+    Map<String, Function<T, Object>> getGetters();
+
+    /**
+     * @return the property writers, keyed by property name, empty for records
+     */
+    Map<String, BiConsumer<T, Object>> getSetters();
+
+    /**
+     * @return the names of the parameters accepted by
+     * {@link #newInstance(Object[])}, the record components for records and an
+     * empty list for beans with a no-args constructor, or null if the type
+     * can't be instantiated by the generated code
+     */
+    List<String> getConstructorParameters();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param args the constructor arguments, in the order of {@link #getConstructorParameters()}
+     * @return the new instance
+     */
+    T newInstance(Object[] args);
+}
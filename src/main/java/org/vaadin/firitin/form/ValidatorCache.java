@@ -0,0 +1,87 @@
+package org.vaadin.firitin.form;
+
+import jakarta.validation.Configuration;
+import jakarta.validation.MessageInterpolator;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An application wide cache for Bean Validation {@link ValidatorFactory} and
+ * {@link Validator} instances used by {@link BeanValidationForm}.
+ * <p>
+ * Building the factory is one of the most expensive operations in e.g.
+ * Hibernate Validator, so only one factory is built lazily and shared by
+ * all forms. Validators are thread safe and are cached per {@link Locale}
+ * used for message interpolation. The validators share the constraint
+ * metadata of the factory.
+ * </p>
+ */
+public final class ValidatorCache {
+
+    private static final Map<Locale, Validator> localeToValidator = new ConcurrentHashMap<>();
+
+    private ValidatorCache() {
+    }
+
+    /**
+     * @return the shared validator factory, built with the default provider
+     */
+    public static ValidatorFactory getValidatorFactory() {
+        return FactoryHolder.factory;
+    }
+
+    /**
+     * Returns a shared validator that interpolates messages with the given
+     * locale, instead of the JVM default.
+     *
+     * @param locale the locale used for messages, JVM default if null
+     * @return the validator
+     */
+    public static Validator getValidator(Locale locale) {
+        if (locale == null) {
+            locale = Locale.getDefault();
+        }
+        return localeToValidator.computeIfAbsent(locale, l -> FactoryHolder.factory.usingContext()
+                .messageInterpolator(new LocaleOverridingMessageInterpolator(FactoryHolder.defaultMessageInterpolator, l))
+                .getValidator());
+    }
+
+    /**
+     * Clears the cached validators. The factory itself is kept.
+     */
+    public static void clear() {
+        localeToValidator.clear();
+    }
+
+    // Lazy initialization via holder, the factory is only built when first needed
+    private static class FactoryHolder {
+        private static final MessageInterpolator defaultMessageInterpolator;
+        private static final ValidatorFactory factory;
+
+        static {
+            Configuration<?> configuration = Validation.byDefaultProvider().configure();
+            defaultMessageInterpolator = configuration.getDefaultMessageInterpolator();
+            factory = configuration.buildValidatorFactory();
+        }
+    }
+
+    private record LocaleOverridingMessageInterpolator(MessageInterpolator delegate, Locale locale)
+            implements MessageInterpolator {
+
+        @Override
+        public String interpolate(String messageTemplate, Context context) {
+            // Override the locale to come from the form (~ UI), instead of JVM default
+            return delegate.interpolate(messageTemplate, context, locale);
+        }
+
+        @Override
+        public String interpolate(String messageTemplate, Context context, Locale locale) {
+            return delegate.interpolate(messageTemplate, context, locale);
+        }
+    }
+}
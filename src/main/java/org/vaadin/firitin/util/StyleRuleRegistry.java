@@ -0,0 +1,103 @@
+package org.vaadin.firitin.util;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Function;
+
+/**
+ * A per UI registry of dynamically injected CSS rules, used e.g. by
+ * {@link org.vaadin.firitin.components.grid.VGrid} for row and column
+ * styles. Each rule is injected to the document only once per UI, no matter
+ * how many components use it.
+ * <p>
+ * Rules are interned by their declarations, identical declarations get the
+ * same key (usable as a class or part name).
+ * </p>
+ */
+public class StyleRuleRegistry implements Serializable {
+
+    // computed rule -> key used in this UI, the rules already injected to this UI
+    private final Map<Rule, String> ruleToKey = new HashMap<>();
+    private final Set<String> usedKeys = new HashSet<>();
+    private final UI ui;
+
+    /**
+     * A computed style rule.
+     *
+     * @param key  the generated key, usable as class or part name
+     * @param body the declarations formatted as CSS rule body
+     */
+    public record Rule(String key, String body) implements Serializable {
+    }
+
+    private StyleRuleRegistry(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * @param ui the UI
+     * @return the registry for the given UI
+     */
+    public static StyleRuleRegistry of(UI ui) {
+        StyleRuleRegistry registry = ComponentUtil.getData(ui, StyleRuleRegistry.class);
+        if (registry == null) {
+            registry = new StyleRuleRegistry(ui);
+            ComponentUtil.setData(ui, StyleRuleRegistry.class, registry);
+        }
+        return registry;
+    }
+
+    /**
+     * @return the registry for the current UI
+     */
+    public static StyleRuleRegistry get() {
+        return of(UI.getCurrent());
+    }
+
+    /**
+     * Computes the rule (key and body) for the given declarations.
+     *
+     * @param declarations the CSS declarations (property -> value), in the order they are written
+     * @param keyPrefix    the prefix for the generated key
+     * @return the computed rule
+     */
+    public static Rule computeRule(SortedMap<String, String> declarations, String keyPrefix) {
+        StringBuilder body = new StringBuilder();
+        declarations.forEach((k, v) -> body.append(k).append(": ").append(v).append(";"));
+        String css = body.toString();
+        return new Rule(keyPrefix + Integer.toHexString(css.hashCode()), css);
+    }
+
+    /**
+     * Registers the given rule to this UI. The CSS is injected only the first
+     * time the rule is registered. If two different rules happen to get the
+     * same key, the latter gets a unique key.
+     *
+     * @param rule       the rule
+     * @param cssFactory creates the actual CSS to inject, from the (possibly
+     *                   de-duplicated) key and the body
+     * @return the key to use for the rule in this UI
+     */
+    public String register(Rule rule, Function<Rule, String> cssFactory) {
+        String key = ruleToKey.get(rule);
+        if (key != null) {
+            return key;
+        }
+        key = rule.key();
+        for (int i = 1; usedKeys.contains(key); i++) {
+            // hash collision with different declarations
+            key = rule.key() + "-" + i;
+        }
+        ruleToKey.put(rule, key);
+        usedKeys.add(key);
+        VStyleUtil.inject(ui, cssFactory.apply(new Rule(key, rule.body())));
+        return key;
+    }
+}
@@ -12,7 +12,17 @@ import java.util.stream.Stream;
 public final class VStyleUtil {
 
     public static void inject(String css) {
-        UI.getCurrent().getElement().executeJs("""
+        inject(UI.getCurrent(), css);
+    }
+
+    /**
+     * Injects given CSS to the head element of the given UI.
+     *
+     * @param ui  the UI
+     * @param css the CSS to inject
+     */
+    public static void inject(UI ui, String css) {
+        ui.getElement().executeJs("""
             var style = document.createElement('style');
             style.innerHTML = $0;
             document.head.append(style);
@@ -0,0 +1,45 @@
+package org.vaadin.firitin;
+
+import com.vaadin.flow.component.grid.GridSortOrder;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.router.Route;
+import org.vaadin.firitin.components.grid.PagingGrid;
+import org.vaadin.firitin.testdomain.Person;
+import org.vaadin.firitin.testdomain.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PagingGrid with a slow backend, fetched asynchronously so that the UI
+ * stays responsive. Click pages quickly, only the last one is shown.
+ */
+@Route
+public class AsyncTraditionalPaging extends VerticalLayout {
+
+	public AsyncTraditionalPaging() {
+		final PagingGrid<Person> table = new PagingGrid<>(Person.class);
+
+		table.setAsyncPagingDataProvider((page, pageSize) -> {
+			int start = (int) (page * pageSize);
+			// Read the sort order in the UI thread, before going async
+			List<GridSortOrder<Person>> sortOrder = List.copyOf(table.getSortOrder());
+			return CompletableFuture.supplyAsync(() -> {
+				if (!sortOrder.isEmpty()) {
+					String propertyId = sortOrder.get(0).getSorted().getKey();
+					boolean asc = sortOrder.get(0).getDirection() == SortDirection.ASCENDING;
+					return Service.findAll(start, pageSize, propertyId, asc);
+				}
+				return Service.findAll(start, pageSize);
+			}, CompletableFuture.delayedExecutor(2, TimeUnit.SECONDS));
+		});
+		// Slow count query, the pagination bar is updated once the count is ready
+		table.setTotalResults(CompletableFuture.supplyAsync(() -> 1000L,
+				CompletableFuture.delayedExecutor(5, TimeUnit.SECONDS)));
+
+		add(table);
+	}
+
+}
@@ -84,7 +84,9 @@ public class Grids extends VerticalLayout {
                         style.setColor("blue");
                         style.setBackgroundColor("lightgray");
                     }
-                });
+                },
+                // the style only depends on this key, styler is called once per key value
+                item -> item.getId() % 5 == 0);
         lazyLoaded.setItems(query ->
                 list.subList(
                 query.getOffset(),
@@ -100,6 +102,8 @@ public class Grids extends VerticalLayout {
         // This re-uses the style element for "color: red" and recycle that for both columns, minimal overhead for the implementation
         lazyLoaded.getColumnByKey("lastName").getStyle().set("color", "red");
 
+        // in a real app e.g. a ranked query, so the whole data set doesn't need to be streamed
+        lazyLoaded.setItemIndexProvider((item, query) -> list.indexOf(item));
         lazyLoaded.scrollToItem(somePerson);
         add(lazyLoaded);
 
@@ -1,6 +1,7 @@
 package org.vaadin.firitin;
 
 import org.vaadin.firitin.components.CustomLayout;
+import org.vaadin.firitin.components.grid.VGrid;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Html;
 import com.vaadin.flow.component.button.Button;
@@ -119,6 +120,10 @@ public class HugeGrid extends VerticalLayout {
         b.addThemeVariants(ButtonVariant.LUMO_SMALL);
         b.addClickListener(e -> grid());
         add(b);
+        b = new Button("VGrid with column virtualization (only columns in the viewport are sent)");
+        b.addThemeVariants(ButtonVariant.LUMO_SMALL);
+        b.addClickListener(e -> vgridWithColumnVirtualization());
+        add(b);
         b = new Button("TreeGrid");
         b.addThemeVariants(ButtonVariant.LUMO_SMALL);
         b.addClickListener(e -> treegrid());
@@ -315,6 +320,23 @@ public class HugeGrid extends VerticalLayout {
         reportTime(currentTimeMillis);
     }
 
+    private void vgridWithColumnVirtualization() {
+        long currentTimeMillis = System.currentTimeMillis();
+
+        VGrid<List<String>> grid = new VGrid<>();
+        grid.setColumnVirtualization(true);
+        List<String> firstrow = dataset.get(0);
+        for(int i = 0; i < firstrow.size(); i++) {
+            int finalI = i;
+            grid.addColumn(l  -> l.get(finalI))
+                    .setHeader("Col " + finalI);
+        }
+
+        grid.setItems(dataset);
+        add(grid);
+        reportTime(currentTimeMillis);
+    }
+
     private void treegrid() {
         long currentTimeMillis = System.currentTimeMillis();
 
@@ -0,0 +1,39 @@
+package org.vaadin.firitin;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.Route;
+import org.vaadin.firitin.components.grid.VGrid;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+@Route
+public class LazySelectionView extends VerticalLayout {
+
+    private static final int ROWS = 500_000;
+
+    public record Row(int id, String name) {
+    }
+
+    public LazySelectionView() {
+        // 500k rows, "select all" doesn't load a single one of them
+        VGrid<Row> grid = new VGrid<>(Row.class)
+                .withLazySelection();
+        grid.setItems(query -> IntStream.range(query.getOffset(), Math.min(ROWS, query.getOffset() + query.getLimit()))
+                .mapToObj(i -> new Row(i, "Row " + i)),
+                query -> ROWS);
+
+        Button process = new Button("Process selected", e -> {
+            AtomicLong processed = new AtomicLong();
+            // in a real app e.g. a bulk update per batch
+            grid.getLazySelection().forEachSelectedBatch(1000, batch -> processed.addAndGet(batch.size()));
+            Notification.show("Processed " + processed + " rows");
+        });
+        Button count = new Button("Count selected", e ->
+                Notification.show(grid.getLazySelection().getSelectedCount() + " rows selected"));
+
+        add(grid, process, count);
+    }
+}
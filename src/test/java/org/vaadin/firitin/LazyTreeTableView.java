@@ -0,0 +1,35 @@
+package org.vaadin.firitin;
+
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.Route;
+import org.vaadin.firitin.components.TreeTable;
+
+import java.util.stream.IntStream;
+
+/**
+ * A TreeTable with a billion nodes, only the visible rows are fetched.
+ */
+@Route
+public class LazyTreeTableView extends VerticalLayout {
+
+    private static final int CHILDREN = 1000;
+    private static final int MAX_DEPTH = 3;
+
+    public record Node(String path, int depth) {
+    }
+
+    public LazyTreeTableView() {
+        TreeTable<Node> treeTable = new TreeTable<>();
+        treeTable.addHierarchyColumn(Node::path).setHeader("Node");
+        treeTable.addColumn(Node::depth).setHeader("Depth");
+        // cheap, no need to count children to detect leaves
+        treeTable.setHasChildren(node -> node.depth() < MAX_DEPTH);
+        treeTable.setLazyChildren(
+                (parent, offset, limit) -> IntStream.range(offset, Math.min(CHILDREN, offset + limit))
+                        .mapToObj(i -> parent == null ?
+                                new Node("" + i, 1) :
+                                new Node(parent.path() + "." + i, parent.depth() + 1)),
+                parent -> parent == null || parent.depth() < MAX_DEPTH ? CHILDREN : 0);
+        addAndExpand(treeTable);
+    }
+}
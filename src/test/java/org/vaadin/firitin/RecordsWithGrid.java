@@ -60,6 +60,16 @@ public class RecordsWithGrid extends VerticalLayout {
         adhoc.setItems(new AdHocRecord("Foo", "Bar"));
         add(adhoc);
 
+        // nested property paths, like address.city
+        record Address(String street, String city) {};
+        record Customer(String name, Address address) {};
+        var customers = new VGrid<>(Customer.class, false);
+        customers.setColumns("name", "address.city", "address.street");
+        customers.setItems(
+                new Customer("Alice", new Address("Ruukinkatu 2", "Turku")),
+                new Customer("Bob", new Address("Mannerheimintie 1", "Helsinki"))
+        );
+        add(customers);
     }
 
 }
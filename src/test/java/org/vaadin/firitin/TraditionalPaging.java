@@ -43,6 +43,10 @@ public class TraditionalPaging extends VerticalLayout {
 			return Service.findAll(start, pageSize);
 		});
 
+		// Optional, keep recently visited pages in memory, invalidated on sort
+		// change or explicitly with refresh()
+		table.setPageCacheSize(5);
+
 		// Optional
 		// If you know, or some further long running task can detect the size of
 		// results, it can be defined later:
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.vaadin.firitin.components.Tree;
 import org.vaadin.firitin.components.TreeItem;
@@ -155,6 +157,17 @@ public class TreeExampleView extends VerticalLayout {
 
         add(dudeTree);
 
+        add(new H2("Tree with asynchronously loaded children:"));
+        Tree<Dude> asyncTree = new Tree<>();
+        asyncTree.setItemLabelGenerator(Dude::getFirstName);
+        // children are fetched from a "slow backend" only when a node is
+        // opened, a loading indicator is shown meanwhile
+        asyncTree.setAsyncItems(getRootNodesForPerformanceTesting(),
+                dude -> CompletableFuture.supplyAsync(() -> dude.getSubordinates(),
+                        CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS)),
+                dude -> !dude.getSubordinates().isEmpty());
+        add(asyncTree);
+
     }
 
     Dude community = new Dude("Marcus");
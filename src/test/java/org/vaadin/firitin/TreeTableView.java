@@ -54,6 +54,9 @@ public class TreeTableView extends VerticalLayout {
 
             // Alternative API without lazy loading. Uses more memory, but simpler
             List<Path> rootItems = MyService.rootItems();
+            // Optional, don't list directories just to detect leaves & cache listings
+            treeGrid.setHasChildren(Files::isDirectory);
+            treeGrid.setChildrenCacheSize(1000);
             treeGrid.setRootItems(rootItems, p -> {
                 try {
                     return Files.list(p).toList();
@@ -0,0 +1,129 @@
+package org.vaadin.firitin;
+
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.function.ValueProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.vaadin.firitin.components.grid.SortKeyListDataProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * A rough benchmark comparing the normal in-memory sorting of list backed
+ * grids (comparator calling the value providers for each comparison) to the
+ * precomputed sort keys of {@link SortKeyListDataProvider}. Not a proper JMH
+ * benchmark, but gives an idea of the difference. Numbers are printed to
+ * stdout, only that both produce the same order is asserted.
+ */
+public class VGridSortBenchmark {
+
+    private static final int ITEMS = 200_000;
+    private static final int ROUNDS = 5;
+
+    public record Row(String name, Integer age, Double score) {
+    }
+
+    private static List<Row> rows() {
+        Random random = new Random(0);
+        List<Row> rows = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            rows.add(new Row("Name " + random.nextInt(ITEMS), random.nextInt(100),
+                    random.nextInt(20) == 0 ? null : random.nextDouble()));
+        }
+        return rows;
+    }
+
+    /**
+     * Like the comparators VGrid creates for its columns.
+     */
+    private static <T> SerializableComparator<T> legacyComparator(ValueProvider<T, ?> valueProvider) {
+        return (a, b) -> compareMaybeComparables(valueProvider.apply(a), valueProvider.apply(b));
+    }
+
+    // Same logic as in Grid
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareMaybeComparables(Object a, Object b) {
+        if (a != null && b != null && a.getClass() == b.getClass() && a instanceof Comparable) {
+            return ((Comparable) a).compareTo(b);
+        }
+        if (a == null || b == null) {
+            return a == b ? 0 : (a == null ? 1 : -1);
+        }
+        return Objects.toString(a, "").compareTo(Objects.toString(b, ""));
+    }
+
+    private static List<Row> fetchAll(ListDataProvider<Row> dataProvider, SerializableComparator<Row> inMemorySorting) {
+        Query<Row, SerializablePredicate<Row>> query = new Query<>(0, Integer.MAX_VALUE,
+                Collections.emptyList(), inMemorySorting, null);
+        return dataProvider.fetch(query).toList();
+    }
+
+    private void compare(String title, List<SortKeyListDataProvider.SortKey<Row>> sortKeys) {
+        List<Row> rows = rows();
+        SerializableComparator<Row> inMemorySorting = null;
+        for (SortKeyListDataProvider.SortKey<Row> key : sortKeys) {
+            SerializableComparator<Row> c = legacyComparator(key.keyExtractor());
+            SerializableComparator<Row> directed = key.descending() ? (a, b) -> c.compare(b, a) : c;
+            SerializableComparator<Row> previous = inMemorySorting;
+            inMemorySorting = previous == null ? directed : (a, b) -> {
+                int r = previous.compare(a, b);
+                return r != 0 ? r : directed.compare(a, b);
+            };
+        }
+        ListDataProvider<Row> legacyProvider = new ListDataProvider<>(rows);
+        SortKeyListDataProvider<Row> sortKeyProvider = new SortKeyListDataProvider<>(rows);
+        sortKeyProvider.setSortKeys(sortKeys);
+
+        // warm up both paths, drop the snapshot so that each round really sorts
+        for (int i = 0; i < ROUNDS; i++) {
+            fetchAll(legacyProvider, inMemorySorting);
+            sortKeyProvider.refreshAll();
+            fetchAll(sortKeyProvider, inMemorySorting);
+        }
+
+        long start = System.nanoTime();
+        List<Row> legacyResult = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            legacyResult = fetchAll(legacyProvider, inMemorySorting);
+        }
+        long legacy = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<Row> sortKeyResult = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            sortKeyProvider.refreshAll();
+            sortKeyResult = fetchAll(sortKeyProvider, inMemorySorting);
+        }
+        long precomputed = System.nanoTime() - start;
+
+        Assertions.assertEquals(legacyResult, sortKeyResult);
+        System.out.printf("%s, %d items: %d ms vs %d ms%n", title, ITEMS,
+                legacy / ROUNDS / 1_000_000, precomputed / ROUNDS / 1_000_000);
+    }
+
+    @Test
+    public void sortByInteger() {
+        compare("Sort by Integer, comparator vs precomputed keys",
+                List.of(new SortKeyListDataProvider.SortKey<>(Row::age, false)));
+    }
+
+    @Test
+    public void sortByDoubleWithNullsDescending() {
+        compare("Sort by nullable Double descending, comparator vs precomputed keys",
+                List.of(new SortKeyListDataProvider.SortKey<>(Row::score, true)));
+    }
+
+    @Test
+    public void sortByIntegerAndString() {
+        compare("Sort by Integer and String, comparator vs precomputed keys",
+                List.of(new SortKeyListDataProvider.SortKey<>(Row::age, false),
+                        new SortKeyListDataProvider.SortKey<>(Row::name, true)));
+    }
+}
@@ -0,0 +1,36 @@
+package org.vaadin.firitin;
+
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.router.Route;
+import org.vaadin.firitin.components.orderedlayout.VVerticalLayout;
+import org.vaadin.firitin.fields.ElementCollectionField;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A large ElementCollectionField, only the rows in view have editors.
+ */
+@Route
+public class VirtualizedElementCollectionFieldView extends VVerticalLayout {
+
+    public record LineItem(String product, Integer quantity, Double price, LocalDate delivery) {
+    }
+
+    public VirtualizedElementCollectionFieldView() {
+        List<LineItem> items = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            items.add(new LineItem("Product " + i, i % 10 + 1, i * 1.5, LocalDate.now().plusDays(i % 30)));
+        }
+
+        ElementCollectionField<LineItem> field = new ElementCollectionField<>(LineItem.class)
+                .withVirtualized(true);
+        field.setVirtualViewportHeight("500px");
+        field.setValue(items);
+        field.addValueChangeListener(e -> Notification.show("Items now: " + e.getValue().size()));
+
+        add(new Paragraph("2000 line items, editors are only created for the visible rows."), field);
+    }
+}
@@ -0,0 +1,229 @@
+package org.vaadin.firitin.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class LazyHierarchyTest {
+
+    private final Set<String> open = new HashSet<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final List<String> fetches = new ArrayList<>();
+    private int countCalls;
+
+    /**
+     * 10 root items "r0".."r9", each with 5 children "r0/0".."r0/4" and so
+     * on, three levels deep, unless overridden in counts.
+     */
+    private LazyHierarchy<String> hierarchy() {
+        return new LazyHierarchy<>(
+                (parent, offset, limit) -> {
+                    fetches.add(parent + "[" + offset + "," + limit + "]");
+                    return IntStream.range(offset, Math.min(offset + limit, count(parent)))
+                            .mapToObj(i -> parent == null ? "r" + i : parent + "/" + i);
+                },
+                parent -> {
+                    countCalls++;
+                    return count(parent);
+                },
+                open::contains);
+    }
+
+    private int count(String parent) {
+        if (parent == null) {
+            return counts.getOrDefault(null, 10);
+        }
+        return counts.getOrDefault(parent, parent.split("/").length < 3 ? 5 : 0);
+    }
+
+    /**
+     * The rows with all the items in the expanded set shown with their
+     * children.
+     */
+    private void flatten(String parent, Set<String> expanded, List<String> rows) {
+        for (int i = 0; i < count(parent); i++) {
+            String item = parent == null ? "r" + i : parent + "/" + i;
+            rows.add(item);
+            if (expanded.contains(item)) {
+                flatten(item, expanded, rows);
+            }
+        }
+    }
+
+    private static void expand(LazyHierarchy<String> hierarchy, String... items) {
+        for (String item : items) {
+            // fetch first, only fetched items can be expanded
+            hierarchy.fetch(0, hierarchy.size()).toList();
+            hierarchy.setExpanded(item, true);
+        }
+        hierarchy.fetch(0, hierarchy.size()).toList();
+    }
+
+    @Test
+    public void testNestedExpansions() {
+        LazyHierarchy<String> hierarchy = hierarchy();
+        expand(hierarchy, "r1", "r1/2", "r1/2/0", "r1/4", "r5", "r9");
+        List<String> expected = new ArrayList<>();
+        flatten(null, Set.of("r1", "r1/2", "r1/2/0", "r1/4", "r5", "r9"), expected);
+        Assertions.assertEquals(expected.size(), hierarchy.size());
+        Assertions.assertEquals(35, hierarchy.size());
+
+        // every window, including the ones crossing subtree boundaries
+        for (int offset = 0; offset < expected.size(); offset++) {
+            for (int limit = 1; offset + limit <= expected.size(); limit++) {
+                Assertions.assertEquals(expected.subList(offset, offset + limit),
+                        hierarchy.fetch(offset, limit).toList(), offset + ", " + limit);
+            }
+        }
+        Assertions.assertEquals(0, hierarchy.getLevel("r1"));
+        Assertions.assertEquals(1, hierarchy.getLevel("r1/2"));
+        Assertions.assertEquals(2, hierarchy.getLevel("r1/2/3"));
+        Assertions.assertEquals(1, hierarchy.getLevel("r9/4"));
+    }
+
+    @Test
+    public void testWindowCrossingSubtreeBoundary() {
+        LazyHierarchy<String> hierarchy = hierarchy();
+        expand(hierarchy, "r1", "r1/2");
+        fetches.clear();
+        // from the end of the r1/2 subtree to the first root item after r1
+        Assertions.assertEquals(List.of("r1/2/3", "r1/2/4", "r1/3", "r1/4", "r2", "r3"),
+                hierarchy.fetch(8, 6).toList());
+        // one query per range of siblings
+        Assertions.assertEquals(List.of("r1/2[3,2]", "r1[3,2]", "null[2,2]"), fetches);
+
+        fetches.clear();
+        // starting from the middle of r1's children, in r1/2 the window is
+        // relative to its first child
+        Assertions.assertEquals(List.of("r1/1", "r1/2", "r1/2/0"),
+                hierarchy.fetch(3, 3).toList());
+        Assertions.assertEquals(List.of("r1[1,2]", "r1/2[0,1]"), fetches);
+    }
+
+    @Test
+    public void testCollapsePrunesFetchedItems() {
+        LazyHierarchy<String> hierarchy = hierarchy();
+        expand(hierarchy, "r1", "r1/2");
+        Assertions.assertEquals(2, hierarchy.getLevel("r1/2/1"));
+
+        hierarchy.setExpanded("r1", false);
+        Assertions.assertEquals(10, hierarchy.size());
+        // no longer tracked
+        Assertions.assertEquals(0, hierarchy.getLevel("r1/2/1"));
+        Assertions.assertEquals(0, hierarchy.getLevel("r1/2"));
+        hierarchy.setExpanded("r1/2", true);
+        Assertions.assertEquals(10, hierarchy.size());
+
+        // re-opened without the expanded descendants
+        hierarchy.setExpanded("r1", true);
+        Assertions.assertEquals(15, hierarchy.size());
+    }
+
+    @Test
+    public void testNestedCollapse() {
+        LazyHierarchy<String> hierarchy = hierarchy();
+        expand(hierarchy, "r1", "r1/2", "r1/3", "r2");
+        Assertions.assertEquals(30, hierarchy.size());
+
+        // the other expanded nodes are kept
+        hierarchy.setExpanded("r1/2", false);
+        Assertions.assertEquals(25, hierarchy.size());
+        List<String> expected = new ArrayList<>();
+        flatten(null, Set.of("r1", "r1/3", "r2"), expected);
+        Assertions.assertEquals(expected, hierarchy.fetch(0, hierarchy.size()).toList());
+        Assertions.assertEquals(0, hierarchy.getLevel("r1/2/0"));
+
+        hierarchy.setExpanded("r1/2", true);
+        expected.clear();
+        flatten(null, Set.of("r1", "r1/2", "r1/3", "r2"), expected);
+        Assertions.assertEquals(expected, hierarchy.fetch(0, hierarchy.size()).toList());
+    }
+
+    @Test
+    public void testTrackedItemsAreBounded() {
+        counts.put(null, 3);
+        counts.put("r0", 1_000_000);
+        LazyHierarchy<String> hierarchy = hierarchy();
+        hierarchy.fetch(0, 3).toList();
+        hierarchy.setExpanded("r0", true);
+        Assertions.assertEquals(1_000_003, hierarchy.size());
+
+        // scroll through the children with a viewport of 50 rows
+        for (int offset = 0; offset < 100_000; offset += 50) {
+            hierarchy.fetch(offset, 50).toList();
+        }
+        Assertions.assertEquals(1, hierarchy.getLevel("r0/99990"));
+        // forgotten, no longer in the recent fetch windows
+        Assertions.assertEquals(0, hierarchy.getLevel("r0/0"));
+        countCalls = 0;
+        hierarchy.countChildren("r0/0");
+        Assertions.assertEquals(1, countCalls);
+
+        // not fetched recently, but can still be collapsed
+        hierarchy.setExpanded("r0", false);
+        Assertions.assertEquals(3, hierarchy.size());
+    }
+
+    @Test
+    public void testRefreshCountsKeepsExpandedDescendants() {
+        LazyHierarchy<String> hierarchy = hierarchy();
+        expand(hierarchy, "r1", "r1/2", "r1/4");
+        Assertions.assertEquals(25, hierarchy.size());
+        Assertions.assertEquals(2, hierarchy.getLevel("r1/4/0"));
+
+        counts.put("r1", 3);
+        hierarchy.refreshCounts("r1");
+        // r1/4 no longer exists, r1/2 is still expanded
+        Assertions.assertEquals(18, hierarchy.size());
+        Assertions.assertEquals(List.of("r1/2", "r1/2/0"), hierarchy.fetch(4, 2).toList());
+        Assertions.assertEquals(0, hierarchy.getLevel("r1/4/0"));
+
+        counts.put("r1/2", 1);
+        hierarchy.refreshCounts();
+        Assertions.assertEquals(14, hierarchy.size());
+    }
+
+    @Test
+    public void testOpenItemsAreExpandedWhenFetched() {
+        open.add("r2");
+        open.add("r2/1");
+        open.add("r8");
+        LazyHierarchy<String> hierarchy = hierarchy();
+        Assertions.assertEquals(10, hierarchy.size());
+
+        List<String> expected = new ArrayList<>();
+        flatten(null, Set.of("r2", "r2/1"), expected);
+        Assertions.assertEquals(expected.subList(0, 8), hierarchy.fetch(0, 8).toList());
+        // r8 is not fetched yet
+        Assertions.assertEquals(20, hierarchy.size());
+        Assertions.assertEquals(2, hierarchy.getLevel("r2/1/0"));
+    }
+
+    @Test
+    public void testChildCountsAreRemembered() {
+        LazyHierarchy<String> hierarchy = hierarchy();
+        hierarchy.fetch(0, 10).toList();
+        countCalls = 0;
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(5, hierarchy.countChildren("r3"));
+        }
+        Assertions.assertEquals(1, countCalls);
+
+        // the remembered count is used when expanded
+        hierarchy.setExpanded("r3", true);
+        Assertions.assertEquals(5, hierarchy.countChildren("r3"));
+        Assertions.assertEquals(1, countCalls);
+
+        counts.put("r3", 2);
+        hierarchy.refreshCounts("r3");
+        Assertions.assertEquals(2, hierarchy.countChildren("r3"));
+        Assertions.assertEquals(2, countCalls);
+    }
+}
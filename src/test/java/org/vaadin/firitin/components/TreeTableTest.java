@@ -0,0 +1,93 @@
+package org.vaadin.firitin.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TreeTableTest {
+
+    private final Map<String, List<String>> children = new HashMap<>(Map.of(
+            "a", List.of("a1", "a2"),
+            "a1", List.of("a1x", "a1y"),
+            "b", List.of("b1")));
+
+    private TreeTable<String> treeTable() {
+        TreeTable<String> treeTable = new TreeTable<>();
+        treeTable.setOpenModel(new TreeTable.ClosedByDefault<>());
+        treeTable.setRootItems(List.of("a", "b"), children::get);
+        return treeTable;
+    }
+
+    private static List<String> rows(TreeTable<String> treeTable) {
+        return treeTable.getListDataView().getItems().toList();
+    }
+
+    private static List<Integer> levels(TreeTable<String> treeTable) {
+        return rows(treeTable).stream().map(treeTable.getLevelModel()::getLevel).toList();
+    }
+
+    @Test
+    public void testNestedExpandAndCollapse() {
+        TreeTable<String> treeTable = treeTable();
+        Assertions.assertEquals(List.of("a", "b"), rows(treeTable));
+
+        treeTable.setOpen("a", true);
+        Assertions.assertEquals(List.of("a", "a1", "a2", "b"), rows(treeTable));
+        Assertions.assertEquals(List.of(0, 1, 1, 0), levels(treeTable));
+
+        treeTable.setOpen("a1", true);
+        Assertions.assertEquals(List.of("a", "a1", "a1x", "a1y", "a2", "b"), rows(treeTable));
+        Assertions.assertEquals(List.of(0, 1, 2, 2, 1, 0), levels(treeTable));
+
+        treeTable.setOpen("b", true);
+        // the subtree ends at the next row with the same level
+        treeTable.setOpen("a1", false);
+        Assertions.assertEquals(List.of("a", "a1", "a2", "b", "b1"), rows(treeTable));
+        Assertions.assertEquals(List.of(0, 1, 1, 0, 1), levels(treeTable));
+
+        treeTable.setOpen("a1", true);
+        // the whole subtree, including the open a1, is removed
+        treeTable.setOpen("a", false);
+        Assertions.assertEquals(List.of("a", "b", "b1"), rows(treeTable));
+        Assertions.assertEquals(List.of(0, 0, 1), levels(treeTable));
+
+        // re-opened with the nested open node
+        treeTable.setOpen("a", true);
+        Assertions.assertEquals(List.of("a", "a1", "a1x", "a1y", "a2", "b", "b1"), rows(treeTable));
+        Assertions.assertEquals(List.of(0, 1, 2, 2, 1, 0, 1), levels(treeTable));
+        Assertions.assertTrue(treeTable.getLeafModel().isLeaf("a1x"));
+        Assertions.assertFalse(treeTable.getLeafModel().isLeaf("a1"));
+    }
+
+    @Test
+    public void testInvalidateOpenNode() {
+        TreeTable<String> treeTable = treeTable();
+        treeTable.setChildrenCacheSize(10);
+        treeTable.setOpen("a", true);
+        treeTable.setOpen("a1", true);
+        treeTable.setOpen("b", true);
+
+        children.put("a", List.of("a0", "a1"));
+        // still the cached children
+        treeTable.setOpen("a", false);
+        treeTable.setOpen("a", true);
+        Assertions.assertEquals(List.of("a", "a1", "a1x", "a1y", "a2", "b", "b1"), rows(treeTable));
+
+        treeTable.invalidate("a");
+        // the subtree is reloaded, the open a1 stays open
+        Assertions.assertEquals(List.of("a", "a0", "a1", "a1x", "a1y", "b", "b1"), rows(treeTable));
+        Assertions.assertEquals(List.of(0, 1, 1, 2, 2, 0, 1), levels(treeTable));
+
+        // a closed node is only refreshed
+        Assertions.assertTrue(treeTable.getLeafModel().isLeaf("a0"));
+        children.put("a0", List.of("a0x"));
+        treeTable.invalidate("a0");
+        Assertions.assertEquals(List.of("a", "a0", "a1", "a1x", "a1y", "b", "b1"), rows(treeTable));
+        Assertions.assertFalse(treeTable.getLeafModel().isLeaf("a0"));
+        treeTable.setOpen("a0", true);
+        Assertions.assertEquals(List.of("a", "a0", "a0x", "a1", "a1x", "a1y", "b", "b1"), rows(treeTable));
+    }
+}
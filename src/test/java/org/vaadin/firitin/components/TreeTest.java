@@ -0,0 +1,79 @@
+package org.vaadin.firitin.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class TreeTest {
+
+    private final Map<String, TreeItem> treeItems = new LinkedHashMap<>();
+    private final List<CompletableFuture<List<String>>> requests = new ArrayList<>();
+    private final List<Throwable> errors = new ArrayList<>();
+
+    private Tree<String> asyncTree() {
+        Tree<String> tree = new Tree<>() {
+            @Override
+            protected void handleAsyncChildrenError(String item, TreeItem treeItem, Throwable error) {
+                errors.add(error);
+            }
+        };
+        tree.addItemDecorator(treeItems::put);
+        tree.setAsyncItems(List.of("a", "b"), parent -> {
+            CompletableFuture<List<String>> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        }, item -> item.length() == 1);
+        return tree;
+    }
+
+    @Test
+    public void testAsyncChildren() {
+        Tree<String> tree = asyncTree();
+        Assertions.assertEquals(List.of("a", "b"), List.copyOf(treeItems.keySet()));
+        Assertions.assertTrue(requests.isEmpty());
+
+        tree.showChildren("a");
+        TreeItem a = treeItems.get("a");
+        Assertions.assertEquals(1, requests.size());
+        Assertions.assertTrue(a.isLoading());
+        Assertions.assertTrue(a.isOpen());
+
+        // no UI, applied directly in the completing thread
+        requests.get(0).complete(List.of("a1", "a2"));
+        Assertions.assertFalse(a.isLoading());
+        Assertions.assertTrue(a.isOpen());
+        Assertions.assertEquals(List.of("a", "b", "a1", "a2"), List.copyOf(treeItems.keySet()));
+
+        // fetched only once
+        tree.hideChildren("a");
+        tree.showChildren("a");
+        Assertions.assertEquals(1, requests.size());
+        Assertions.assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testAsyncChildrenFailure() {
+        Tree<String> tree = asyncTree();
+        tree.showChildren("b");
+        TreeItem b = treeItems.get("b");
+        IllegalStateException failure = new IllegalStateException("backend down");
+        requests.get(0).completeExceptionally(failure);
+
+        Assertions.assertEquals(List.of(failure), errors);
+        Assertions.assertFalse(b.isLoading());
+        Assertions.assertFalse(b.isOpen());
+
+        // opening again retries
+        tree.showChildren("b");
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertTrue(b.isLoading());
+        requests.get(1).complete(List.of("b1"));
+        Assertions.assertFalse(b.isLoading());
+        Assertions.assertTrue(treeItems.containsKey("b1"));
+    }
+}
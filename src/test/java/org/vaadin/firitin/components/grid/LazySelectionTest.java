@@ -0,0 +1,145 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.data.provider.BackEndDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class LazySelectionTest {
+
+    private final List<Integer> fetchOffsets = new ArrayList<>();
+
+    /**
+     * Numbers 0-999, the query filter "even" filters out the odd ones.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private LazySelection<Integer> lazySelection() {
+        BackEndDataProvider<Integer, String> dataProvider = DataProvider.fromFilteringCallbacks(
+                query -> {
+                    fetchOffsets.add(query.getOffset());
+                    return numbers(query).skip(query.getOffset()).limit(query.getLimit());
+                },
+                query -> (int) numbers(query).count());
+        VGrid<Integer> grid = new VGrid<Integer>().withLazySelection();
+        grid.setItems((BackEndDataProvider<Integer, Void>) (BackEndDataProvider) dataProvider);
+        return grid.getLazySelection();
+    }
+
+    private static Stream<Integer> numbers(Query<Integer, String> query) {
+        boolean even = query.getFilter().map("even"::equals).orElse(false);
+        return IntStream.range(0, 1000).filter(i -> !even || i % 2 == 0).boxed();
+    }
+
+    @Test
+    public void testSelectedCount() {
+        LazySelection<Integer> selection = lazySelection();
+        Assertions.assertEquals(0, selection.getSelectedCount());
+        selection.select(1);
+        selection.select(2);
+        Assertions.assertEquals(2, selection.getSelectedCount());
+
+        selection.selectAll();
+        Assertions.assertEquals(1000, selection.getSelectedCount());
+        Assertions.assertTrue(selection.isFullySelected());
+        selection.deselect(1);
+        selection.deselect(1);
+        Assertions.assertEquals(999, selection.getSelectedCount());
+        Assertions.assertFalse(selection.isSelected(1));
+        Assertions.assertFalse(selection.isFullySelected());
+        selection.select(1);
+        Assertions.assertEquals(1000, selection.getSelectedCount());
+
+        selection.deselectAll();
+        Assertions.assertEquals(0, selection.getSelectedCount());
+        Assertions.assertTrue(selection.isEmpty());
+    }
+
+    @Test
+    public void testSelectAllWithFilter() {
+        LazySelection<Integer> selection = lazySelection();
+        selection.selectAll("even", i -> i % 2 == 0);
+        Assertions.assertEquals(500, selection.getSelectedCount());
+        Assertions.assertTrue(selection.isSelected(4));
+        Assertions.assertFalse(selection.isSelected(3));
+
+        // not part of the selection, doesn't change the count
+        selection.deselect(3);
+        Assertions.assertEquals(500, selection.getSelectedCount());
+        selection.deselect(4);
+        Assertions.assertEquals(499, selection.getSelectedCount());
+        Assertions.assertFalse(selection.isSelected(4));
+
+        // explicitly selected in addition to the filtered ones
+        selection.select(3);
+        Assertions.assertTrue(selection.isSelected(3));
+        Assertions.assertEquals(500, selection.getSelectedCount());
+
+        List<Integer> selected = selection.streamSelected(100).toList();
+        Assertions.assertEquals(500, selected.size());
+        Assertions.assertFalse(selected.contains(4));
+        Assertions.assertTrue(selected.contains(3));
+        Assertions.assertEquals(0, selected.get(0));
+    }
+
+    @Test
+    public void testForEachSelectedBatch() {
+        LazySelection<Integer> selection = lazySelection();
+        selection.selectAll();
+        selection.deselect(0);
+        selection.deselect(500);
+
+        List<List<Integer>> batches = new ArrayList<>();
+        selection.forEachSelectedBatch(300, batches::add);
+        Assertions.assertEquals(List.of(300, 300, 300, 98), batches.stream().map(List::size).toList());
+        Assertions.assertEquals(IntStream.range(1, 1000).filter(i -> i != 500).boxed().toList(),
+                batches.stream().flatMap(List::stream).toList());
+        // fetched lazily, until a partial page
+        Assertions.assertEquals(List.of(0, 300, 600, 900), fetchOffsets);
+
+        selection.deselectAll();
+        selection.select(5);
+        selection.select(7);
+        batches.clear();
+        selection.forEachSelectedBatch(1, batches::add);
+        Assertions.assertEquals(List.of(List.of(5), List.of(7)), batches);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testBatchHandlerRemovingTheHandledItems() {
+        List<Integer> backend = new ArrayList<>(IntStream.range(0, 1000).boxed().toList());
+        BackEndDataProvider<Integer, String> dataProvider = DataProvider.fromFilteringCallbacks(
+                query -> backend.stream().filter(i -> matches(query, i))
+                        .skip(query.getOffset()).limit(query.getLimit()),
+                query -> (int) backend.stream().filter(i -> matches(query, i)).count());
+        VGrid<Integer> grid = new VGrid<Integer>().withLazySelection();
+        grid.setItems((BackEndDataProvider<Integer, Void>) (BackEndDataProvider) dataProvider);
+        LazySelection<Integer> selection = grid.getLazySelection();
+        selection.selectAll("even", i -> i % 2 == 0);
+        selection.deselect(100);
+        selection.select(1);
+
+        List<Integer> handled = new ArrayList<>();
+        // e.g. a bulk delete, the matching items shift after each batch
+        selection.forEachSelectedBatch(70, batch -> {
+            handled.addAll(batch);
+            backend.removeAll(batch);
+        });
+        List<Integer> expected = new ArrayList<>(IntStream.range(0, 1000)
+                .filter(i -> i % 2 == 0 && i != 100).boxed().toList());
+        expected.add(1);
+        Assertions.assertEquals(expected, handled);
+        // only the deselected even item is left
+        Assertions.assertEquals(List.of(100), backend.stream().filter(i -> i % 2 == 0).toList());
+    }
+
+    private static boolean matches(Query<Integer, String> query, Integer i) {
+        return !query.getFilter().map("even"::equals).orElse(false) || i % 2 == 0;
+    }
+}
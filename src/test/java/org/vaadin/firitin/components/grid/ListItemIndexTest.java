@@ -0,0 +1,99 @@
+package org.vaadin.firitin.components.grid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ListItemIndexTest {
+
+    private static List<String> items(int count) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add("item " + i);
+        }
+        return items;
+    }
+
+    @Test
+    public void testAppendedItemsAreIndexedIncrementally() {
+        List<String> list = items(1000);
+        AtomicInteger idLookups = new AtomicInteger();
+        ListItemIndex<String> index = new ListItemIndex<>(() -> list, list::stream, item -> {
+            idLookups.incrementAndGet();
+            return item;
+        });
+
+        Assertions.assertEquals(999, index.indexOf("item 999"));
+        Assertions.assertEquals(500, index.indexOf("item 500"));
+        idLookups.set(0);
+        list.add("new item");
+        index.invalidate();
+        Assertions.assertEquals(1000, index.indexOf("new item"));
+        // the looked up item, the last indexed one and the appended one
+        Assertions.assertEquals(3, idLookups.get());
+        idLookups.set(0);
+        Assertions.assertEquals(500, index.indexOf("item 500"));
+        // the looked up item and the verification of the hit
+        Assertions.assertEquals(2, idLookups.get());
+    }
+
+    @Test
+    public void testListModifiedWithoutRefresh() {
+        List<String> list = items(100);
+        ListItemIndex<String> index = new ListItemIndex<>(() -> list, list::stream, item -> item);
+
+        Assertions.assertEquals(10, index.indexOf("item 10"));
+        // no invalidate() calls, no iterator to fail
+        list.remove("item 5");
+        Assertions.assertEquals(9, index.indexOf("item 10"));
+        Assertions.assertEquals(-1, index.indexOf("item 5"));
+        list.add(0, "first");
+        Assertions.assertEquals(50, index.indexOf("item 50"));
+        Assertions.assertEquals(0, index.indexOf("first"));
+        list.clear();
+        Assertions.assertEquals(-1, index.indexOf("item 50"));
+    }
+
+    @Test
+    public void testItemReplacedInPlace() {
+        List<String> list = items(100);
+        ListItemIndex<String> index = new ListItemIndex<>(() -> list, list::stream, item -> item);
+
+        Assertions.assertEquals(50, index.indexOf("item 50"));
+        // replaced below the indexed positions, e.g. followed by a refreshAll
+        list.set(10, "replacement");
+        index.invalidate();
+        Assertions.assertEquals(10, index.indexOf("replacement"));
+        Assertions.assertEquals(-1, index.indexOf("item 10"));
+        Assertions.assertEquals(50, index.indexOf("item 50"));
+    }
+
+    @Test
+    public void testSortedItems() {
+        List<String> list = items(100);
+        AtomicBoolean sorted = new AtomicBoolean();
+        ListItemIndex<String> index = new ListItemIndex<>(() -> sorted.get() ? null : list,
+                () -> list.stream().sorted(Comparator.reverseOrder()), item -> item);
+
+        Assertions.assertEquals(0, index.indexOf("item 0"));
+        sorted.set(true);
+        // "item 99" first, "item 0" last
+        Assertions.assertEquals(0, index.indexOf("item 99"));
+        Assertions.assertEquals(99, index.indexOf("item 0"));
+
+        list.add("item 990");
+        // the map of sorted data is reused until invalidated
+        Assertions.assertEquals(0, index.indexOf("item 99"));
+        index.invalidate();
+        Assertions.assertEquals(0, index.indexOf("item 990"));
+        Assertions.assertEquals(1, index.indexOf("item 99"));
+
+        sorted.set(false);
+        Assertions.assertEquals(100, index.indexOf("item 990"));
+    }
+}
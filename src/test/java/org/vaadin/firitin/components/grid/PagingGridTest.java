@@ -0,0 +1,344 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.GridSortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+public class PagingGridTest {
+
+    public record Row(int number) {
+    }
+
+    private record Request(long page, int pageSize, List<GridSortOrder<Row>> sortOrder) {
+    }
+
+    private static List<Row> rows(long page, int pageSize) {
+        return IntStream.range((int) page * pageSize, (int) (page + 1) * pageSize).mapToObj(Row::new).toList();
+    }
+
+    private static List<Button> buttons(PagingGrid<?> grid) {
+        // first, previous, next, last
+        return grid.getHeaderRows().get(0).getCells().get(0).getComponent().getChildren()
+                .filter(Button.class::isInstance).map(Button.class::cast).toList();
+    }
+
+    private static void next(PagingGrid<?> grid) {
+        buttons(grid).get(2).click();
+    }
+
+    private static void previous(PagingGrid<?> grid) {
+        buttons(grid).get(1).click();
+    }
+
+    private static List<Row> shownRows(PagingGrid<Row> grid) {
+        return grid.getListDataView().getItems().toList();
+    }
+
+    private static PagingGrid<Row> grid(List<Request> requests) {
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        grid.setPagingDataProvider((page, pageSize) -> {
+            requests.add(new Request(page, pageSize, List.copyOf(grid.getSortOrder())));
+            return rows(page, pageSize);
+        });
+        return grid;
+    }
+
+    private static List<Long> pages(List<Request> requests) {
+        return requests.stream().map(Request::page).toList();
+    }
+
+    @Test
+    public void testPageCacheEvictsLeastRecentlyUsed() {
+        List<Request> requests = new ArrayList<>();
+        PagingGrid<Row> grid = grid(requests);
+        grid.setPageCacheSize(2);
+        // the first page was fetched before enabling the cache
+        grid.refresh();
+        Assertions.assertEquals(List.of(0L, 0L), pages(requests));
+
+        next(grid);
+        next(grid);
+        Assertions.assertEquals(List.of(0L, 0L, 1L, 2L), pages(requests));
+        Assertions.assertEquals(rows(2, 10), shownRows(grid));
+        // page 0 is evicted, page 1 cached
+        previous(grid);
+        Assertions.assertEquals(List.of(0L, 0L, 1L, 2L), pages(requests));
+        Assertions.assertEquals(rows(1, 10), shownRows(grid));
+        previous(grid);
+        Assertions.assertEquals(List.of(0L, 0L, 1L, 2L, 0L), pages(requests));
+        // page 1 was used more recently than page 2
+        next(grid);
+        Assertions.assertEquals(List.of(0L, 0L, 1L, 2L, 0L), pages(requests));
+        next(grid);
+        Assertions.assertEquals(List.of(0L, 0L, 1L, 2L, 0L, 2L), pages(requests));
+    }
+
+    @Test
+    public void testPageCacheInvalidation() {
+        List<Request> requests = new ArrayList<>();
+        PagingGrid<Row> grid = grid(requests);
+        grid.setPageCacheSize(5);
+        grid.refresh();
+        next(grid);
+        previous(grid);
+        Assertions.assertEquals(List.of(0L, 0L, 1L), pages(requests));
+
+        // sort order change
+        GridSortOrder<Row> sortOrder = GridSortOrder.desc(grid.getColumnByKey("number")).build().get(0);
+        grid.sort(List.of(sortOrder));
+        Assertions.assertEquals(List.of(0L, 0L, 1L, 0L), pages(requests));
+        Assertions.assertEquals(List.of(sortOrder), requests.get(3).sortOrder());
+        next(grid);
+        Assertions.assertEquals(List.of(0L, 0L, 1L, 0L, 1L), pages(requests));
+
+        // page size change
+        grid.setPageSize(5);
+        Assertions.assertEquals(new Request(1, 5, List.of(sortOrder)), requests.get(5));
+        previous(grid);
+        Assertions.assertEquals(new Request(0, 5, List.of(sortOrder)), requests.get(6));
+        Assertions.assertEquals(rows(0, 5), shownRows(grid));
+    }
+
+    @Test
+    public void testStaleReadAheadIsDropped() {
+        List<Request> requests = new ArrayList<>();
+        List<Runnable> readAheads = new ArrayList<>();
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        grid.setPageCacheSize(5);
+        grid.setReadAhead(true);
+        grid.setReadAheadExecutor(readAheads::add);
+        grid.setPagingDataProvider((page, pageSize) -> {
+            requests.add(new Request(page, pageSize, List.copyOf(grid.getSortOrder())));
+            return rows(page, pageSize);
+        });
+        // the next page is read ahead
+        Assertions.assertEquals(1, readAheads.size());
+
+        GridSortOrder<Row> sortOrder = GridSortOrder.desc(grid.getColumnByKey("number")).build().get(0);
+        grid.sort(List.of(sortOrder));
+        Assertions.assertEquals(2, readAheads.size());
+
+        // scheduled before the sort order changed, sees the old sort order
+        readAheads.get(0).run();
+        Assertions.assertEquals(new Request(1, 10, List.of()), requests.get(2));
+        Assertions.assertEquals(List.of(sortOrder), grid.getSortOrder());
+        // ... and its page is not cached
+        next(grid);
+        Assertions.assertEquals(new Request(1, 10, List.of(sortOrder)), requests.get(3));
+        Assertions.assertEquals(4, requests.size());
+
+        // read-ahead of page 2 with the current sort order is cached
+        Runnable readAheadOfPage2 = readAheads.get(readAheads.size() - 1);
+        readAheadOfPage2.run();
+        Assertions.assertEquals(new Request(2, 10, List.of(sortOrder)), requests.get(4));
+        next(grid);
+        Assertions.assertEquals(5, requests.size());
+        Assertions.assertEquals(rows(2, 10), shownRows(grid));
+    }
+
+    @Test
+    public void testAsyncStaleResponseIsDropped() {
+        List<Long> requestedPages = new ArrayList<>();
+        List<CompletableFuture<List<Row>>> responses = new ArrayList<>();
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        grid.setAsyncPagingDataProvider((page, pageSize) -> {
+            requestedPages.add(page);
+            CompletableFuture<List<Row>> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        Assertions.assertTrue(grid.isLoading());
+        Assertions.assertTrue(grid.getElement().getProperty("loading", false));
+
+        // the request of the first page is cancelled
+        next(grid);
+        Assertions.assertEquals(List.of(0L, 1L), requestedPages);
+        Assertions.assertTrue(responses.get(0).isCancelled());
+        Assertions.assertTrue(grid.isLoading());
+
+        // not attached, there is no session to lock yet
+        responses.get(1).complete(rows(1, 10));
+        Assertions.assertTrue(grid.isLoading());
+
+        new UI().add(grid);
+        Assertions.assertFalse(grid.isLoading());
+        Assertions.assertFalse(grid.getElement().getProperty("loading", true));
+        Assertions.assertEquals(rows(1, 10), shownRows(grid));
+    }
+
+    @Test
+    public void testAsyncCompletedResponse() {
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        grid.setAsyncPagingDataProvider((page, pageSize) -> page < 2
+                ? CompletableFuture.completedFuture(rows(page, pageSize))
+                : CompletableFuture.failedFuture(new IllegalStateException("backend down")));
+        // applied directly
+        Assertions.assertFalse(grid.isLoading());
+        Assertions.assertEquals(rows(0, 10), shownRows(grid));
+        next(grid);
+        Assertions.assertEquals(rows(1, 10), shownRows(grid));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> next(grid));
+        Assertions.assertFalse(grid.isLoading());
+        Assertions.assertEquals(rows(1, 10), shownRows(grid));
+    }
+
+    private static void first(PagingGrid<?> grid) {
+        buttons(grid).get(0).click();
+    }
+
+    private static void last(PagingGrid<?> grid) {
+        buttons(grid).get(3).click();
+    }
+
+    @Test
+    public void testTotalResults() {
+        List<Request> requests = new ArrayList<>();
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        // kept until the pagination bar is created
+        grid.setTotalResults(95);
+        grid.setPagingDataProvider((page, pageSize) -> {
+            requests.add(new Request(page, pageSize, List.of()));
+            return rows(page, pageSize);
+        });
+        last(grid);
+        Assertions.assertEquals(9L, requests.get(1).page());
+
+        // an explicitly set value wins over a pending count
+        CompletableFuture<Long> count = new CompletableFuture<>();
+        grid.setTotalResults(count);
+        grid.setTotalResults(195);
+        count.complete(1000L);
+        new UI().add(grid);
+        last(grid);
+        Assertions.assertEquals(19L, requests.get(2).page());
+
+        // a failed count leaves the earlier value
+        grid.setTotalResults(CompletableFuture.failedFuture(new IllegalStateException("count failed")));
+        first(grid);
+        last(grid);
+        Assertions.assertEquals(19L, requests.get(4).page());
+
+        grid.setTotalResults(CompletableFuture.completedFuture(50L));
+        first(grid);
+        last(grid);
+        Assertions.assertEquals(4L, requests.get(6).page());
+    }
+
+    /**
+     * Numbers 0-99, descending if sorted so.
+     */
+    private static List<Row> keysetPage(Row lastItem, List<GridSortOrder<Row>> sortOrder, int pageSize) {
+        if (!sortOrder.isEmpty() && sortOrder.get(0).getDirection() == SortDirection.DESCENDING) {
+            int start = lastItem == null ? 99 : lastItem.number() - 1;
+            int end = Math.max(start - pageSize + 1, 0);
+            return IntStream.rangeClosed(0, start - end).mapToObj(i -> new Row(start - i)).toList();
+        }
+        int start = lastItem == null ? 0 : lastItem.number() + 1;
+        return IntStream.range(start, Math.min(start + pageSize, 100)).mapToObj(Row::new).toList();
+    }
+
+    @Test
+    public void testKeysetPaging() {
+        List<Integer> keys = new ArrayList<>();
+        List<Runnable> readAheads = new ArrayList<>();
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        grid.setPageCacheSize(5);
+        grid.setReadAhead(true);
+        grid.setReadAheadExecutor(readAheads::add);
+        grid.setTotalResults(100);
+        grid.setKeysetPagingDataProvider((lastItem, sortOrder, pageSize) -> {
+            keys.add(lastItem == null ? null : lastItem.number());
+            return keysetPage(lastItem, sortOrder, pageSize);
+        });
+        Assertions.assertEquals(Collections.singletonList(null), keys);
+
+        // the read-ahead of page 1 uses the key of page 0
+        readAheads.get(0).run();
+        Assertions.assertEquals(9, keys.get(1));
+
+        // walks forward from the last known key
+        last(grid);
+        Assertions.assertEquals(rows(9, 10), shownRows(grid));
+        Assertions.assertEquals(List.of(19, 29, 39, 49, 59, 69, 79, 89), keys.subList(2, keys.size()));
+        keys.clear();
+        previous(grid);
+        // the key is remembered
+        Assertions.assertEquals(List.of(79), keys);
+        Assertions.assertEquals(rows(8, 10), shownRows(grid));
+    }
+
+    @Test
+    public void testKeysetReadAheadAfterSortChange() {
+        List<Runnable> readAheads = new ArrayList<>();
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        grid.setPageCacheSize(5);
+        grid.setReadAhead(true);
+        grid.setReadAheadExecutor(readAheads::add);
+        grid.setKeysetPagingDataProvider(PagingGridTest::keysetPage);
+        Runnable staleReadAhead = readAheads.get(0);
+
+        grid.sort(GridSortOrder.desc(grid.getColumnByKey("number")).build());
+        Assertions.assertEquals(99, shownRows(grid).get(0).number());
+        // reads page 1 with the old sort order, its key must not be stored
+        staleReadAhead.run();
+        next(grid);
+        Assertions.assertEquals(89, shownRows(grid).get(0).number());
+        next(grid);
+        Assertions.assertEquals(79, shownRows(grid).get(0).number());
+        Assertions.assertEquals(70, shownRows(grid).get(9).number());
+    }
+
+    @Test
+    public void testKeysetReadAheadDoesNotBlockPaging() throws Exception {
+        AtomicReference<Thread> readAheadThread = new AtomicReference<>();
+        CountDownLatch readAheadStarted = new CountDownLatch(1);
+        CountDownLatch releaseReadAhead = new CountDownLatch(1);
+        PagingGrid<Row> grid = new PagingGrid<>(Row.class);
+        grid.setPageCacheSize(5);
+        grid.setReadAhead(true);
+        grid.setTotalResults(100);
+        grid.setReadAheadExecutor(task -> {
+            // only the first read-ahead, in a thread of its own
+            if (readAheadThread.get() == null) {
+                Thread thread = new Thread(task);
+                readAheadThread.set(thread);
+                thread.start();
+            }
+        });
+        grid.setKeysetPagingDataProvider((lastItem, sortOrder, pageSize) -> {
+            if (Thread.currentThread() == readAheadThread.get()) {
+                readAheadStarted.countDown();
+                try {
+                    releaseReadAhead.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return keysetPage(lastItem, sortOrder, pageSize);
+        });
+        Assertions.assertTrue(readAheadStarted.await(5, TimeUnit.SECONDS));
+
+        // the slow read-ahead of page 1 doesn't hold a lock needed by the walk to the last page
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> last(grid));
+        Assertions.assertEquals(rows(9, 10), shownRows(grid));
+
+        releaseReadAhead.countDown();
+        readAheadThread.get().join(5000);
+        previous(grid);
+        Assertions.assertEquals(rows(8, 10), shownRows(grid));
+    }
+}
@@ -0,0 +1,119 @@
+package org.vaadin.firitin.components.grid;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.vaadin.firitin.components.grid.SortKeyListDataProvider.SortKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class SortKeyListDataProviderTest {
+
+    public record Row(int id, Object value, String group) {
+    }
+
+    private static List<Integer> ids(List<Row> rows) {
+        return rows.stream().map(Row::id).toList();
+    }
+
+    @Test
+    public void testStableMultiKeySort() {
+        Random random = new Random(42);
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            rows.add(new Row(i, random.nextInt(100), "g" + random.nextInt(10)));
+        }
+        Comparator<Row> expected = Comparator.comparing(Row::group).reversed()
+                .thenComparing(r -> (Integer) r.value());
+        List<SortKey<Row>> keys = List.of(new SortKey<>(Row::group, true), new SortKey<>(Row::value, false));
+        List<Row> reference = rows.stream().sorted(expected).toList();
+
+        // sequential and parallel
+        Assertions.assertEquals(ids(reference), ids(SortKeyListDataProvider.sort(rows, keys, Integer.MAX_VALUE)));
+        Assertions.assertEquals(ids(reference), ids(SortKeyListDataProvider.sort(rows, keys, 1000)));
+    }
+
+    @Test
+    public void testNullsLast() {
+        List<Row> rows = List.of(new Row(0, null, "a"), new Row(1, 2.5, "a"), new Row(2, null, "a"), new Row(3, 1.0, "a"));
+        Assertions.assertEquals(List.of(3, 1, 0, 2),
+                ids(SortKeyListDataProvider.sort(rows, List.of(new SortKey<>(Row::value, false)), 1000)));
+        Assertions.assertEquals(List.of(0, 2, 1, 3),
+                ids(SortKeyListDataProvider.sort(rows, List.of(new SortKey<>(Row::value, true)), 1000)));
+    }
+
+    @Test
+    public void testMixedTypesAreComparedLikeInGrid() {
+        List<Row> rows = List.of(
+                new Row(0, 10, "a"),
+                new Row(1, "a", "a"),
+                new Row(2, null, "a"),
+                new Row(3, 9, "a"));
+        // integers naturally (not "10" < "9"), integer vs string by string, nulls last
+        Assertions.assertEquals(List.of(3, 0, 1, 2),
+                ids(SortKeyListDataProvider.sort(rows, List.of(new SortKey<>(Row::value, false)), 1000)));
+        Assertions.assertEquals(List.of(2, 1, 0, 3),
+                ids(SortKeyListDataProvider.sort(rows, List.of(new SortKey<>(Row::value, true)), 1000)));
+    }
+
+    @Test
+    public void testNonComparableValuesAreComparedAsStrings() {
+        List<Row> rows = List.of(
+                new Row(0, List.of("b"), "a"),
+                new Row(1, null, "a"),
+                new Row(2, List.of("a"), "a"));
+        // null is "" like in Grid, so first
+        Assertions.assertEquals(List.of(1, 2, 0),
+                ids(SortKeyListDataProvider.sort(rows, List.of(new SortKey<>(Row::value, false)), 1000)));
+    }
+
+    @Test
+    public void testKeyExtractorExceptionsPropagate() {
+        List<Row> rows = List.of(new Row(0, null, "a"), new Row(1, "x", "a"));
+        SortKey<Row> failing = new SortKey<>(r -> r.value().toString(), false);
+        Assertions.assertThrows(NullPointerException.class,
+                () -> SortKeyListDataProvider.sort(rows, List.of(failing), 1000));
+    }
+
+    public static class Person {
+        private final String name;
+        private final Person manager;
+
+        public Person(String name, Person manager) {
+            this.name = name;
+            this.manager = manager;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Person getManager() {
+            return manager;
+        }
+    }
+
+    @Test
+    public void testNestedNullsFollowGridConfiguration() {
+        Person boss = new Person("Boss", null);
+        List<Person> people = Arrays.asList(new Person("b", boss), boss, new Person("a", new Person("Aaron", null)));
+        VGrid<Person> grid = new VGrid<>(Person.class, false);
+        grid.setPrecomputedSorting(true);
+        Grid.Column<Person> managerName = grid.addColumn("manager.name");
+        grid.setItems(people);
+
+        grid.setNestedNullBehavior(Grid.NestedNullBehavior.ALLOW_NULLS);
+        grid.sort(GridSortOrder.asc(managerName).build());
+        Assertions.assertEquals(List.of("a", "b", "Boss"),
+                grid.getListDataView().getItems().map(Person::getName).toList());
+
+        grid.setNestedNullBehavior(Grid.NestedNullBehavior.THROW);
+        grid.sort(GridSortOrder.desc(managerName).build());
+        Assertions.assertThrows(NullPointerException.class, () -> grid.getListDataView().getItems().toList());
+    }
+}
@@ -0,0 +1,283 @@
+package org.vaadin.firitin.components.grid;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
+import com.vaadin.flow.component.grid.dataview.GridListDataView;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.data.renderer.Renderer;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class VGridTest {
+
+    public static class Address {
+        private String city;
+
+        public Address(String city) {
+            this.city = city;
+        }
+
+        public String getCity() {
+            return city;
+        }
+    }
+
+    public static class Person {
+        private String firstName;
+        private int age;
+        private String nickname;
+        private Address address;
+
+        public Person(String firstName, int age, String nickname, Address address) {
+            this.firstName = firstName;
+            this.age = age;
+            this.nickname = nickname;
+            this.address = address;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        @JsonProperty("nick")
+        public String getNickname() {
+            return nickname;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        @JsonIgnore
+        public String getSecret() {
+            return "secret";
+        }
+    }
+
+    public record Version(int major, int minor) implements Comparable<Version> {
+        @Override
+        public int compareTo(Version o) {
+            return major != o.major ? Integer.compare(major, o.major) : Integer.compare(minor, o.minor);
+        }
+    }
+
+    public record Release(String name, Version version, Address address) {
+    }
+
+    private static List<String> sortProperties(Grid.Column<?> column) {
+        return column.getSortOrder(SortDirection.ASCENDING).map(QuerySortOrder::getSorted).toList();
+    }
+
+    @Test
+    public void testBeanColumns() {
+        VGrid<Person> grid = new VGrid<>(Person.class);
+
+        // Jackson names, @JsonIgnore respected
+        List<String> keys = grid.getColumns().stream().map(Grid.Column::getKey).toList();
+        Assertions.assertEquals(4, keys.size());
+        Assertions.assertTrue(keys.containsAll(List.of("firstName", "age", "nick", "address")));
+        Assertions.assertFalse(keys.contains("secret"));
+        Assertions.assertFalse(keys.contains("nickname"));
+
+        // same headers as Vaadin creates for bean properties
+        Assertions.assertEquals("First name", grid.getColumnByKey("firstName").getHeaderText());
+        Assertions.assertEquals("Age", grid.getColumnByKey("age").getHeaderText());
+
+        // comparable and primitive properties are sortable by property name
+        Assertions.assertEquals(List.of("firstName"), sortProperties(grid.getColumnByKey("firstName")));
+        Assertions.assertEquals(List.of("age"), sortProperties(grid.getColumnByKey("age")));
+        Assertions.assertEquals(List.of("nick"), sortProperties(grid.getColumnByKey("nick")));
+        Assertions.assertEquals(List.of(), sortProperties(grid.getColumnByKey("address")));
+    }
+
+    @Test
+    public void testNestedPropertyColumn() {
+        VGrid<Person> grid = new VGrid<>(Person.class, false);
+        Grid.Column<Person> city = grid.addColumn("address.city");
+        Assertions.assertEquals("address.city", city.getKey());
+        Assertions.assertEquals(List.of("address.city"), sortProperties(city));
+
+        grid.setItems(new Person("a", 1, "a", new Address("Turku")),
+                new Person("b", 2, "b", new Address("Helsinki")));
+        grid.sort(GridSortOrder.asc(city).build());
+        Assertions.assertEquals(List.of("b", "a"),
+                grid.getListDataView().getItems().map(Person::getFirstName).toList());
+    }
+
+    @Test
+    public void testRecordColumns() {
+        VGrid<Release> grid = new VGrid<>(Release.class);
+
+        Assertions.assertEquals(List.of("name", "version", "address"),
+                grid.getColumns().stream().map(Grid.Column::getKey).toList());
+        Assertions.assertEquals("Name", grid.getColumnByKey("name").getHeaderText());
+        Assertions.assertEquals("Version", grid.getColumnByKey("version").getHeaderText());
+        Assertions.assertEquals(List.of("name"), sortProperties(grid.getColumnByKey("name")));
+        Assertions.assertEquals(List.of(), sortProperties(grid.getColumnByKey("address")));
+    }
+
+    @Test
+    public void testComparableColumn() {
+        VGrid<Release> grid = new VGrid<>(Release.class);
+        Grid.Column<Release> version = grid.getColumnByKey("version");
+        // a custom Comparable is sortable
+        Assertions.assertEquals(List.of("version"), sortProperties(version));
+
+        grid.setItems(new Release("b", new Version(1, 10), null),
+                new Release("c", new Version(2, 0), null),
+                new Release("a", new Version(1, 2), null));
+        grid.sort(GridSortOrder.asc(version).build());
+        Assertions.assertEquals(List.of("a", "b", "c"),
+                grid.getListDataView().getItems().map(Release::name).toList());
+        grid.sort(GridSortOrder.desc(version).build());
+        Assertions.assertEquals(List.of("c", "b", "a"),
+                grid.getListDataView().getItems().map(Release::name).toList());
+    }
+
+    @Test
+    public void testItemIndexProviderGetsTheQuery() {
+        VGrid<Release> grid = new VGrid<>(Release.class);
+        List<Release> releases = List.of(new Release("a", new Version(1, 0), null),
+                new Release("b", new Version(2, 0), null));
+        grid.setItems(releases);
+        List<Query<Release, ?>> queries = new ArrayList<>();
+        grid.setItemIndexProvider((item, query) -> {
+            queries.add(query);
+            return releases.indexOf(item);
+        });
+        grid.sort(GridSortOrder.desc(grid.getColumnByKey("name")).build());
+        grid.scrollToItem(releases.get(1));
+
+        Query<Release, ?> query = queries.get(0);
+        Assertions.assertEquals(0, query.getOffset());
+        Assertions.assertEquals(List.of("name"), query.getSortOrders().stream().map(QuerySortOrder::getSorted).toList());
+        Assertions.assertEquals(SortDirection.DESCENDING, query.getSortOrders().get(0).getDirection());
+    }
+
+    @Test
+    public void testScrollToItemAfterAddingItems() {
+        AtomicInteger scrolledTo = new AtomicInteger();
+        VGrid<Release> grid = new VGrid<>(Release.class) {
+            @Override
+            public void scrollToIndex(int rowIndex) {
+                scrolledTo.set(rowIndex);
+            }
+        };
+        List<Release> releases = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            releases.add(new Release("r" + i, new Version(1, i), null));
+        }
+        GridListDataView<Release> dataView = grid.setItems(releases);
+        grid.scrollToItem(releases.get(50));
+        Assertions.assertEquals(50, scrolledTo.get());
+        Release added = new Release("added", new Version(2, 0), null);
+        dataView.addItem(added);
+        grid.scrollToItem(added);
+        Assertions.assertEquals(100, scrolledTo.get());
+
+        dataView.setFilter(release -> release.version().minor() % 2 == 0);
+        grid.scrollToItem(releases.get(50));
+        Assertions.assertEquals(25, scrolledTo.get());
+        dataView.removeFilters();
+
+        grid.sort(GridSortOrder.desc(grid.getColumnByKey("version")).build());
+        grid.scrollToItem(added);
+        Assertions.assertEquals(0, scrolledTo.get());
+        grid.scrollToItem(releases.get(0));
+        Assertions.assertEquals(100, scrolledTo.get());
+    }
+
+    private static List<Integer> renderedColumns(VGrid<Integer> grid) {
+        List<Grid.Column<Integer>> columns = grid.getColumns();
+        return IntStream.range(0, columns.size())
+                .filter(i -> !((VGrid.VColumn<Integer>) columns.get(i)).isOutsideViewport())
+                .boxed().toList();
+    }
+
+    @Test
+    public void testColumnVirtualization() {
+        VGrid<Integer> grid = new VGrid<>();
+        for (int i = 0; i < 20; i++) {
+            int offset = i;
+            grid.addColumn(n -> n + offset).setWidth("100px");
+        }
+        Grid.Column<Integer> litColumn = grid.addColumn(LitRenderer.<Integer>of("<b>${item.value}</b>")
+                .withProperty("value", n -> n));
+        Grid.Column<Integer> componentColumn = grid.addComponentColumn(n -> new Span("" + n)).setWidth("100px");
+        List<Renderer<Integer>> renderers = grid.getColumns().stream().map(Grid.Column::getRenderer).toList();
+        grid.setColumnVirtualizationBuffer(2);
+        grid.setColumnVirtualization(true);
+        // no fixed width, set to the virtual column width
+        Assertions.assertEquals("150px", litColumn.getWidth());
+
+        grid.columnViewportChanged(0, 300);
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4), renderedColumns(grid));
+        Assertions.assertSame(renderers.get(4), grid.getColumns().get(4).getRenderer());
+        // nothing generated for the columns outside the viewport
+        Assertions.assertNotSame(renderers.get(5), grid.getColumns().get(5).getRenderer());
+        Assertions.assertNotSame(renderers.get(20), litColumn.getRenderer());
+        Assertions.assertNotSame(renderers.get(21), componentColumn.getRenderer());
+
+        // the lit column spans 2000-2150, the component column 2150-2250
+        grid.columnViewportChanged(2100, 100);
+        Assertions.assertEquals(List.of(18, 19, 20, 21), renderedColumns(grid));
+        Assertions.assertSame(renderers.get(20), litColumn.getRenderer());
+        Assertions.assertSame(renderers.get(21), componentColumn.getRenderer());
+
+        // frozen columns are always rendered
+        grid.getColumns().get(0).setFrozen(true);
+        // set while outside, applied when in the viewport
+        Renderer<Integer> newRenderer = LitRenderer.of("<i>${item.value}</i>");
+        grid.getColumns().get(10).setRenderer(newRenderer);
+        grid.columnViewportChanged(900, 100);
+        Assertions.assertEquals(List.of(0, 7, 8, 9, 10, 11), renderedColumns(grid));
+        Assertions.assertSame(newRenderer, grid.getColumns().get(10).getRenderer());
+
+        grid.setColumnVirtualization(false);
+        Assertions.assertEquals(IntStream.range(0, 22).boxed().toList(), renderedColumns(grid));
+        Assertions.assertSame(renderers.get(20), litColumn.getRenderer());
+    }
+
+    @Test
+    public void testColumnVirtualizationAttachListener() {
+        AtomicInteger attachListeners = new AtomicInteger();
+        VGrid<Integer> grid = new VGrid<>() {
+            @Override
+            public Registration addAttachListener(ComponentEventListener<AttachEvent> listener) {
+                attachListeners.incrementAndGet();
+                Registration registration = super.addAttachListener(listener);
+                return () -> {
+                    attachListeners.decrementAndGet();
+                    registration.remove();
+                };
+            }
+        };
+        grid.addColumn(n -> n);
+        int before = attachListeners.get();
+        grid.setColumnVirtualization(true);
+        grid.setColumnVirtualization(false);
+        grid.setColumnVirtualization(true);
+        grid.setColumnVirtualization(true);
+        Assertions.assertEquals(before + 1, attachListeners.get());
+        grid.setColumnVirtualization(false);
+        Assertions.assertEquals(before, attachListeners.get());
+    }
+}
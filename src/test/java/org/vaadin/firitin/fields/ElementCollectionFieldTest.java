@@ -0,0 +1,283 @@
+package org.vaadin.firitin.fields;
+
+import com.vaadin.flow.component.AbstractField;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.vaadin.firitin.components.orderedlayout.VScroller;
+import org.vaadin.firitin.fields.internalhtmltable.TableCell;
+import org.vaadin.firitin.fields.internalhtmltable.TableRow;
+import org.vaadin.firitin.form.AbstractForm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ElementCollectionFieldTest {
+
+    public record LineItem(String product, Integer quantity) {
+    }
+
+    public static class Address {
+        private String street;
+        private String city;
+
+        public Address() {
+        }
+
+        public Address(String street, String city) {
+            this.street = street;
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    public static class AddressEditor {
+        TextField street = new TextField();
+        TextField city = new TextField();
+        // not bound, no column for these
+        Span label = new Span();
+        TextField notAProperty = new TextField();
+
+        public AddressEditor() {
+        }
+    }
+
+    public static class AddressRowForm extends AbstractForm<Address> {
+        TextField street = new TextField();
+        TextField city = new TextField();
+
+        public AddressRowForm() {
+            super(Address.class);
+        }
+
+        @Override
+        protected Component createContent() {
+            return new TableRow(street, city);
+        }
+    }
+
+    private static List<LineItem> lineItems(int count) {
+        List<LineItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new LineItem("Product " + i, i));
+        }
+        return items;
+    }
+
+    private static <E extends Component> E editor(TableRow row, int column) {
+        TableCell cell = row.getCells().get(column);
+        return (E) cell.getChildren().findFirst().get();
+    }
+
+    private static Button deleteButton(TableRow row) {
+        return editor(row, row.getCells().size() - 1);
+    }
+
+    private static void scroll(ElementCollectionField<?> field, int scrollTop) {
+        // the content layout of the field contains the scroller
+        VScroller scroller = (VScroller) field.getChildren().findFirst().get()
+                .getChildren().findFirst().get();
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.target.scrollTop", scrollTop);
+        eventData.put("event.target.scrollLeft", 0);
+        // the scroll listener is debounced, deliver as the trailing event
+        eventData.put("for", "trailing");
+        scroller.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(scroller.getElement(), "scroll", eventData));
+    }
+
+    private static <C extends AbstractField<C, V>, V> void clientEdit(C field, V value) {
+        V oldValue = field.getValue();
+        field.setValue(value);
+        ComponentUtil.fireEvent(field, new AbstractField.ComponentValueChangeEvent<>(field, field, oldValue, true));
+    }
+
+    @Test
+    public void testVirtualizedRendersOnlyRowsInView() {
+        ElementCollectionField<LineItem> field = new ElementCollectionField<>(LineItem.class)
+                .withVirtualized(true);
+        field.setValue(lineItems(1000));
+
+        List<TableRow> rows = field.table.getRows();
+        // header, top spacer, 10 visible + 5 buffer rows, bottom spacer, new item row
+        Assertions.assertEquals(1 + 1 + 15 + 1 + 1, rows.size());
+        Assertions.assertEquals("0px", rows.get(1).getStyle().get("height"));
+        Assertions.assertEquals(985 * 48 + "px", rows.get(17).getStyle().get("height"));
+        Assertions.assertEquals("Product 0", editor(rows.get(2), 0).getElement().getProperty("value"));
+        Assertions.assertEquals("Product 14", editor(rows.get(16), 0).getElement().getProperty("value"));
+        // the header matches the editor columns
+        Assertions.assertEquals(2, rows.get(0).getCells().size());
+        Assertions.assertEquals(3, rows.get(2).getCells().size());
+    }
+
+    @Test
+    public void testVirtualizedScrolling() {
+        ElementCollectionField<LineItem> field = new ElementCollectionField<>(LineItem.class)
+                .withVirtualized(true);
+        field.setValue(lineItems(1000));
+
+        scroll(field, 500 * 48);
+        List<TableRow> rows = field.table.getRows();
+        // 499 is the first visible row (the header takes one row), 5 buffer rows around
+        Assertions.assertEquals(1 + 1 + 20 + 1 + 1, rows.size());
+        Assertions.assertEquals(494 * 48 + "px", rows.get(1).getStyle().get("height"));
+        Assertions.assertEquals((1000 - 514) * 48 + "px", rows.get(22).getStyle().get("height"));
+        Assertions.assertEquals("Product 494", editor(rows.get(2), 0).getElement().getProperty("value"));
+        Assertions.assertEquals("Product 513", editor(rows.get(21), 0).getElement().getProperty("value"));
+
+        // a small scroll keeps the rows still in view in place
+        TableRow row510 = rows.get(2 + 16);
+        scroll(field, 505 * 48);
+        rows = field.table.getRows();
+        Assertions.assertEquals(2 + 11, rows.indexOf(row510));
+        Assertions.assertEquals("Product 510", editor(row510, 0).getElement().getProperty("value"));
+        Assertions.assertEquals("Product 499", editor(rows.get(2), 0).getElement().getProperty("value"));
+
+        // back to the top, the editors are recycled
+        scroll(field, 0);
+        rows = field.table.getRows();
+        Assertions.assertEquals(1 + 1 + 15 + 1 + 1, rows.size());
+        Assertions.assertEquals("Product 0", editor(rows.get(2), 0).getElement().getProperty("value"));
+    }
+
+    @Test
+    public void testVirtualizedEditAndDelete() {
+        ElementCollectionField<LineItem> field = new ElementCollectionField<>(LineItem.class)
+                .withVirtualized(true);
+        List<LineItem> items = lineItems(100);
+        field.setValue(items);
+        AtomicInteger valueChanges = new AtomicInteger();
+        field.addValueChangeListener(e -> valueChanges.incrementAndGet());
+
+        scroll(field, 50 * 48);
+        TableRow row = field.table.getRows().get(2);
+        TextField product = editor(row, 0);
+        Assertions.assertEquals("Product 44", product.getValue());
+        clientEdit(product, "Edited");
+        Assertions.assertEquals(new LineItem("Edited", 44), items.get(44));
+        Assertions.assertEquals(1, valueChanges.get());
+
+        deleteButton(row).click();
+        Assertions.assertEquals(99, items.size());
+        Assertions.assertEquals(new LineItem("Product 45", 45), items.get(44));
+        Assertions.assertEquals(2, valueChanges.get());
+        // the window is re-rendered from the modified list
+        Assertions.assertEquals("Product 45",
+                editor(field.table.getRows().get(2), 0).getElement().getProperty("value"));
+    }
+
+    @Test
+    public void testVirtualizedRecycledEditorIsValid() {
+        ElementCollectionField<LineItem> field = new ElementCollectionField<>(LineItem.class)
+                .withVirtualized(true);
+        field.setValue(lineItems(1000));
+
+        TextField product = editor(field.table.getRows().get(2), 0);
+        product.setInvalid(true);
+        product.setErrorMessage("Discontinued");
+
+        // the editor is recycled for a row further down
+        scroll(field, 500 * 48);
+        TableRow row = field.table.getRows().stream()
+                .filter(r -> r.getCells().stream().anyMatch(c -> c.getChildren().anyMatch(e -> e == product)))
+                .findFirst().get();
+        Assertions.assertNotEquals("Product 0", editor(row, 0).getElement().getProperty("value"));
+        Assertions.assertFalse(product.isInvalid());
+        Assertions.assertTrue(StringUtils.isEmpty(product.getErrorMessage()));
+    }
+
+    @Test
+    public void testVirtualizedNewItem() {
+        ElementCollectionField<Address> field = new ElementCollectionField<>(Address.class)
+                .withVirtualized(true);
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            addresses.add(new Address("Street " + i, "City"));
+        }
+        field.setValue(addresses);
+
+        List<TableRow> rows = field.table.getRows();
+        TableRow newItemRow = rows.get(rows.size() - 1);
+        clientEdit(editor(newItemRow, 0), "New street");
+        Assertions.assertEquals(101, addresses.size());
+        Assertions.assertEquals("New street", addresses.get(100).getStreet());
+
+        // the editors stay in place, after the bottom spacer, a new "new item" row is added
+        rows = field.table.getRows();
+        Assertions.assertEquals(rows.size() - 2, rows.indexOf(newItemRow));
+        Assertions.assertEquals(85 * 48 + "px", rows.get(rows.size() - 3).getStyle().get("height"));
+
+        // removing an item above doesn't break the index of the appended row
+        deleteButton(rows.get(2)).click();
+        clientEdit(editor(newItemRow, 0), "Edited street");
+        Assertions.assertEquals(100, addresses.size());
+        Assertions.assertEquals("Edited street", addresses.get(99).getStreet());
+
+        deleteButton(newItemRow).click();
+        Assertions.assertEquals(99, addresses.size());
+        Assertions.assertFalse(field.table.getRows().contains(newItemRow));
+    }
+
+    @Test
+    public void testVirtualizedAbstractFormRows() {
+        ElementCollectionField<Address> field = new ElementCollectionField<>(Address.class, AddressRowForm.class)
+                .withVirtualized(true);
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            addresses.add(new Address("Street " + i, "City " + i));
+        }
+        field.setValue(addresses);
+
+        List<TableRow> rows = field.table.getRows();
+        Assertions.assertEquals(1 + 1 + 15 + 1 + 1, rows.size());
+        TextField street = editor(rows.get(2), 0);
+        Assertions.assertEquals("Street 0", street.getValue());
+
+        scroll(field, 500 * 48);
+        rows = field.table.getRows();
+        Assertions.assertEquals("Street 494", ((TextField) editor(rows.get(2), 0)).getValue());
+        Assertions.assertEquals("City 513", ((TextField) editor(rows.get(21), 1)).getValue());
+    }
+
+    @Test
+    public void testHeaderMatchesBoundEditors() {
+        List<Address> addresses = new ArrayList<>(List.of(new Address("Street", "City")));
+        for (boolean virtualized : new boolean[]{false, true}) {
+            ElementCollectionField<Address> field = new ElementCollectionField<>(Address.class, AddressEditor.class)
+                    .withVirtualized(virtualized);
+            field.setValue(addresses);
+            List<TableRow> rows = field.table.getRows();
+            TableRow header = rows.get(0);
+            Assertions.assertEquals(List.of("Street", "City"),
+                    header.getCells().stream().map(c -> c.getElement().getText()).toList());
+            // the editor columns + the delete button
+            TableRow newItemRow = rows.get(rows.size() - 1);
+            Assertions.assertEquals(header.getCells().size() + 1, newItemRow.getCells().size());
+        }
+    }
+}
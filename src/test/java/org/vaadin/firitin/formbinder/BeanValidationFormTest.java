@@ -0,0 +1,187 @@
+package org.vaadin.firitin.formbinder;
+
+import com.vaadin.flow.component.AbstractField;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.textfield.TextField;
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Payload;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.vaadin.firitin.components.textfield.VTextField;
+import org.vaadin.firitin.form.BeanValidationForm;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+public class BeanValidationFormTest {
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Constraint(validatedBy = NickDiffersFromNameValidator.class)
+    public @interface NickDiffersFromName {
+        String message() default "Nick must differ from name";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    public static class NickDiffersFromNameValidator implements ConstraintValidator<NickDiffersFromName, Account> {
+        @Override
+        public boolean isValid(Account account, ConstraintValidatorContext context) {
+            return account == null || account.getName() == null || !Objects.equals(account.getName(), account.getNick());
+        }
+    }
+
+    @NickDiffersFromName
+    public static class Account {
+        @NotBlank
+        private String name;
+        @Size(max = 5)
+        private String nick;
+
+        public Account(String name, String nick) {
+            this.name = name;
+            this.nick = nick;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getNick() {
+            return nick;
+        }
+
+        public void setNick(String nick) {
+            this.nick = nick;
+        }
+    }
+
+    public static class AccountForm extends BeanValidationForm<Account> {
+        TextField name = new VTextField();
+        TextField nick = new VTextField();
+
+        int beanValidations;
+        List<String> propertyValidations = new ArrayList<>();
+
+        public AccountForm() {
+            super(Account.class);
+        }
+
+        @Override
+        protected List<Component> getFormComponents() {
+            return List.of(name, nick);
+        }
+
+        @Override
+        protected <X> Set<ConstraintViolation<X>> doBeanValidation(X object) {
+            beanValidations++;
+            return super.doBeanValidation(object);
+        }
+
+        @Override
+        protected Set<ConstraintViolation<Account>> doPropertyValidation(Account object, String property) {
+            propertyValidations.add(property);
+            return super.doPropertyValidation(object, property);
+        }
+
+        int classLevelViolations() {
+            return (int) ((Component) getBinder().getClassLevelViolationDisplay()).getChildren().count();
+        }
+    }
+
+    /**
+     * Changes the value like the user would do it in the browser.
+     */
+    private static <C extends AbstractField<C, V>, V> void clientEdit(C field, V value) {
+        V oldValue = field.getValue();
+        // server originated change, ignored by the binder
+        field.setValue(value);
+        ComponentUtil.fireEvent(field, new AbstractField.ComponentValueChangeEvent<>(field, field, oldValue, true));
+    }
+
+    @Test
+    public void testIncrementalValidationValidatesOnlyTheChangedProperty() {
+        AccountForm form = new AccountForm();
+        form.setIncrementalValidation(true);
+        form.setClassLevelValidationDependencies("name");
+        // blank name is invalid, but not touched by the user
+        form.setEntity(new Account("", "joe"));
+
+        clientEdit(form.nick, "too long nick");
+        Assertions.assertEquals(List.of("nick"), form.propertyValidations);
+        Assertions.assertEquals(0, form.beanValidations);
+        Assertions.assertTrue(form.nick.isInvalid());
+        Assertions.assertFalse(form.name.isInvalid());
+        Assertions.assertFalse(form.getBinder().isValid());
+
+        clientEdit(form.nick, "jo");
+        Assertions.assertEquals(List.of("nick", "nick"), form.propertyValidations);
+        Assertions.assertEquals(0, form.beanValidations);
+        Assertions.assertFalse(form.nick.isInvalid());
+        Assertions.assertFalse(form.name.isInvalid());
+        Assertions.assertTrue(form.getBinder().isValid());
+    }
+
+    @Test
+    public void testClassLevelConstraintsRunForDependencies() {
+        AccountForm form = new AccountForm();
+        form.setIncrementalValidation(true);
+        form.setClassLevelValidationDependencies("name");
+        form.setEntity(new Account("", "jo"));
+
+        // name is a dependency of the class level constraint -> full validation
+        clientEdit(form.name, "jo");
+        Assertions.assertEquals(1, form.beanValidations);
+        Assertions.assertTrue(form.propertyValidations.isEmpty());
+        Assertions.assertEquals(1, form.classLevelViolations());
+        Assertions.assertFalse(form.getBinder().isValid());
+
+        clientEdit(form.name, "Joe");
+        Assertions.assertEquals(2, form.beanValidations);
+        Assertions.assertEquals(0, form.classLevelViolations());
+        Assertions.assertTrue(form.getBinder().isValid());
+    }
+
+    @Test
+    public void testClassLevelConstraintsWithoutDeclaredDependencies() {
+        AccountForm form = new AccountForm();
+        form.setIncrementalValidation(true);
+        form.setEntity(new Account("Joe", "jo"));
+
+        // class level constraints might depend on any property
+        clientEdit(form.nick, "Joe");
+        Assertions.assertEquals(1, form.beanValidations);
+        Assertions.assertTrue(form.propertyValidations.isEmpty());
+        Assertions.assertEquals(1, form.classLevelViolations());
+    }
+
+    @Test
+    public void testFullValidationByDefault() {
+        AccountForm form = new AccountForm();
+        form.setEntity(new Account("", "jo"));
+
+        clientEdit(form.nick, "jon");
+        Assertions.assertEquals(1, form.beanValidations);
+        Assertions.assertTrue(form.propertyValidations.isEmpty());
+        // the whole bean is validated, also the untouched name
+        Assertions.assertTrue(form.name.isInvalid());
+    }
+}
@@ -0,0 +1,344 @@
+package org.vaadin.firitin.formbinder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
+import com.fasterxml.jackson.databind.introspect.BasicBeanDescription;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasValue;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.binder.ValueContext;
+import com.vaadin.flow.data.converter.Converter;
+import com.vaadin.flow.data.converter.DefaultConverterFactory;
+import com.vaadin.flow.data.value.HasValueChangeMode;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.vaadin.firitin.components.textfield.VTextField;
+import org.vaadin.firitin.form.BindingPlan;
+import org.vaadin.firitin.form.FormBinder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A rough benchmark comparing the "old" way of FormBinder (introspection and
+ * reflection on each binder and value change) to the shared {@link BindingPlan}.
+ * Not a proper JMH benchmark, but gives an idea of the difference. Numbers are
+ * printed to stdout, only the sanity of the results is asserted.
+ * <p>
+ * The "before" numbers come from {@link LegacyBinder}, a trimmed down copy of
+ * the FormBinder before binding plans, so that both sides do the same work.
+ * Benchmarks are excluded from the default test run, run them explicitly
+ * with {@code mvn test -Dtest=FormBinderBenchmark}.
+ * </p>
+ */
+public class FormBinderBenchmark {
+
+    private static final int ROUNDS = 2000;
+
+    private static final ObjectMapper jack = new ObjectMapper();
+
+    /**
+     * Mimics what the FormBinder did before binding plans: introspection on
+     * each construction, reflection for each value access and a converter
+     * lookup with a new ValueContext for each converted value.
+     */
+    static class LegacyBinder<T> {
+
+        private final BasicBeanDescription bbd;
+        private final Map<BeanPropertyDefinition, HasValue> bpdToEditorField = new HashMap<>();
+        private final List<Registration> registrations = new ArrayList<>();
+        private T valueObject;
+
+        LegacyBinder(Class<T> tClass, Component form) throws IllegalAccessException {
+            JavaType javaType = jack.getTypeFactory().constructType(tClass);
+            bbd = jack.getSerializationConfig().introspect(javaType);
+            for (Field f : form.getClass().getDeclaredFields()) {
+                if (HasValue.class.isAssignableFrom(f.getType())) {
+                    BeanPropertyDefinition property = bbd.findProperty(new PropertyName(f.getName()));
+                    if (property != null) {
+                        property.getAccessor().fixAccess(true);
+                        f.setAccessible(true);
+                        bind(property, (HasValue) f.get(form));
+                    }
+                }
+            }
+        }
+
+        private void bind(BeanPropertyDefinition property, HasValue hasValue) {
+            bpdToEditorField.put(property, hasValue);
+            if (hasValue instanceof HasValueChangeMode hvcm) {
+                hvcm.setValueChangeMode(ValueChangeMode.LAZY);
+            }
+            if (!bbd.isRecordType()) {
+                registrations.add(hasValue.addValueChangeListener(e -> {
+                    Object value = convert(e.getValue(), property, new ValueContext((Component) hasValue));
+                    try {
+                        property.getSetter().callOnWith(valueObject, value);
+                    } catch (Exception ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }));
+            }
+            registrations.add(hasValue.addValueChangeListener(e -> {
+                // value change listeners of the binder would be notified here
+            }));
+        }
+
+        int getBoundCount() {
+            return bpdToEditorField.size();
+        }
+
+        void unBind() {
+            registrations.forEach(Registration::remove);
+            registrations.clear();
+        }
+
+        void setValue(T value) {
+            valueObject = value;
+            for (BeanPropertyDefinition pd : bbd.findProperties()) {
+                HasValue hasValue = bpdToEditorField.get(pd);
+                if (hasValue != null) {
+                    Object pValue = bbd.isRecordType() ? pd.getAccessor().getValue(value) : pd.getGetter().getValue(value);
+                    if (pValue == null) {
+                        hasValue.clear();
+                    } else {
+                        hasValue.setValue(pValue);
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T getValue() {
+            if (!bbd.isRecordType()) {
+                return valueObject;
+            }
+            AnnotatedConstructor constructor = bbd.getConstructors().get(0);
+            List<BeanPropertyDefinition> properties = bbd.findProperties();
+            Object[] args = new Object[constructor.getParameterCount()];
+            for (int i = 0; i < args.length; i++) {
+                BeanPropertyDefinition definition = properties.get(i);
+                HasValue hasValue = bpdToEditorField.get(definition);
+                args[i] = convert(hasValue.getValue(), definition, new ValueContext((Component) hasValue));
+            }
+            try {
+                constructor.fixAccess(true);
+                return (T) constructor.call(args);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object convert(Object value, BeanPropertyDefinition property, ValueContext ctx) {
+            Class<?> presentationValueClass = value.getClass();
+            if (!property.getPrimaryType().isTypeOrSuperTypeOf(presentationValueClass)) {
+                Converter converter = DefaultConverterFactory.INSTANCE.newInstance(
+                        presentationValueClass, property.getPrimaryType().getRawClass()).get();
+                value = converter.convertToModel(value, ctx).getOrThrow(em -> new IllegalArgumentException("Conversion failed" + em));
+            }
+            return value;
+        }
+    }
+
+    @Test
+    public void construction() throws Exception {
+        FormBinderTest.FooBarForm form = new FormBinderTest.FooBarForm();
+        // warm up both paths
+        for (int i = 0; i < ROUNDS; i++) {
+            new LegacyBinder<>(FormBinderTest.FooCarPojo.class, form).unBind();
+            new FormBinder<>(FormBinderTest.FooCarPojo.class, form).unBind();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            // unBind so that listeners don't pile up in the shared fields
+            LegacyBinder<FormBinderTest.FooCarPojo> binder = new LegacyBinder<>(FormBinderTest.FooCarPojo.class, form);
+            Assertions.assertEquals(3, binder.getBoundCount());
+            binder.unBind();
+        }
+        long legacy = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            FormBinder<FormBinderTest.FooCarPojo> binder = new FormBinder<>(FormBinderTest.FooCarPojo.class, form);
+            Assertions.assertEquals(3, binder.getBoundProperties().size());
+            binder.unBind();
+        }
+        long planned = System.nanoTime() - start;
+
+        report("Binder construction (introspection + listener wiring), legacy vs plan", legacy, planned, ROUNDS);
+    }
+
+    @Test
+    public void valueAccess() throws Exception {
+        JavaType javaType = jack.getTypeFactory().constructType(FormBinderTest.FooCarPojo.class);
+        BasicBeanDescription bbd = jack.getSerializationConfig().introspect(javaType);
+        BeanPropertyDefinition foo = bbd.findProperty(new PropertyName("foo"));
+        BindingPlan.Property compiledFoo = BindingPlan.of(FormBinderTest.FooCarPojo.class).getProperty("foo");
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        FormBinderTest.FooCarPojo pojo = new FormBinderTest.FooCarPojo("Jorma", now, 69);
+        int rounds = ROUNDS * 100;
+        for (int i = 0; i < rounds; i++) {
+            foo.getSetter().callOnWith(pojo, foo.getGetter().getValue(pojo));
+            compiledFoo.setValue(pojo, compiledFoo.getValue(pojo));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            foo.getSetter().callOnWith(pojo, foo.getGetter().getValue(pojo));
+        }
+        long legacy = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            compiledFoo.setValue(pojo, compiledFoo.getValue(pojo));
+        }
+        long planned = System.nanoTime() - start;
+
+        Assertions.assertEquals("Jorma", pojo.getFoo());
+        report("Property get+set, Jackson reflection vs compiled plan", legacy, planned, rounds);
+    }
+
+    @Test
+    public void setAndGetValue() throws Exception {
+        FormBinderTest.FooBarForm legacyForm = new FormBinderTest.FooBarForm();
+        LegacyBinder<FormBinderTest.FooBar> legacyBinder = new LegacyBinder<>(FormBinderTest.FooBar.class, legacyForm);
+        FormBinderTest.FooBarForm form = new FormBinderTest.FooBarForm();
+        FormBinder<FormBinderTest.FooBar> binder = new FormBinder<>(FormBinderTest.FooBar.class, form);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        // alternate between two values, so that the editors really change
+        FormBinderTest.FooBar[] values = {
+                new FormBinderTest.FooBar("Jorma", now, 69),
+                new FormBinderTest.FooBar("Kalle", now.plusDays(1), 70)
+        };
+        for (int i = 0; i < ROUNDS; i++) {
+            legacyBinder.setValue(values[i % 2]);
+            legacyBinder.getValue();
+            binder.setValue(values[i % 2]);
+            binder.getValue();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            legacyBinder.setValue(values[i % 2]);
+            Assertions.assertEquals(values[i % 2], legacyBinder.getValue());
+        }
+        long legacy = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            binder.setValue(values[i % 2]);
+            Assertions.assertEquals(values[i % 2], binder.getValue());
+        }
+        long planned = System.nanoTime() - start;
+
+        report("setValue+getValue (record), legacy vs plan", legacy, planned, ROUNDS);
+    }
+
+    public static class Counter {
+        private String name;
+        private Integer count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+    }
+
+    public static class CounterForm extends VerticalLayout {
+        TextField name = new VTextField();
+        // String -> Integer, converted with Vaadin's default converters
+        TextField count = new VTextField();
+
+        public CounterForm() {
+            add(name, count);
+        }
+    }
+
+    /**
+     * The input conversion hot path: a String editor of an Integer property
+     * changes and the converted value is written to the bean. Same operation
+     * on both sides, the allocations per change are reported as well, the
+     * difference is what the legacy converter lookup and value context cost.
+     */
+    @Test
+    public void inputConversion() throws Exception {
+        CounterForm legacyForm = new CounterForm();
+        LegacyBinder<Counter> legacyBinder = new LegacyBinder<>(Counter.class, legacyForm);
+        Counter legacyCounter = new Counter();
+        legacyBinder.setValue(legacyCounter);
+
+        CounterForm form = new CounterForm();
+        FormBinder<Counter> binder = new FormBinder<>(Counter.class, form);
+        // the test changes values from the server side
+        binder.setIgnoreServerOriginatedChanges(false);
+        Counter counter = new Counter();
+        binder.setValue(counter);
+
+        int rounds = ROUNDS * 10;
+        String[] inputs = {"42", "43"};
+        for (int i = 0; i < rounds; i++) {
+            legacyForm.count.setValue(inputs[i % 2]);
+            form.count.setValue(inputs[i % 2]);
+        }
+
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            legacyForm.count.setValue(inputs[i % 2]);
+        }
+        long legacy = System.nanoTime() - start;
+        long legacyAllocated = allocatedBytes() - allocated;
+
+        allocated = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            form.count.setValue(inputs[i % 2]);
+        }
+        long planned = System.nanoTime() - start;
+        long plannedAllocated = allocatedBytes() - allocated;
+
+        Assertions.assertEquals(43, legacyCounter.getCount());
+        Assertions.assertEquals(43, counter.getCount());
+        Assertions.assertFalse(binder.hasInputConversionErrors());
+        report("Input conversion per value change, legacy vs cached converter", legacy, planned, rounds);
+        System.out.printf("Input conversion per value change, allocations: %d B/op vs %d B/op%n",
+                legacyAllocated / rounds, plannedAllocated / rounds);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean) {
+            return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static void report(String title, long legacy, long planned, int ops) {
+        System.out.printf("%s: %d ns/op vs %d ns/op%n", title, legacy / ops, planned / ops);
+    }
+}
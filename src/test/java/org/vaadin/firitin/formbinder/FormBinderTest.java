@@ -1,5 +1,6 @@
 package org.vaadin.firitin.formbinder;
 
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.datetimepicker.DateTimePicker;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.IntegerField;
@@ -18,11 +19,17 @@ import org.junit.jupiter.api.Test;
 import org.vaadin.firitin.components.textfield.VIntegerField;
 import org.vaadin.firitin.components.textfield.VTextField;
 import org.vaadin.firitin.form.FormBinder;
+import org.vaadin.firitin.form.FormBinderValueChangeEvent;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class FormBinderTest {
 
@@ -292,6 +299,317 @@ public class FormBinderTest {
 
     }
 
+    @Test
+    public void testPropertyConstraintViolations() {
+        FooBarForm fooBarForm = new FooBarForm();
+        FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+        FooCarPojo pojo = new FooCarPojo("Jorma", LocalDateTime.now().minusDays(1), 69);
+        binder.setValue(pojo);
+
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        binder.setConstraintViolations(validator.validate(pojo));
+        Assertions.assertTrue(fooBarForm.bar.isInvalid());
+        Assertions.assertFalse(binder.isValid());
+
+        // validating other property should not touch the error state of bar
+        binder.setPropertyConstraintViolations("foo", validator.validateProperty(pojo, "foo"));
+        Assertions.assertTrue(fooBarForm.bar.isInvalid());
+        Assertions.assertFalse(binder.isValid());
+
+        pojo.setBar(LocalDateTime.now().plusDays(1));
+        binder.setPropertyConstraintViolations("bar", validator.validateProperty(pojo, "bar"));
+        Assertions.assertFalse(fooBarForm.bar.isInvalid());
+        Assertions.assertTrue(binder.isValid());
+    }
+
+    @Test
+    public void testChangeTracking() {
+        FooBarForm fooBarForm = new FooBarForm();
+        FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+        binder.setIgnoreServerOriginatedChanges(false);
+        binder.setValue(new FooCarPojo("Jorma", LocalDateTime.now(), 69));
+        Assertions.assertFalse(binder.hasChanges());
+
+        fooBarForm.baz.setValue(70);
+        Assertions.assertTrue(binder.hasChanges());
+        Assertions.assertEquals(Set.of("baz"), binder.getChangedProperties());
+        Assertions.assertEquals(70, binder.getChangedValues().get("baz"));
+        Assertions.assertEquals(70, binder.getChangesAsMergePatch().get("baz").intValue());
+
+        binder.setValue(new FooCarPojo("Kalle", LocalDateTime.now(), 1));
+        Assertions.assertFalse(binder.hasChanges());
+    }
+
+    @Test
+    public void testCoalescedValueChangeEvents() {
+        UI ui = new UI();
+        UI.setCurrent(ui);
+        try {
+            FooBarForm fooBarForm = new FooBarForm();
+            FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+            binder.setIgnoreServerOriginatedChanges(false);
+            binder.setCoalesceValueChangeEvents(true);
+            binder.setValue(new FooCarPojo("Jorma", LocalDateTime.now(), 69));
+            List<FormBinderValueChangeEvent<FooCarPojo>> events = new ArrayList<>();
+            binder.addValueChangeListener(events::add);
+
+            fooBarForm.foo.setValue("Kalle");
+            fooBarForm.baz.setValue(70);
+            Assertions.assertTrue(events.isEmpty());
+
+            ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+            Assertions.assertEquals(1, events.size());
+            Assertions.assertEquals(Set.of("foo", "baz"), events.get(0).getProperties());
+            Assertions.assertNull(events.get(0).getProperty());
+        } finally {
+            UI.setCurrent(null);
+        }
+    }
+
+    @Test
+    public void testAsyncValidationCancelAndRestart() {
+        FooBarForm fooBarForm = new FooBarForm();
+        FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+        binder.setIgnoreServerOriginatedChanges(false);
+        binder.setValue(new FooCarPojo("Jorma", LocalDateTime.now(), 69));
+        List<CompletableFuture<String>> started = new ArrayList<>();
+        binder.addAsyncValidator("foo", (value, executor) -> {
+            CompletableFuture<String> validation = new CompletableFuture<>();
+            started.add(validation);
+            return validation;
+        });
+
+        fooBarForm.foo.setValue("Kal");
+        // the user continues typing before the first validation is done
+        fooBarForm.foo.setValue("Kalle");
+        Assertions.assertEquals(2, started.size());
+        Assertions.assertTrue(started.get(0).isCancelled());
+        Assertions.assertTrue(binder.hasPendingAsyncValidations());
+
+        started.get(1).complete("Kalle is taken");
+        Assertions.assertFalse(binder.hasPendingAsyncValidations());
+        Assertions.assertTrue(fooBarForm.foo.isInvalid());
+        Assertions.assertEquals("Kalle is taken", fooBarForm.foo.getErrorMessage());
+        Assertions.assertEquals(Map.of("foo", "Kalle is taken"), binder.getAsyncViolations());
+        Assertions.assertFalse(binder.isValid());
+    }
+
+    @Test
+    public void testStaleAsyncValidationResultIsDropped() {
+        FooBarForm fooBarForm = new FooBarForm();
+        FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+        binder.setIgnoreServerOriginatedChanges(false);
+        binder.setValue(new FooCarPojo("Jorma", LocalDateTime.now(), 69));
+        // backend work that ignores cancellation
+        List<CompletableFuture<String>> work = new ArrayList<>();
+        binder.addAsyncValidator("foo", (value, executor) -> {
+            CompletableFuture<String> w = new CompletableFuture<>();
+            work.add(w);
+            return w.thenApply(msg -> msg);
+        });
+
+        fooBarForm.foo.setValue("Kal");
+        fooBarForm.foo.setValue("Kalle");
+
+        work.get(1).complete(null);
+        Assertions.assertFalse(binder.hasPendingAsyncValidations());
+        // the first validation finishes last, its result must not be shown
+        work.get(0).complete("Kal is taken");
+        Assertions.assertFalse(fooBarForm.foo.isInvalid());
+        Assertions.assertTrue(binder.getAsyncViolations().isEmpty());
+        Assertions.assertTrue(binder.isValid());
+    }
+
+    @Test
+    public void testAsyncValidationCancelledOnNewValue() {
+        UI ui = new UI();
+        UI.setCurrent(ui);
+        try {
+            FooBarForm fooBarForm = new FooBarForm();
+            FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+            binder.setIgnoreServerOriginatedChanges(false);
+            binder.setValue(new FooCarPojo("Jorma", LocalDateTime.now(), 69));
+            List<CompletableFuture<String>> work = new ArrayList<>();
+            binder.addAsyncValidator("foo", (value, executor) -> {
+                CompletableFuture<String> w = new CompletableFuture<>();
+                work.add(w);
+                return w.thenApply(msg -> msg);
+            });
+
+            fooBarForm.foo.setValue("Kalle");
+            Assertions.assertTrue(binder.hasPendingAsyncValidations());
+            Assertions.assertEquals(1000, ui.getPollInterval());
+
+            // another bean is edited before the validation completes
+            binder.setValue(new FooCarPojo("Ville", LocalDateTime.now(), 1));
+            Assertions.assertFalse(binder.hasPendingAsyncValidations());
+            Assertions.assertEquals(-1, ui.getPollInterval());
+            // setting the value doesn't start new validations
+            Assertions.assertEquals(1, work.size());
+
+            work.get(0).complete("Kalle is taken");
+            Assertions.assertFalse(fooBarForm.foo.isInvalid());
+            Assertions.assertTrue(binder.getAsyncViolations().isEmpty());
+            Assertions.assertTrue(binder.isValid());
+        } finally {
+            UI.setCurrent(null);
+        }
+    }
+
+    @Test
+    public void testAsyncViolationsClearedOnNewValue() {
+        FooBarForm fooBarForm = new FooBarForm();
+        FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+        binder.setIgnoreServerOriginatedChanges(false);
+        binder.setValue(new FooCarPojo("Jorma", LocalDateTime.now(), 69));
+        binder.addAsyncValidator("foo", (value, executor) -> CompletableFuture.completedFuture("taken"));
+
+        fooBarForm.foo.setValue("Kalle");
+        Assertions.assertFalse(binder.isValid());
+        Assertions.assertTrue(fooBarForm.foo.isInvalid());
+
+        binder.setValue(new FooCarPojo("Ville", LocalDateTime.now(), 1));
+        Assertions.assertTrue(binder.isValid());
+        Assertions.assertFalse(fooBarForm.foo.isInvalid());
+    }
+
+    @Test
+    public void testAsyncValidationPollingSurvivesRestart() {
+        UI ui = new UI();
+        UI.setCurrent(ui);
+        try {
+            FooBarForm fooBarForm = new FooBarForm();
+            FormBinder<FooCarPojo> binder = new FormBinder<>(FooCarPojo.class, fooBarForm);
+            binder.setIgnoreServerOriginatedChanges(false);
+            binder.setValue(new FooCarPojo("Jorma", LocalDateTime.now(), 69));
+            binder.addAsyncValidator("foo", (value, executor) -> new CompletableFuture<>());
+
+            fooBarForm.foo.setValue("Kal");
+            Assertions.assertEquals(1000, ui.getPollInterval());
+            // cancelling the stale validation must not turn polling off
+            fooBarForm.foo.setValue("Kalle");
+            Assertions.assertEquals(1000, ui.getPollInterval());
+            Assertions.assertTrue(binder.hasPendingAsyncValidations());
+
+            binder.unBind();
+            Assertions.assertEquals(-1, ui.getPollInterval());
+        } finally {
+            UI.setCurrent(null);
+        }
+    }
+
+    public record Price(String name, Double amount) {
+    }
+
+    public static class PriceForm extends VerticalLayout {
+        TextField name = new VTextField();
+        // String -> Double, converted with the locale of the UI
+        TextField amount = new VTextField();
+
+        public PriceForm() {
+            add(name, amount);
+        }
+    }
+
+    @Test
+    public void testInputConversionAfterLocaleChange() {
+        UI ui = new UI();
+        UI.setCurrent(ui);
+        try {
+            ui.setLocale(Locale.US);
+            PriceForm form = new PriceForm();
+            ui.add(form);
+            FormBinder<Price> binder = new FormBinder<>(Price.class, form);
+
+            form.amount.setValue("1,234.5");
+            Assertions.assertEquals(1234.5, binder.getValue().amount());
+            // again, with the cached converter and value context
+            form.amount.setValue("2.5");
+            Assertions.assertEquals(2.5, binder.getValue().amount());
+
+            ui.setLocale(Locale.GERMANY);
+            form.amount.setValue("1.234,5");
+            Assertions.assertEquals(1234.5, binder.getValue().amount());
+            form.amount.setValue("2,5");
+            Assertions.assertEquals(2.5, binder.getValue().amount());
+            Assertions.assertFalse(binder.hasInputConversionErrors());
+        } finally {
+            UI.setCurrent(null);
+        }
+    }
+
+    public static class PricePojo {
+        private String name;
+        private Double amount;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Double amount) {
+            this.amount = amount;
+        }
+    }
+
+    @Test
+    public void testBeanInputConversionAfterLocaleChange() {
+        UI ui = new UI();
+        UI.setCurrent(ui);
+        try {
+            ui.setLocale(Locale.US);
+            PriceForm form = new PriceForm();
+            ui.add(form);
+            FormBinder<PricePojo> binder = new FormBinder<>(PricePojo.class, form);
+            binder.setIgnoreServerOriginatedChanges(false);
+            PricePojo price = new PricePojo();
+            binder.setValue(price);
+
+            // converted to the bean by the value change listener
+            form.amount.setValue("1,234.5");
+            Assertions.assertEquals(1234.5, price.getAmount());
+
+            ui.setLocale(Locale.GERMANY);
+            form.amount.setValue("1.234,5");
+            Assertions.assertEquals(1234.5, price.getAmount());
+            Assertions.assertFalse(binder.hasInputConversionErrors());
+        } finally {
+            UI.setCurrent(null);
+        }
+    }
+
+    public record Point(Integer x, Integer y) {
+    }
+
+    public static class PointForm extends VerticalLayout {
+        IntegerField x = new VIntegerField();
+        IntegerField y = new VIntegerField();
+
+        public PointForm() {
+            add(x, y);
+        }
+    }
+
+    @Test
+    public void testGeneratedAccessorsAreUsed() {
+        PointForm form = new PointForm();
+        FormBinder<Point> binder = new FormBinder<>(Point.class, form);
+        binder.setValue(new Point(1, 2));
+        Assertions.assertEquals(2, form.y.getValue());
+        Assertions.assertTrue(FormBinderTest_Point_Accessors.reads >= 2);
+
+        form.x.setValue(3);
+        Assertions.assertEquals(new Point(3, 2), binder.getValue());
+        Assertions.assertTrue(FormBinderTest_Point_Accessors.constructions > 0);
+    }
+
     static class JustASetter {
         void setSomething(Integer v) { /* nothing */ }
     }
@@ -0,0 +1,53 @@
+package org.vaadin.firitin.formbinder;
+
+import org.vaadin.firitin.form.GeneratedAccessors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Hand written equivalent of what GenerateBinderProcessor generates for
+ * {@link FormBinderTest.Point}, counts the calls so that the test can
+ * verify the table is used instead of reflection.
+ */
+public final class FormBinderTest_Point_Accessors implements GeneratedAccessors<FormBinderTest.Point> {
+
+    static int reads;
+    static int constructions;
+
+    @Override
+    public Map<String, Class<?>> getPropertyTypes() {
+        return Map.of("x", Integer.class, "y", Integer.class);
+    }
+
+    @Override
+    public Map<String, Function<FormBinderTest.Point, Object>> getGetters() {
+        return Map.of(
+                "x", p -> {
+                    reads++;
+                    return p.x();
+                },
+                "y", p -> {
+                    reads++;
+                    return p.y();
+                });
+    }
+
+    @Override
+    public Map<String, BiConsumer<FormBinderTest.Point, Object>> getSetters() {
+        return Map.of();
+    }
+
+    @Override
+    public List<String> getConstructorParameters() {
+        return List.of("x", "y");
+    }
+
+    @Override
+    public FormBinderTest.Point newInstance(Object[] args) {
+        constructions++;
+        return new FormBinderTest.Point((Integer) args[0], (Integer) args[1]);
+    }
+}
@@ -0,0 +1,280 @@
+package org.vaadin.firitin.formbinder;
+
+import jakarta.validation.constraints.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.vaadin.firitin.form.BindingPlan;
+import org.vaadin.firitin.form.GenerateBinderProcessor;
+import org.vaadin.firitin.form.GeneratedAccessors;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Runs {@link GenerateBinderProcessor} with the system Java compiler and
+ * compiles its output, then uses the generated accessor tables.
+ */
+public class GenerateBinderProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Compiles the given sources with the processor enabled.
+     *
+     * @param sources fully qualified class name -> source
+     * @return a class loader for the compiled (and generated) classes
+     */
+    private ClassLoader compile(Map<String, String> sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assumptions.assumeTrue(compiler != null, "No system Java compiler available");
+        Path sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        Path generatedDir = Files.createDirectories(tempDir.resolve("generated"));
+        Path outputDir = Files.createDirectories(tempDir.resolve("classes"));
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey().replace('.', '/') + ".java");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            files.add(file.toFile());
+        }
+        // the annotation and the GeneratedAccessors interface, and Bean Validation
+        Path library = Path.of(GeneratedAccessors.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path validation = Path.of(NotNull.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, List.of(library, validation));
+            fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(generatedDir));
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(outputDir));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    null, null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(List.of(new GenerateBinderProcessor()));
+            boolean success = task.call();
+            Assertions.assertTrue(success, () -> "Compilation failed: " + diagnostics.getDiagnostics());
+        }
+        return new URLClassLoader(new URL[]{outputDir.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GeneratedAccessors<Object> accessors(ClassLoader loader, String type) throws Exception {
+        Class<?> accessorsClass = loader.loadClass(type + GeneratedAccessors.CLASS_NAME_SUFFIX);
+        return (GeneratedAccessors<Object>) accessorsClass.getDeclaredConstructor().newInstance();
+    }
+
+    private static Object get(GeneratedAccessors<Object> accessors, Object bean, String property) {
+        Function<Object, Object> getter = accessors.getGetters().get(property);
+        Assertions.assertNotNull(getter, "No getter for " + property);
+        return getter.apply(bean);
+    }
+
+    private static void set(GeneratedAccessors<Object> accessors, Object bean, String property, Object value) {
+        BiConsumer<Object, Object> setter = accessors.getSetters().get(property);
+        Assertions.assertNotNull(setter, "No setter for " + property);
+        setter.accept(bean, value);
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+        ClassLoader loader = compile(Map.of("test.Point", """
+                package test;
+
+                @org.vaadin.firitin.form.GenerateBinder
+                public record Point(int x, Integer y, String label) {
+                }
+                """));
+        GeneratedAccessors<Object> accessors = accessors(loader, "test.Point");
+
+        Assertions.assertEquals(List.of("x", "y", "label"), List.copyOf(accessors.getPropertyTypes().keySet()));
+        Assertions.assertEquals(int.class, accessors.getPropertyTypes().get("x"));
+        Assertions.assertEquals(List.of("x", "y", "label"), accessors.getConstructorParameters());
+        Assertions.assertTrue(accessors.getSetters().isEmpty());
+
+        Object point = accessors.newInstance(new Object[]{1, 2, "foo"});
+        Assertions.assertEquals(1, get(accessors, point, "x"));
+        Assertions.assertEquals(2, get(accessors, point, "y"));
+        Assertions.assertEquals("foo", get(accessors, point, "label"));
+
+        // the runtime lookup finds the generated table
+        Assertions.assertNotNull(BindingPlan.generatedAccessors(loader.loadClass("test.Point")));
+    }
+
+    @Test
+    public void testBean() throws Exception {
+        ClassLoader loader = compile(Map.of("test.Person", """
+                package test;
+
+                @org.vaadin.firitin.form.GenerateBinder
+                public class Person {
+                    private String firstName;
+                    private boolean active;
+                    public int age;
+
+                    public String getFirstName() {
+                        return firstName;
+                    }
+
+                    public void setFirstName(String firstName) {
+                        this.firstName = firstName;
+                    }
+
+                    public boolean isActive() {
+                        return active;
+                    }
+
+                    public void setActive(boolean active) {
+                        this.active = active;
+                    }
+                }
+                """));
+        GeneratedAccessors<Object> accessors = accessors(loader, "test.Person");
+
+        Assertions.assertEquals(List.of(), accessors.getConstructorParameters());
+        Object person = accessors.newInstance(new Object[0]);
+        set(accessors, person, "firstName", "Jorma");
+        set(accessors, person, "active", true);
+        set(accessors, person, "age", 42);
+        Assertions.assertEquals("Jorma", get(accessors, person, "firstName"));
+        Assertions.assertEquals(true, get(accessors, person, "active"));
+        Assertions.assertEquals(42, get(accessors, person, "age"));
+        Assertions.assertEquals(boolean.class, accessors.getPropertyTypes().get("active"));
+    }
+
+    @Test
+    public void testTypeUseAnnotations() throws Exception {
+        ClassLoader loader = compile(Map.of("test.Customer", """
+                package test;
+
+                import jakarta.validation.constraints.NotNull;
+
+                @org.vaadin.firitin.form.GenerateBinder
+                public class Customer {
+                    @NotNull
+                    public String[] tags;
+                    private @NotNull String name;
+                    private @NotNull java.util.List<@NotNull String> emails;
+
+                    public @NotNull String getName() {
+                        return name;
+                    }
+
+                    public void setName(@NotNull String name) {
+                        this.name = name;
+                    }
+
+                    public java.util.List<@NotNull String> getEmails() {
+                        return emails;
+                    }
+
+                    public void setEmails(@NotNull java.util.List<@NotNull String> emails) {
+                        this.emails = emails;
+                    }
+                }
+                """, "test.Address", """
+                package test;
+
+                @org.vaadin.firitin.form.GenerateBinder
+                public record Address(@jakarta.validation.constraints.NotNull String street, int @jakarta.validation.constraints.NotNull [] zip) {
+                }
+                """));
+        GeneratedAccessors<Object> accessors = accessors(loader, "test.Customer");
+        Assertions.assertEquals(String.class, accessors.getPropertyTypes().get("name"));
+        Assertions.assertEquals(List.class, accessors.getPropertyTypes().get("emails"));
+        Assertions.assertEquals(String[].class, accessors.getPropertyTypes().get("tags"));
+        Object customer = accessors.newInstance(new Object[0]);
+        set(accessors, customer, "name", "Jorma");
+        set(accessors, customer, "emails", List.of("jorma@example.com"));
+        Assertions.assertEquals("Jorma", get(accessors, customer, "name"));
+        Assertions.assertEquals(List.of("jorma@example.com"), get(accessors, customer, "emails"));
+
+        GeneratedAccessors<Object> addressAccessors = accessors(loader, "test.Address");
+        Assertions.assertEquals(int[].class, addressAccessors.getPropertyTypes().get("zip"));
+        Object address = addressAccessors.newInstance(new Object[]{"Ruukinkatu", new int[]{20540}});
+        Assertions.assertEquals("Ruukinkatu", get(addressAccessors, address, "street"));
+    }
+
+    @Test
+    public void testNonPublicSettersFromOtherPackageAreSkipped() throws Exception {
+        ClassLoader loader = compile(Map.of(
+                "base.Base", """
+                        package base;
+
+                        public class Base {
+                            private String secret;
+                            private String hidden;
+
+                            public String getSecret() {
+                                return secret;
+                            }
+
+                            protected void setSecret(String secret) {
+                                this.secret = secret;
+                            }
+
+                            public String getHidden() {
+                                return hidden;
+                            }
+
+                            void setHidden(String hidden) {
+                                this.hidden = hidden;
+                            }
+                        }
+                        """,
+                "test.Sub", """
+                        package test;
+
+                        @org.vaadin.firitin.form.GenerateBinder
+                        public class Sub extends base.Base {
+                            private String name;
+
+                            public String getName() {
+                                return name;
+                            }
+
+                            public void setName(String name) {
+                                this.name = name;
+                            }
+                        }
+                        """));
+        GeneratedAccessors<Object> accessors = accessors(loader, "test.Sub");
+
+        // the generated code compiled, and only contains the callable setters
+        Assertions.assertEquals(List.of("name"), List.copyOf(accessors.getSetters().keySet()));
+        Assertions.assertTrue(accessors.getGetters().containsKey("secret"));
+        Assertions.assertTrue(accessors.getGetters().containsKey("hidden"));
+    }
+
+    @Test
+    public void testNestedType() throws Exception {
+        ClassLoader loader = compile(Map.of("test.Outer", """
+                package test;
+
+                public class Outer {
+                    @org.vaadin.firitin.form.GenerateBinder
+                    public record Inner(String value) {
+                    }
+                }
+                """));
+        GeneratedAccessors<Object> accessors = accessors(loader, "test.Outer_Inner");
+        Object inner = accessors.newInstance(new Object[]{"foo"});
+        Assertions.assertEquals("test.Outer$Inner", inner.getClass().getName());
+        Assertions.assertEquals("foo", get(accessors, inner, "value"));
+    }
+}
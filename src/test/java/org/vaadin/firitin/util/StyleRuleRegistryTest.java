@@ -0,0 +1,114 @@
+package org.vaadin.firitin.util;
+
+import com.vaadin.flow.component.UI;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+public class StyleRuleRegistryTest {
+
+    private static TreeMap<String, String> declarations(String... keyValues) {
+        TreeMap<String, String> map = new TreeMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Test
+    public void testComputeRule() {
+        StyleRuleRegistry.Rule rule = StyleRuleRegistry.computeRule(
+                declarations("color", "red", "background", "blue"), "p-");
+        // sorted by property name
+        Assertions.assertEquals("background: blue;color: red;", rule.body());
+        Assertions.assertTrue(rule.key().startsWith("p-"));
+        Assertions.assertEquals(rule, StyleRuleRegistry.computeRule(
+                declarations("background", "blue", "color", "red"), "p-"));
+    }
+
+    @Test
+    public void testRegistryPerUI() {
+        UI ui = new UI();
+        UI other = new UI();
+        Assertions.assertSame(StyleRuleRegistry.of(ui), StyleRuleRegistry.of(ui));
+        Assertions.assertNotSame(StyleRuleRegistry.of(ui), StyleRuleRegistry.of(other));
+
+        StyleRuleRegistry.Rule rule = StyleRuleRegistry.computeRule(declarations("color", "red"), "r-");
+        List<String> injected = new ArrayList<>();
+        String key = StyleRuleRegistry.of(ui).register(rule, r -> {
+            injected.add(r.key());
+            return "." + r.key() + " {" + r.body() + "}";
+        });
+        Assertions.assertEquals(rule.key(), key);
+        Assertions.assertEquals(List.of(key), injected);
+
+        // the other UI needs the CSS as well
+        String otherKey = StyleRuleRegistry.of(other).register(rule, r -> {
+            injected.add(r.key());
+            return "";
+        });
+        Assertions.assertEquals(key, otherKey);
+        Assertions.assertEquals(List.of(key, key), injected);
+    }
+
+    @Test
+    public void testRuleIsReused() {
+        StyleRuleRegistry registry = StyleRuleRegistry.of(new UI());
+        List<String> injected = new ArrayList<>();
+        String first = registry.register(StyleRuleRegistry.computeRule(declarations("color", "red"), "r-"),
+                r -> {
+                    injected.add(r.key());
+                    return "";
+                });
+        // an equal rule, e.g. from another grid, is injected only once
+        String second = registry.register(StyleRuleRegistry.computeRule(declarations("color", "red"), "r-"),
+                r -> {
+                    injected.add(r.key());
+                    return "";
+                });
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1, injected.size());
+    }
+
+    @Test
+    public void testKeyCollision() {
+        StyleRuleRegistry registry = StyleRuleRegistry.of(new UI());
+        String first = registry.register(new StyleRuleRegistry.Rule("r-1", "color: red;"), r -> "");
+        // different declarations with the same key get a unique key
+        String second = registry.register(new StyleRuleRegistry.Rule("r-1", "color: blue;"), r -> "");
+        Assertions.assertEquals("r-1", first);
+        Assertions.assertEquals("r-1-1", second);
+        Assertions.assertEquals("r-1", registry.register(new StyleRuleRegistry.Rule("r-1", "color: red;"), r -> ""));
+    }
+
+    @Test
+    public void testSerializable() throws Exception {
+        UI ui = new UI();
+        StyleRuleRegistry.Rule rule = StyleRuleRegistry.computeRule(declarations("color", "red"), "r-");
+        String key = StyleRuleRegistry.of(ui).register(rule, r -> "");
+
+        // stored in the UI data, serialized with the session
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ui);
+        }
+        UI deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (UI) in.readObject();
+        }
+        List<String> injected = new ArrayList<>();
+        Assertions.assertEquals(key, StyleRuleRegistry.of(deserialized).register(rule, r -> {
+            injected.add(r.key());
+            return "";
+        }));
+        // already injected before serialization
+        Assertions.assertTrue(injected.isEmpty());
+    }
+}